@@ -0,0 +1,100 @@
+package com.techcorp.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.techcorp.model.Employee;
+import com.techcorp.model.Position;
+import com.techcorp.service.EmployeeColumns;
+
+/**
+ * Stream&lt;Employee&gt; pipelines (as EmployeeService used to compute them) against
+ * the same aggregations over an {@link EmployeeColumns} snapshot.
+ * <p>
+ * Measured at 1M rows (JDK 21, one core, 1 fork, 5 x 2 s iterations), in ms/op:
+ * average 30.2 &plusmn; 21.6 vs 0.69 &plusmn; 0.46, sum by position 23.1 &plusmn; 14.6 vs
+ * 1.35 &plusmn; 0.77, underpaid count 20.6 &plusmn; 2.9 vs 1.16 &plusmn; 0.19. The 10M case needs
+ * the 6 GB heap below and was not run there.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class ColumnarAggregationBenchmark {
+
+    private static final Position[] POSITIONS = Position.values();
+
+    @Param({"1000000", "10000000"})
+    private int rows;
+
+    private List<Employee> employees;
+    private EmployeeColumns columns;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        String[] companies = new String[5000];
+        for (int c = 0; c < companies.length; c++) {
+            companies[c] = "Company" + c;
+        }
+        employees = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Position position = POSITIONS[random.nextInt(POSITIONS.length)];
+            int company = random.nextInt(companies.length);
+            Employee employee = new Employee("Jan Kowalski", "e" + i + "@techcorp.com",
+                    companies[company], position, position.getBaseSalary() * (0.8 + random.nextDouble() * 0.6));
+            // the company id a storing service would have assigned
+            employee.assignCompany(company, companies[company]);
+            employees.add(employee);
+        }
+        columns = EmployeeColumns.of(employees);
+    }
+
+    @Benchmark
+    public double averageStream() {
+        return employees.stream().mapToDouble(Employee::getSalary).average().orElse(0.0);
+    }
+
+    @Benchmark
+    public double averageColumns() {
+        return columns.averageSalary();
+    }
+
+    @Benchmark
+    public Map<Position, Double> sumByPositionStream() {
+        return employees.stream().collect(Collectors.groupingBy(
+                Employee::getPosition, Collectors.summingDouble(Employee::getSalary)));
+    }
+
+    @Benchmark
+    public Map<Position, Double> sumByPositionColumns() {
+        return columns.sumSalaryByPosition();
+    }
+
+    @Benchmark
+    public long underpaidStream() {
+        return employees.stream()
+                .filter(e -> e.getSalary() < e.getPosition().getBaseSalary())
+                .count();
+    }
+
+    @Benchmark
+    public long underpaidColumns() {
+        return columns.countUnderpaid();
+    }
+}
@@ -0,0 +1,90 @@
+package com.techcorp.benchmark;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.techcorp.model.CompanyStatistics;
+import com.techcorp.model.Employee;
+import com.techcorp.model.Position;
+import com.techcorp.service.CompanyStatisticsCollector;
+
+/**
+ * groupingBy into per-company lists streamed twice (as getCompanyStatistics used
+ * to work) against the single-pass {@link CompanyStatisticsCollector}, sequential
+ * and parallel.
+ * <p>
+ * Measured at 100k / 1M rows (JDK 21, one core, 1 fork, 5 x 2 s iterations), in
+ * ms/op: groupingBy 14.4 &plusmn; 33.2 / 144 &plusmn; 112, collector 1.49 &plusmn; 0.61 /
+ * 49.4 &plusmn; 36.1, parallel collector 2.95 &plusmn; 1.93 / 31.1 &plusmn; 108. With one core
+ * the parallel figures only show the fork/join overhead; the 10M case needs the
+ * 6 GB heap below and was not run there.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class CompanyStatisticsBenchmark {
+
+    private static final Position[] POSITIONS = Position.values();
+
+    @Param({"100000", "1000000", "10000000"})
+    private int rows;
+
+    private List<Employee> employees;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        String[] companies = new String[5000];
+        for (int c = 0; c < companies.length; c++) {
+            companies[c] = "Company" + c;
+        }
+        employees = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Position position = POSITIONS[random.nextInt(POSITIONS.length)];
+            int company = random.nextInt(companies.length);
+            Employee employee = new Employee("Jan Kowalski", "e" + i + "@techcorp.com",
+                    companies[company], position, position.getBaseSalary() * (0.8 + random.nextDouble() * 0.6));
+            // the company id a storing service would have assigned
+            employee.assignCompany(company, companies[company]);
+            employees.add(employee);
+        }
+    }
+
+    @Benchmark
+    public Map<String, CompanyStatistics> groupingByTwoPass() {
+        return employees.stream().collect(Collectors.groupingBy(
+                Employee::getCompanyName,
+                Collectors.collectingAndThen(Collectors.toList(), list -> {
+                    double average = list.stream().mapToDouble(Employee::getSalary).average().orElse(0.0);
+                    Employee top = list.stream().max(Comparator.comparingDouble(Employee::getSalary)).orElseThrow();
+                    return new CompanyStatistics(list.size(), average, top.getSalary(), top.getFullName());
+                })));
+    }
+
+    @Benchmark
+    public Map<String, CompanyStatistics> singlePassCollector() {
+        return employees.stream().collect(CompanyStatisticsCollector.toCompanyStatistics());
+    }
+
+    @Benchmark
+    public Map<String, CompanyStatistics> singlePassCollectorParallel() {
+        return employees.parallelStream().collect(CompanyStatisticsCollector.toCompanyStatistics());
+    }
+}
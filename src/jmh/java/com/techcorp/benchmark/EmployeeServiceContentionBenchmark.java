@@ -0,0 +1,91 @@
+package com.techcorp.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.techcorp.model.Employee;
+import com.techcorp.model.Position;
+import com.techcorp.service.EmployeeService;
+
+/**
+ * Mixed read/write load against a shared EmployeeService. Run through
+ * {@code gradle runContentionBenchmark} to get one result per thread count (1-32).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EmployeeServiceContentionBenchmark {
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32};
+
+    @Param({"10000"})
+    private int preloaded;
+
+    /** Percentage of operations that mutate the service. */
+    @Param({"5", "20"})
+    private int writePercent;
+
+    private EmployeeService service;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new EmployeeService();
+        for (int i = 0; i < preloaded; i++) {
+            service.addEmployee(employee("seed" + i));
+        }
+    }
+
+    @Benchmark
+    public void mixed(Blackhole bh) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextInt(100) < writePercent) {
+            String email = "bench" + sequence.incrementAndGet() + "@techcorp.com";
+            service.addEmployee(employee(email));
+            service.deleteEmployee(email);
+        } else {
+            bh.consume(service.findByEmail("seed" + random.nextInt(preloaded) + "@techcorp.com"));
+            bh.consume(service.size());
+        }
+    }
+
+    @Benchmark
+    public void findByEmail(Blackhole bh) {
+        int i = ThreadLocalRandom.current().nextInt(preloaded);
+        bh.consume(service.findByEmail("seed" + i + "@techcorp.com"));
+    }
+
+    private static Employee employee(String id) {
+        String email = id.contains("@") ? id : id + "@techcorp.com";
+        return new Employee("Jan Kowalski", email, "TechCorp", Position.PROGRAMISTA, 9000);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREAD_COUNTS) {
+            Options options = new OptionsBuilder()
+                    .include(EmployeeServiceContentionBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .forks(1)
+                    .warmupIterations(3)
+                    .measurementIterations(5)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.techcorp.benchmark;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Cold start of the packaged application: each launch is a fresh JVM in an
+ * empty working directory, timed from process start until GET /api/employees
+ * first answers 200. Both modes are launched in turn, {@code startup.runs}
+ * times each after one untimed launch that warms the OS page cache, and the
+ * min / median / max are printed next to the start time Spring Boot logs.
+ * <p>
+ * Run through {@code gradle runStartupBenchmark}, which builds the plain boot
+ * jar (baseline) and the extracted jar with AOT code and a CDS archive from a
+ * training run (optimized) and passes their paths as system properties.
+ */
+public final class StartupBenchmark {
+
+    private static final Pattern STARTED = Pattern.compile("Started \\w+ in ([0-9.]+) seconds");
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private record Mode(String name, List<String> command) {
+    }
+
+    private record Launch(long firstResponseMillis, double reportedSeconds) {
+    }
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String java = System.getProperty("startup.java", Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        int runs = Integer.getInteger("startup.runs", 5);
+        List<Mode> modes = List.of(
+                new Mode("baseline", List.of(java, "-jar", required("startup.baselineJar"))),
+                new Mode("aot+cds", List.of(java,
+                        "-XX:SharedArchiveFile=" + required("startup.cdsArchive"),
+                        "-Dspring.aot.enabled=true",
+                        "-jar", required("startup.optimizedJar"))));
+
+        List<List<Launch>> results = new ArrayList<>();
+        for (Mode mode : modes) {
+            launch(mode);
+            results.add(new ArrayList<>());
+        }
+        // interleaved, so drift in machine load hits both modes alike
+        for (int run = 0; run < runs; run++) {
+            for (int m = 0; m < modes.size(); m++) {
+                results.get(m).add(launch(modes.get(m)));
+            }
+        }
+
+        System.out.printf("%-10s %28s %28s%n", "mode", "first response ms (min/med/max)", "Spring Boot start s (med)");
+        for (int m = 0; m < modes.size(); m++) {
+            List<Long> millis = results.get(m).stream().map(Launch::firstResponseMillis).sorted().toList();
+            List<Double> reported = results.get(m).stream().map(Launch::reportedSeconds).sorted().toList();
+            System.out.printf("%-10s %12d / %5d / %5d %28.3f%n", modes.get(m).name(),
+                    millis.get(0), millis.get(millis.size() / 2), millis.get(millis.size() - 1),
+                    reported.get(reported.size() / 2));
+        }
+    }
+
+    private static Launch launch(Mode mode) throws IOException, InterruptedException {
+        Path dir = Files.createTempDirectory("startup-" + mode.name().replace('+', '-'));
+        Path log = dir.resolve("app.log");
+        int port = freePort();
+        List<String> command = new ArrayList<>(mode.command());
+        command.add("--server.port=" + port);
+        // an address that refuses at once, so the API source does not add network time
+        command.add("--app.api.url=http://127.0.0.1:9/users");
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/employees")).GET().build();
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(dir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = started + TIMEOUT.toNanos();
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(mode.name() + " exited with " + process.exitValue() + ", see " + log);
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException(mode.name() + " did not answer within " + TIMEOUT + ", see " + log);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        break;
+                    }
+                } catch (IOException notListeningYet) {
+                    // retried below
+                }
+                Thread.sleep(5);
+            }
+            long firstResponse = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            return new Launch(firstResponse, reportedStart(log));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+            delete(dir);
+        }
+    }
+
+    private static double reportedStart(Path log) throws IOException {
+        Matcher matcher = STARTED.matcher(Files.readString(log, StandardCharsets.UTF_8));
+        return matcher.find() ? Double.parseDouble(matcher.group(1)) : Double.NaN;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String required(String property) {
+        String value = System.getProperty(property);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing system property " + property);
+        }
+        return value;
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -1,12 +1,8 @@
 package com.techcorp;
 
-import com.techcorp.model.Employee;
 import com.techcorp.model.CompanyStatistics;
-import com.techcorp.service.ApiService;
 import com.techcorp.service.EmployeeService;
-import com.techcorp.service.ImportService;
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.beans.factory.annotation.Value;
+import com.techcorp.service.StartupDataLoader;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -15,7 +11,6 @@ import org.springframework.context.annotation.ImportResource;
 import org.springframework.context.annotation.Profile;
 
 import java.text.Normalizer;
-import java.util.List;
 import java.util.Map;
 
 @SpringBootApplication
@@ -28,54 +23,24 @@ public class EmployeeManagementApplication {
 
     @Bean
     @Profile("!test")
-    public CommandLineRunner dataLoader(
-            EmployeeService employeeService,
-            ImportService importService,
-            ApiService apiService,
-            @Qualifier("xmlEmployees") List<Employee> xmlEmployees,
-            @Value("${app.import.csv-file}") String csvPath
-    ) {
-        return args -> {
+    public CommandLineRunner dataLoader(EmployeeService employeeService, StartupDataLoader startupDataLoader) {
+        // the load runs in the background; startup completes and requests are served meanwhile
+        return args -> startupDataLoader.start().thenAccept(report -> {
             p("\n=== TechCorp Employee Management (Spring Boot) ===\n");
 
-            p("1. Import CSV: " + csvPath);
-            String effectiveCsvPath = csvPath;
-            try {
-                var url = Thread.currentThread().getContextClassLoader().getResource(csvPath);
-                if (url != null) {
-                    effectiveCsvPath = java.nio.file.Paths.get(url.toURI()).toString();
-                }
-            } catch (Exception ignore) {
-            }
-            var summary = importService.importFromCsv(effectiveCsvPath);
-            p("   - Zaimportowano: " + summary.getImportedCount());
-            if (!summary.getErrors().isEmpty()) {
-                p("   - Bledy: ");
-                summary.getErrors().forEach(e -> p("     * " + e));
-            }
-
-            p("\n2. Dodawanie pracownikow z XML (" + xmlEmployees.size() + ")...");
-            for (Employee e : xmlEmployees) {
-                try {
-                    employeeService.addEmployee(e);
-                } catch (Exception ex) {
-                    p("   - Pominieto: " + e.getEmail() + " (" + ex.getMessage() + ")");
-                }
-            }
-
-            p("\n3. Pobieranie pracownikow z API...");
-            var apiEmployees = apiService.fetchEmployeesFromApi();
-            p("   - Pobrano z API: " + apiEmployees.size());
-            int added = 0;
-            for (Employee e : apiEmployees) {
-                try {
-                    employeeService.addEmployee(e);
-                    added++;
-                } catch (Exception ex) {
-                    p("   - Pominieto: " + e.getEmail() + " (" + ex.getMessage() + ")");
+            if (employeeService.isReplica()) {
+                p("Replika: pracownicy sa przesylani przez lidera (" + employeeService.size() + " w tej chwili)");
+            } else if (report.restored()) {
+                p("Odtworzono z migawki i dziennika zmian: " + employeeService.size() + " pracownikow");
+            } else {
+                int step = 1;
+                for (StartupDataLoader.SourceReport source : report.sources()) {
+                    p(step++ + ". " + source.source() + ": dodano " + source.added()
+                            + " (odczyt " + source.fetchMillis() + " ms, dostepne po " + source.readyAfterMillis() + " ms)");
+                    source.errors().forEach(e -> p("   - " + e));
                 }
+                p("   Wczytywanie zakonczone po " + report.totalMillis() + " ms");
             }
-            System.out.println("   - Dodano do systemu: " + added);
 
             System.out.println("\n4. Statystyki firm:");
             Map<String, CompanyStatistics> stats = employeeService.getCompanyStatistics();
@@ -101,7 +66,7 @@ public class EmployeeManagementApplication {
                 ));
             }
             System.out.println();
-        };
+        });
     }
 
     private static String ascii(String s) {
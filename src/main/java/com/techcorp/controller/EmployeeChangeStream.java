@@ -0,0 +1,146 @@
+package com.techcorp.controller;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.techcorp.dto.EmployeeChangeDTO;
+import com.techcorp.model.EmployeeChange;
+import com.techcorp.service.EmployeeChangeFeed;
+import com.techcorp.service.EmployeeService;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Streams the employee change feed to SSE clients. Each event carries its
+ * sequence as the SSE id, so a reconnecting EventSource resumes through
+ * Last-Event-ID. A client that fell behind the feed gets a RESET event and the
+ * stream ends; the event's id is the sequence the feed is at, so the client
+ * refetches the list and its reconnect resumes from there.
+ * <p>
+ * Every client is drained on its own virtual thread, so a slow connection only
+ * delays itself. Writers merely bump a counter per client.
+ */
+@Component
+public class EmployeeChangeStream {
+
+    private static final int BATCH_SIZE = 256;
+
+    private final EmployeeChangeFeed feed;
+    private final long timeoutMillis;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Runnable unsubscribe;
+
+    public EmployeeChangeStream(EmployeeService employeeService,
+                                @Value("${app.changes.sse-timeout-ms:1800000}") long timeoutMillis) {
+        this.feed = employeeService.getChangeFeed();
+        this.timeoutMillis = timeoutMillis;
+        this.unsubscribe = feed.subscribe(this::wakeAll);
+    }
+
+    /** Sends every change after {@code after}, then each new one as it is published. */
+    public SseEmitter open(long after) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, after);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        subscriber.wake();
+        return emitter;
+    }
+
+    public long lastSequence() {
+        return feed.lastSequence();
+    }
+
+    @PreDestroy
+    void close() {
+        unsubscribe.run();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        senders.shutdownNow();
+    }
+
+    private void wakeAll() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.wake();
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        // only touched by the single drain running for this subscriber
+        private long lastSent;
+        // wake-ups not yet handled; the 0 -> 1 transition starts a drain
+        private final AtomicInteger pending = new AtomicInteger();
+
+        Subscriber(SseEmitter emitter, long lastSent) {
+            this.emitter = emitter;
+            this.lastSent = lastSent;
+        }
+
+        void wake() {
+            if (pending.getAndIncrement() == 0) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            int handled;
+            do {
+                handled = pending.get();
+                if (!sendPending()) {
+                    return;
+                }
+            } while (pending.addAndGet(-handled) != 0);
+        }
+
+        // false once the stream is over
+        private boolean sendPending() {
+            try {
+                while (true) {
+                    Optional<List<EmployeeChange>> changes = feed.after(lastSent, BATCH_SIZE);
+                    if (changes.isEmpty()) {
+                        // the id replaces the stale Last-Event-ID the EventSource would reconnect with
+                        long sequence = feed.lastSequence();
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(sequence))
+                                .name(EmployeeChange.Type.RESET.name())
+                                .data(new EmployeeChangeDTO(sequence, EmployeeChange.Type.RESET.name(),
+                                        null, null), MediaType.APPLICATION_JSON));
+                        subscribers.remove(this);
+                        emitter.complete();
+                        return false;
+                    }
+                    if (changes.get().isEmpty()) {
+                        return true;
+                    }
+                    for (EmployeeChange change : changes.get()) {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(change.sequence()))
+                                .name(change.type().name())
+                                .data(EmployeeMapper.toDTO(change), MediaType.APPLICATION_JSON));
+                        lastSent = change.sequence();
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // client went away or the emitter already completed
+                subscribers.remove(this);
+                return false;
+            }
+        }
+    }
+}
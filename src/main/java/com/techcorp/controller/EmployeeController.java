@@ -3,8 +3,10 @@ package com.techcorp.controller;
 import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,77 +15,175 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.techcorp.dto.EmployeeDTO;
+import com.techcorp.model.BatchMode;
+import com.techcorp.model.BatchResult;
 import com.techcorp.model.Employee;
+import com.techcorp.model.EmployeeFilter;
 import com.techcorp.model.EmploymentStatus;
+import com.techcorp.model.Position;
 import com.techcorp.service.EmployeeService;
+import com.techcorp.service.NamePage;
+import com.techcorp.service.QueryResult;
 
 @RestController
 @RequestMapping("/api/employees")
 public class EmployeeController {
 
+    static final String CHANGE_SEQUENCE_HEADER = "X-Change-Sequence";
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final EmployeeService employeeService;
+    private final EmployeeChangeStream changeStream;
 
-    public EmployeeController(EmployeeService employeeService) {
+    public EmployeeController(EmployeeService employeeService, EmployeeChangeStream changeStream) {
         this.employeeService = employeeService;
+        this.changeStream = changeStream;
     }
 
+    /**
+     * All employees, or those matching every given criterion. {@code company},
+     * {@code position} and {@code status} accept several values (repeated or
+     * comma-separated), any of which may match.
+     * <p>
+     * Alternatively {@code filter} takes an expression such as
+     * {@code position==MANAGER;salary=gt=12000;company==TechCorp}; with
+     * {@code explain=true} the response is the chosen access path and timings
+     * instead of the employees.
+     */
     @GetMapping
-    public ResponseEntity<List<EmployeeDTO>> getAllEmployees(
-            @RequestParam(required = false) String company) {
+    public ResponseEntity<?> getAllEmployees(
+            @RequestParam(required = false) List<String> company,
+            @RequestParam(required = false) List<Position> position,
+            @RequestParam(required = false) List<EmploymentStatus> status,
+            @RequestParam(required = false) Double minSalary,
+            @RequestParam(required = false) Double maxSalary,
+            @RequestParam(name = "filter", required = false) String expression,
+            @RequestParam(defaultValue = "false") boolean explain) {
+        // read first: later changes may already be in the list and are replayed by /changes
+        long sequence = employeeService.lastChangeSequence();
+        EmployeeFilter filter = filter(company, position, status, minSalary, maxSalary);
         List<Employee> employees;
         
-        if (company != null && !company.isBlank()) {
-            employees = employeeService.findByCompany(company);
-        } else {
+        if (expression != null) {
+            if (!filter.isUnrestricted()) {
+                throw new IllegalArgumentException("filter cannot be combined with other criteria");
+            }
+            QueryResult result = employeeService.query(expression);
+            if (explain) {
+                return ResponseEntity.ok(result.explain());
+            }
+            employees = result.employees();
+        } else if (filter.isUnrestricted()) {
             employees = employeeService.getAllEmployees();
+        } else if (filter.companies().size() == 1 && filter.positions().isEmpty() && filter.statuses().isEmpty()
+                && minSalary == null && maxSalary == null) {
+            employees = employeeService.findByCompany(filter.companies().iterator().next());
+        } else {
+            employees = employeeService.filter(filter);
         }
         
-        List<EmployeeDTO> dtos = employees.stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(dtos);
+        return ResponseEntity.ok()
+                .header(CHANGE_SEQUENCE_HEADER, Long.toString(sequence))
+                .body(EmployeeMapper.toDTOs(employees));
+    }
+
+    /** Number of employees matching the same criteria as the list, without fetching them. */
+    @GetMapping("/count")
+    public ResponseEntity<Map<String, Integer>> countEmployees(
+            @RequestParam(required = false) List<String> company,
+            @RequestParam(required = false) List<Position> position,
+            @RequestParam(required = false) List<EmploymentStatus> status,
+            @RequestParam(required = false) Double minSalary,
+            @RequestParam(required = false) Double maxSalary) {
+        EmployeeFilter filter = filter(company, position, status, minSalary, maxSalary);
+        int count = filter.isUnrestricted() ? employeeService.size() : employeeService.count(filter);
+        return ResponseEntity.ok(Map.of("count", count));
+    }
+
+    /**
+     * Changes after {@code since} (or the Last-Event-ID of a reconnecting client),
+     * as server-sent events. Without either the stream starts at the current end.
+     */
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(required = false) Long since) {
+        long after = lastEventId != null ? lastEventId : since != null ? since : changeStream.lastSequence();
+        return changeStream.open(after);
+    }
+
+    /**
+     * Employees by last name, starting at {@code from} or right after the
+     * position {@code after} names; the next page's cursor comes back in
+     * {@value #NEXT_CURSOR_HEADER} while more employees follow.
+     */
+    @GetMapping("/sorted")
+    public ResponseEntity<List<EmployeeDTO>> getEmployeesSortedByLastName(
+            @RequestParam(defaultValue = "") String from,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int limit) {
+        NamePage page = after != null
+                ? employeeService.getEmployeesSortedByLastNameAfter(after, limit)
+                : employeeService.getEmployeesSortedByLastName(from, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(EmployeeMapper.toDTOs(page.employees()));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<EmployeeDTO>> searchEmployees(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(EmployeeMapper.toDTOs(employeeService.search(q, limit)));
     }
 
     @GetMapping("/{email}")
     public ResponseEntity<EmployeeDTO> getEmployeeByEmail(@PathVariable String email) {
         Employee employee = employeeService.getByEmail(email);
-        return ResponseEntity.ok(toDTO(employee));
+        return ResponseEntity.ok(EmployeeMapper.toDTO(employee));
     }
 
     @GetMapping("/status/{status}")
     public ResponseEntity<List<EmployeeDTO>> getEmployeesByStatus(@PathVariable EmploymentStatus status) {
-        List<Employee> employees = employeeService.findByStatus(status);
-        List<EmployeeDTO> dtos = employees.stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+        return ResponseEntity.ok(EmployeeMapper.toDTOs(employeeService.findByStatus(status)));
     }
 
     @PostMapping
     public ResponseEntity<EmployeeDTO> createEmployee(@RequestBody EmployeeDTO dto) {
-        Employee employee = fromDTO(dto);
+        Employee employee = EmployeeMapper.fromDTO(dto);
         employeeService.addEmployee(employee);
         
-        EmployeeDTO responseDTO = toDTO(employee);
+        EmployeeDTO responseDTO = EmployeeMapper.toDTO(employee);
         URI location = URI.create("/api/employees/" + employee.getEmail());
         
         return ResponseEntity.created(location).body(responseDTO);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResult> createEmployees(
+            @RequestBody List<EmployeeDTO> dtos,
+            @RequestParam(defaultValue = "FAIL_FAST") BatchMode mode) {
+        List<Employee> employees = dtos.stream().map(EmployeeMapper::fromDTO).toList();
+        return ResponseEntity.ok(employeeService.addAll(employees, mode));
+    }
+
     @PutMapping("/{email}")
     public ResponseEntity<EmployeeDTO> updateEmployee(
             @PathVariable String email, 
             @RequestBody EmployeeDTO dto) {
-        Employee employee = fromDTO(dto);
+        Employee employee = EmployeeMapper.fromDTO(dto);
         employeeService.updateEmployee(email, employee);
         
-        return ResponseEntity.ok(toDTO(employee));
+        return ResponseEntity.ok(EmployeeMapper.toDTO(employee));
     }
 
     @DeleteMapping("/{email}")
@@ -102,39 +202,17 @@ public class EmployeeController {
         employeeService.updateEmployeeStatus(email, status);
         Employee employee = employeeService.getByEmail(email);
         
-        return ResponseEntity.ok(toDTO(employee));
-    }
-
-    private EmployeeDTO toDTO(Employee employee) {
-        String[] names = employee.getFullName().trim().split("\\s+", 2);
-        String firstName = names[0];
-        String lastName = names.length > 1 ? names[1] : "";
-        
-        return new EmployeeDTO(
-                firstName,
-                lastName,
-                employee.getEmail(),
-                employee.getCompanyName(),
-                employee.getPosition(),
-                employee.getSalary(),
-                employee.getStatus()
-        );
+        return ResponseEntity.ok(EmployeeMapper.toDTO(employee));
     }
 
-    private Employee fromDTO(EmployeeDTO dto) {
-        String fullName = dto.getFirstName() + " " + dto.getLastName();
-        Employee employee = new Employee(
-                fullName.trim(),
-                dto.getEmail(),
-                dto.getCompany(),
-                dto.getPosition(),
-                dto.getSalary()
-        );
-        
-        if (dto.getStatus() != null) {
-            employee.setStatus(dto.getStatus());
-        }
-        
-        return employee;
+    private static EmployeeFilter filter(List<String> companies, List<Position> positions,
+                                         List<EmploymentStatus> statuses, Double minSalary, Double maxSalary) {
+        Set<String> names = companies == null ? Set.of() : companies.stream()
+                .filter(name -> name != null && !name.isBlank())
+                .collect(Collectors.toSet());
+        return new EmployeeFilter(names,
+                positions == null ? null : Set.copyOf(positions),
+                statuses == null ? null : Set.copyOf(statuses),
+                minSalary, maxSalary);
     }
 }
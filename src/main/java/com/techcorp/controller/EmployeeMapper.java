@@ -0,0 +1,63 @@
+package com.techcorp.controller;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.techcorp.dto.EmployeeChangeDTO;
+import com.techcorp.dto.EmployeeDTO;
+import com.techcorp.model.Employee;
+import com.techcorp.model.EmployeeChange;
+
+final class EmployeeMapper {
+
+    private EmployeeMapper() {
+    }
+
+    static EmployeeDTO toDTO(Employee employee) {
+        String[] names = employee.getFullName().trim().split("\\s+", 2);
+        String firstName = names[0];
+        String lastName = names.length > 1 ? names[1] : "";
+        
+        return new EmployeeDTO(
+                firstName,
+                lastName,
+                employee.getEmail(),
+                employee.getCompanyName(),
+                employee.getPosition(),
+                employee.getSalary(),
+                employee.getStatus()
+        );
+    }
+
+    static List<EmployeeDTO> toDTOs(List<Employee> employees) {
+        return employees.stream()
+                .map(EmployeeMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    static EmployeeChangeDTO toDTO(EmployeeChange change) {
+        return new EmployeeChangeDTO(
+                change.sequence(),
+                change.type().name(),
+                change.email(),
+                change.employee() == null ? null : toDTO(change.employee())
+        );
+    }
+
+    static Employee fromDTO(EmployeeDTO dto) {
+        String fullName = dto.getFirstName() + " " + dto.getLastName();
+        Employee employee = new Employee(
+                fullName.trim(),
+                dto.getEmail(),
+                dto.getCompany(),
+                dto.getPosition(),
+                dto.getSalary()
+        );
+        
+        if (dto.getStatus() != null) {
+            employee.setStatus(dto.getStatus());
+        }
+        
+        return employee;
+    }
+}
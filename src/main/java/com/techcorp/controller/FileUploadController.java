@@ -91,8 +91,7 @@ public class FileUploadController {
         String stored = storageService.storePhoto(file, email);
         // set on employee if exists
         try {
-            var empOpt = employeeService.findByEmail(email);
-            empOpt.ifPresent(emp -> emp.setPhotoFileName(java.nio.file.Paths.get(stored).getFileName().toString()));
+            employeeService.updatePhotoFileName(email, java.nio.file.Paths.get(stored).getFileName().toString());
         } catch (Exception e) {
             // ignore silently
         }
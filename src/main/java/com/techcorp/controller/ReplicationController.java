@@ -0,0 +1,25 @@
+package com.techcorp.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.techcorp.service.ReplicationService;
+
+@RestController
+@RequestMapping("/api/replication")
+public class ReplicationController {
+
+    private final ReplicationService replicationService;
+
+    public ReplicationController(ReplicationService replicationService) {
+        this.replicationService = replicationService;
+    }
+
+    /** Role of this node, how far it has replicated and, on a follower, its lag behind the leader. */
+    @GetMapping
+    public ResponseEntity<ReplicationService.Status> getStatus() {
+        return ResponseEntity.ok(replicationService.status());
+    }
+}
@@ -1,7 +1,9 @@
 package com.techcorp.controller;
 
-import java.util.Comparator;
+import java.math.BigDecimal;
+import java.util.DoubleSummaryStatistics;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -13,11 +15,15 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.techcorp.dto.CompanyStatisticsDTO;
+import com.techcorp.dto.EmployeeDTO;
+import com.techcorp.dto.SalaryPercentilesDTO;
+import com.techcorp.dto.SalarySummaryDTO;
 import com.techcorp.model.CompanyStatistics;
 import com.techcorp.model.Employee;
 import com.techcorp.model.EmploymentStatus;
 import com.techcorp.model.Position;
 import com.techcorp.service.EmployeeService;
+import com.techcorp.service.SalaryDistribution;
 
 @RestController
 @RequestMapping("/api/statistics")
@@ -51,54 +57,89 @@ public class StatisticsController {
         return ResponseEntity.ok(result);
     }
 
+    @GetMapping("/salary/summary")
+    public ResponseEntity<SalarySummaryDTO> getSalarySummary() {
+        DoubleSummaryStatistics stats = employeeService.getSalaryStatistics();
+        if (stats.getCount() == 0) {
+            // min and max of no salaries are infinities, which JSON cannot carry
+            return ResponseEntity.ok(new SalarySummaryDTO(0, 0.0, 0.0, 0.0, 0.0));
+        }
+        return ResponseEntity.ok(new SalarySummaryDTO(
+                stats.getCount(), stats.getSum(), stats.getAverage(), stats.getMin(), stats.getMax()));
+    }
+
+    @GetMapping("/salary/by-position")
+    public ResponseEntity<Map<Position, Double>> getAverageSalaryByPosition() {
+        return ResponseEntity.ok(employeeService.getColumns().averageSalaryByPosition());
+    }
+
+    @GetMapping("/salary/top")
+    public ResponseEntity<List<EmployeeDTO>> getTopEarners(
+            @RequestParam(defaultValue = "10") int n,
+            @RequestParam(required = false) Position position) {
+        return ResponseEntity.ok(EmployeeMapper.toDTOs(employeeService.getTopEarners(n, position)));
+    }
+
+    @GetMapping("/salary/bottom")
+    public ResponseEntity<List<EmployeeDTO>> getBottomEarners(
+            @RequestParam(defaultValue = "10") int n,
+            @RequestParam(required = false) Position position) {
+        return ResponseEntity.ok(EmployeeMapper.toDTOs(employeeService.getBottomEarners(n, position)));
+    }
+
+    @GetMapping("/salary/range")
+    public ResponseEntity<List<EmployeeDTO>> getEmployeesInSalaryRange(
+            @RequestParam double min,
+            @RequestParam double max,
+            @RequestParam(required = false) Position position) {
+        return ResponseEntity.ok(EmployeeMapper.toDTOs(employeeService.findBySalaryRange(min, max, position)));
+    }
+
+    @GetMapping("/salary/percentiles")
+    public ResponseEntity<SalaryPercentilesDTO> getSalaryPercentiles(
+            @RequestParam(required = false) String company,
+            @RequestParam(required = false) Position position,
+            @RequestParam(defaultValue = "50,90,99") List<Double> p) {
+        SalaryDistribution distribution = salaryDistribution(company, position);
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (double percentile : p) {
+            distribution.percentile(percentile).ifPresent(value ->
+                    percentiles.put("p" + BigDecimal.valueOf(percentile).stripTrailingZeros().toPlainString(), value));
+        }
+        return ResponseEntity.ok(new SalaryPercentilesDTO(
+                distribution.count(), distribution.min(), distribution.max(), percentiles));
+    }
+
+    @GetMapping("/salary/histogram")
+    public ResponseEntity<List<SalaryDistribution.Bucket>> getSalaryHistogram(
+            @RequestParam(required = false) String company,
+            @RequestParam(required = false) Position position,
+            @RequestParam(defaultValue = "1000") double width) {
+        return ResponseEntity.ok(salaryDistribution(company, position).histogram(width));
+    }
+
+    @GetMapping("/underpaid")
+    public ResponseEntity<List<EmployeeDTO>> getUnderpaidEmployees(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        List<Employee> employees = employeeService.getUnderpaidEmployees(page, size);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(employeeService.countUnderpaid()))
+                .body(EmployeeMapper.toDTOs(employees));
+    }
+
     @GetMapping("/company/{companyName}")
     public ResponseEntity<CompanyStatisticsDTO> getCompanyStatistics(
             @PathVariable String companyName) {
         
-        Map<String, CompanyStatistics> allStats = employeeService.getCompanyStatistics();
-        CompanyStatistics stats = allStats.get(companyName);
-        
-        if (stats == null) {
-            List<Employee> employees = employeeService.findByCompany(companyName);
-            if (employees.isEmpty()) {
-                throw new IllegalArgumentException("Company not found: " + companyName);
-            }
-            
-            long count = employees.size();
-            double avgSalary = employees.stream()
-                    .mapToDouble(Employee::getSalary)
-                    .average()
-                    .orElse(0.0);
-            
-            Employee topEarner = employees.stream()
-                    .max(Comparator.comparingDouble(Employee::getSalary))
-                    .orElse(null);
-            
-            double highestSalary = topEarner != null ? topEarner.getSalary() : 0.0;
-            String topEarnerName = topEarner != null ? topEarner.getFullName() : "";
-            
-            CompanyStatisticsDTO dto = new CompanyStatisticsDTO(
-                    companyName,
-                    count,
-                    avgSalary,
-                    highestSalary,
-                    topEarnerName
-            );
-            
-            return ResponseEntity.ok(dto);
-        }
-        
-        List<Employee> employees = employeeService.findByCompany(companyName);
-        double highestSalary = employees.stream()
-                .mapToDouble(Employee::getSalary)
-                .max()
-                .orElse(0.0);
+        CompanyStatistics stats = employeeService.getCompanyStatistics(companyName)
+                .orElseThrow(() -> new IllegalArgumentException("Company not found: " + companyName));
         
         CompanyStatisticsDTO dto = new CompanyStatisticsDTO(
                 companyName,
                 stats.getEmployeeCount(),
                 stats.getAverageSalary(),
-                highestSalary,
+                stats.getHighestSalary(),
                 stats.getHighestPaidEmployee()
         );
         
@@ -116,4 +157,15 @@ public class StatisticsController {
         Map<EmploymentStatus, Long> stats = employeeService.countByStatus();
         return ResponseEntity.ok(stats);
     }
+
+    private SalaryDistribution salaryDistribution(String company, Position position) {
+        if (company == null || company.isBlank()) {
+            return employeeService.getSalaryDistribution(position);
+        }
+        if (position != null) {
+            throw new IllegalArgumentException("Use either company or position, not both");
+        }
+        return employeeService.getCompanySalaryDistribution(company)
+                .orElseThrow(() -> new IllegalArgumentException("Company not found: " + company));
+    }
 }
@@ -0,0 +1,50 @@
+package com.techcorp.dto;
+
+public class EmployeeChangeDTO {
+    private long sequence;
+    private String type;
+    private String email;
+    private EmployeeDTO employee;
+
+    public EmployeeChangeDTO() {
+    }
+
+    public EmployeeChangeDTO(long sequence, String type, String email, EmployeeDTO employee) {
+        this.sequence = sequence;
+        this.type = type;
+        this.email = email;
+        this.employee = employee;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public EmployeeDTO getEmployee() {
+        return employee;
+    }
+
+    public void setEmployee(EmployeeDTO employee) {
+        this.employee = employee;
+    }
+}
@@ -0,0 +1,53 @@
+package com.techcorp.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class SalaryPercentilesDTO {
+    private long count;
+    private double minSalary;
+    private double maxSalary;
+    private Map<String, Double> percentiles = new LinkedHashMap<>();
+
+    public SalaryPercentilesDTO() {
+    }
+
+    public SalaryPercentilesDTO(long count, double minSalary, double maxSalary, Map<String, Double> percentiles) {
+        this.count = count;
+        this.minSalary = minSalary;
+        this.maxSalary = maxSalary;
+        this.percentiles = percentiles;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public double getMinSalary() {
+        return minSalary;
+    }
+
+    public void setMinSalary(double minSalary) {
+        this.minSalary = minSalary;
+    }
+
+    public double getMaxSalary() {
+        return maxSalary;
+    }
+
+    public void setMaxSalary(double maxSalary) {
+        this.maxSalary = maxSalary;
+    }
+
+    public Map<String, Double> getPercentiles() {
+        return percentiles;
+    }
+
+    public void setPercentiles(Map<String, Double> percentiles) {
+        this.percentiles = percentiles;
+    }
+}
@@ -0,0 +1,61 @@
+package com.techcorp.dto;
+
+public class SalarySummaryDTO {
+    private long count;
+    private double totalSalary;
+    private double averageSalary;
+    private double minSalary;
+    private double maxSalary;
+
+    public SalarySummaryDTO() {
+    }
+
+    public SalarySummaryDTO(long count, double totalSalary, double averageSalary,
+                            double minSalary, double maxSalary) {
+        this.count = count;
+        this.totalSalary = totalSalary;
+        this.averageSalary = averageSalary;
+        this.minSalary = minSalary;
+        this.maxSalary = maxSalary;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public double getTotalSalary() {
+        return totalSalary;
+    }
+
+    public void setTotalSalary(double totalSalary) {
+        this.totalSalary = totalSalary;
+    }
+
+    public double getAverageSalary() {
+        return averageSalary;
+    }
+
+    public void setAverageSalary(double averageSalary) {
+        this.averageSalary = averageSalary;
+    }
+
+    public double getMinSalary() {
+        return minSalary;
+    }
+
+    public void setMinSalary(double minSalary) {
+        this.minSalary = minSalary;
+    }
+
+    public double getMaxSalary() {
+        return maxSalary;
+    }
+
+    public void setMaxSalary(double maxSalary) {
+        this.maxSalary = maxSalary;
+    }
+}
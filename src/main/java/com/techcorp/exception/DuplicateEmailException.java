@@ -2,6 +2,10 @@ package com.techcorp.exception;
 
 public class DuplicateEmailException extends RuntimeException {
     public DuplicateEmailException(String email) {
-        super("Pracownik z emailem '" + email + "' już istnieje");
+        super(messageFor(email));
+    }
+
+    public static String messageFor(String email) {
+        return "Pracownik z emailem '" + email + "' już istnieje";
     }
 }
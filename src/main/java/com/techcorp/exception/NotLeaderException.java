@@ -0,0 +1,7 @@
+package com.techcorp.exception;
+
+public class NotLeaderException extends RuntimeException {
+    public NotLeaderException() {
+        super("This node is a read-only replica; send writes to the leader");
+    }
+}
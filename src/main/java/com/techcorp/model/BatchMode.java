@@ -0,0 +1,14 @@
+package com.techcorp.model;
+
+/**
+ * How a batch insert treats e-mails that already exist, in the store or earlier
+ * in the same batch.
+ */
+public enum BatchMode {
+    /** Reject the whole batch on the first duplicate; nothing is applied. */
+    FAIL_FAST,
+    /** Keep the existing employee (or the first one in the batch) and skip the duplicate. */
+    SKIP_DUPLICATES,
+    /** Replace the existing employee (or the earlier one in the batch). */
+    UPSERT
+}
@@ -0,0 +1,45 @@
+package com.techcorp.model;
+
+import java.util.List;
+
+public class BatchResult {
+
+    public enum Status {
+        ADDED,
+        UPDATED,
+        SKIPPED
+    }
+
+    /** Outcome for the item at {@code index} in the submitted batch. */
+    public record Item(int index, String email, Status status, String message) {
+    }
+
+    private final List<Item> items;
+
+    public BatchResult(List<Item> items) {
+        this.items = List.copyOf(items);
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public int count(Status status) {
+        int count = 0;
+        for (Item item : items) {
+            if (item.status() == status) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{" +
+                "added=" + count(Status.ADDED) +
+                ", updated=" + count(Status.UPDATED) +
+                ", skipped=" + count(Status.SKIPPED) +
+                '}';
+    }
+}
@@ -3,11 +3,13 @@ package com.techcorp.model;
 public class CompanyStatistics {
     private long employeeCount;
     private double averageSalary;
+    private double highestSalary;
     private String highestPaidEmployee;
     
-    public CompanyStatistics(long employeeCount, double averageSalary, String highestPaidEmployee) {
+    public CompanyStatistics(long employeeCount, double averageSalary, double highestSalary, String highestPaidEmployee) {
         this.employeeCount = employeeCount;
         this.averageSalary = averageSalary;
+        this.highestSalary = highestSalary;
         this.highestPaidEmployee = highestPaidEmployee;
     }
     
@@ -19,6 +21,10 @@ public class CompanyStatistics {
         return averageSalary;
     }
     
+    public double getHighestSalary() {
+        return highestSalary;
+    }
+    
     public String getHighestPaidEmployee() {
         return highestPaidEmployee;
     }
@@ -28,6 +34,7 @@ public class CompanyStatistics {
         return "CompanyStatistics{" +
                 "employeeCount=" + employeeCount +
                 ", averageSalary=" + averageSalary +
+                ", highestSalary=" + highestSalary +
                 ", highestPaidEmployee='" + highestPaidEmployee + '\'' +
                 '}';
     }
@@ -3,16 +3,26 @@ package com.techcorp.model;
 import java.util.Objects;
 
 public class Employee {
+    public static final int UNASSIGNED = -1;
+
     private String fullName;
     private String email;
     private String companyName;
+    // id in the dictionary of the service storing this employee; UNASSIGNED until stored
+    private int companyId = UNASSIGNED;
     private Position position;
     private double salary;
     private String photoFileName;
     private EmploymentStatus status;
 
+    // derived from fullName once instead of on every comparison
+    private String lastName;
+    private String lastNameKey;
+    private String fullNameKey;
+
     public Employee(String fullName, String email, String companyName, Position position, double salary) {
         this.fullName = Objects.requireNonNull(fullName, "fullName");
+        deriveNameKeys();
         this.email = Objects.requireNonNull(email, "email");
         this.companyName = Objects.requireNonNull(companyName, "companyName");
         this.position = Objects.requireNonNull(position, "position");
@@ -23,12 +33,44 @@ public class Employee {
         this.status = EmploymentStatus.ACTIVE;
     }
 
+    /**
+     * Rebuilds an employee from stored field values; {@code companyId} is the
+     * storing service's id for {@code companyName}, or {@link #UNASSIGNED}.
+     */
+    public Employee(String fullName, String email, String companyName, int companyId, Position position,
+                    double salary, EmploymentStatus status, String photoFileName) {
+        this.fullName = Objects.requireNonNull(fullName, "fullName");
+        deriveNameKeys();
+        this.email = Objects.requireNonNull(email, "email");
+        this.companyName = Objects.requireNonNull(companyName, "companyName");
+        this.companyId = companyId;
+        this.position = Objects.requireNonNull(position, "position");
+        this.salary = salary;
+        this.status = Objects.requireNonNull(status, "status");
+        this.photoFileName = photoFileName;
+    }
+
+    public Employee(Employee other) {
+        this.fullName = other.fullName;
+        this.lastName = other.lastName;
+        this.lastNameKey = other.lastNameKey;
+        this.fullNameKey = other.fullNameKey;
+        this.email = other.email;
+        this.companyName = other.companyName;
+        this.companyId = other.companyId;
+        this.position = other.position;
+        this.salary = other.salary;
+        this.photoFileName = other.photoFileName;
+        this.status = other.status;
+    }
+
     public String getFullName() {
         return fullName;
     }
 
     public void setFullName(String fullName) {
         this.fullName = Objects.requireNonNull(fullName, "fullName");
+        deriveNameKeys();
     }
 
     public String getEmail() {
@@ -41,6 +83,18 @@ public class Employee {
 
     public void setCompanyName(String companyName) {
         this.companyName = Objects.requireNonNull(companyName, "companyName");
+        this.companyId = UNASSIGNED;
+    }
+
+    /** Id of the company in the service storing this employee, {@link #UNASSIGNED} before it is stored. */
+    public int getCompanyId() {
+        return companyId;
+    }
+
+    /** Called by the storing service with its id and name for the company. */
+    public void assignCompany(int companyId, String companyName) {
+        this.companyId = companyId;
+        this.companyName = Objects.requireNonNull(companyName, "companyName");
     }
 
     public Position getPosition() {
@@ -79,8 +133,22 @@ public class Employee {
     }
 
     public String getLastName() {
+        return lastName;
+    }
+
+    public String getLastNameSortKey() {
+        return lastNameKey;
+    }
+
+    public String getFullNameSortKey() {
+        return fullNameKey;
+    }
+
+    private void deriveNameKeys() {
         String[] parts = fullName.trim().split("\\s+");
-        return parts.length == 0 ? fullName : parts[parts.length - 1];
+        this.lastName = parts.length == 0 ? fullName : parts[parts.length - 1];
+        this.lastNameKey = lastName.toLowerCase();
+        this.fullNameKey = fullName.toLowerCase();
     }
 
     @Override
@@ -101,7 +169,7 @@ public class Employee {
         return "Employee{" +
                 "fullName='" + fullName + '\'' +
                 ", email='" + email + '\'' +
-                ", companyName='" + companyName + '\'' +
+                ", companyName='" + getCompanyName() + '\'' +
                 ", position=" + position +
                 ", salary=" + salary +
                 ", status=" + status +
@@ -0,0 +1,18 @@
+package com.techcorp.model;
+
+/**
+ * One mutation published by the employee service. {@code employee} is the state
+ * after the change (the last state for DELETED) and is shared with every reader
+ * of the feed, so it must not be modified. RESET carries no employee: it tells
+ * clients that their copy can no longer be patched and must be fetched again.
+ */
+public record EmployeeChange(long sequence, Type type, String email, Employee employee) {
+
+    public enum Type {
+        ADDED,
+        UPDATED,
+        STATUS_CHANGED,
+        DELETED,
+        RESET
+    }
+}
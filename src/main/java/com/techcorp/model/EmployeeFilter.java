@@ -0,0 +1,29 @@
+package com.techcorp.model;
+
+import java.util.Set;
+
+/**
+ * Conjunction of optional criteria: one of {@code companies} AND one of
+ * {@code positions} AND one of {@code statuses} AND a salary in
+ * [{@code minSalary}, {@code maxSalary}]. Empty sets and null bounds do not
+ * restrict; company names are matched case-insensitively.
+ */
+public record EmployeeFilter(Set<String> companies, Set<Position> positions, Set<EmploymentStatus> statuses,
+                             Double minSalary, Double maxSalary) {
+
+    public static final EmployeeFilter ALL = new EmployeeFilter(null, null, null, null, null);
+
+    public EmployeeFilter {
+        companies = companies == null ? Set.of() : Set.copyOf(companies);
+        positions = positions == null ? Set.of() : Set.copyOf(positions);
+        statuses = statuses == null ? Set.of() : Set.copyOf(statuses);
+        if (minSalary != null && maxSalary != null && minSalary > maxSalary) {
+            throw new IllegalArgumentException("minSalary must not be greater than maxSalary");
+        }
+    }
+
+    public boolean isUnrestricted() {
+        return companies.isEmpty() && positions.isEmpty() && statuses.isEmpty()
+                && minSalary == null && maxSalary == null;
+    }
+}
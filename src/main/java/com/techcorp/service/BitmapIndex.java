@@ -0,0 +1,175 @@
+package com.techcorp.service;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.OptionalInt;
+import java.util.PrimitiveIterator;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.techcorp.model.Employee;
+import com.techcorp.model.EmployeeFilter;
+import com.techcorp.model.EmploymentStatus;
+import com.techcorp.model.Position;
+
+/**
+ * Row bitmaps per company, position, status and salary bucket, so a filter
+ * combining them is a few ORs and ANDs over words of rows. Row ids are handed
+ * out densely by the service, so a bitmap costs one bit per row ever added.
+ * Positions and statuses are plain BitSets; companies and salary buckets use
+ * {@link IntPostings}, which stays a sorted array until it is dense enough for
+ * a bitmap, so thousands of small companies cost no more than their rows.
+ * <p>
+ * Salaries are bucketed by {@link #SALARY_BUCKET} and also kept as a column,
+ * so only the two edge buckets of a range are checked row by row and nothing
+ * is read from storage until rows are materialized.
+ * <p>
+ * Writers are serialized by the service; readers share a read lock.
+ */
+final class BitmapIndex implements EmployeeIndex {
+
+    static final double SALARY_BUCKET = 1000.0;
+
+    private final EmployeeStorage storage;
+    private final CompanyDictionary dictionary;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BitSet live = new BitSet();
+    private final Map<Integer, IntPostings> byCompany = new HashMap<>();
+    private final BitSet[] byPosition = bitmaps(Position.values().length);
+    private final BitSet[] byStatus = bitmaps(EmploymentStatus.values().length);
+    private final NavigableMap<Long, IntPostings> bySalaryBucket = new TreeMap<>();
+    private double[] salaries = new double[1024];
+
+    BitmapIndex(EmployeeStorage storage, CompanyDictionary dictionary) {
+        this.storage = storage;
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public void add(int row, Employee employee) {
+        lock.writeLock().lock();
+        try {
+            live.set(row);
+            byCompany.computeIfAbsent(employee.getCompanyId(), id -> new IntPostings()).add(row);
+            byPosition[employee.getPosition().ordinal()].set(row);
+            byStatus[employee.getStatus().ordinal()].set(row);
+            bySalaryBucket.computeIfAbsent(bucket(employee.getSalary()), b -> new IntPostings()).add(row);
+            if (row >= salaries.length) {
+                salaries = Arrays.copyOf(salaries, Math.max(row + 1, salaries.length * 2));
+            }
+            salaries[row] = employee.getSalary();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(int row, Employee employee) {
+        lock.writeLock().lock();
+        try {
+            live.clear(row);
+            removeFrom(byCompany, employee.getCompanyId(), row);
+            byPosition[employee.getPosition().ordinal()].clear(row);
+            byStatus[employee.getStatus().ordinal()].clear(row);
+            removeFrom(bySalaryBucket, bucket(employee.getSalary()), row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int count(EmployeeFilter filter) {
+        lock.readLock().lock();
+        try {
+            return rows(filter).cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Matching employees in row (insertion) order. */
+    List<Employee> find(EmployeeFilter filter) {
+        BitSet rows;
+        lock.readLock().lock();
+        try {
+            rows = rows(filter);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return storage.get(() -> rows.stream().iterator());
+    }
+
+    // with the read lock held; a company id resolved here is not reused while it is
+    // held, since the service frees it only after its last row left this index
+    private BitSet rows(EmployeeFilter filter) {
+        BitSet result = (BitSet) live.clone();
+        if (!filter.companies().isEmpty()) {
+            BitSet companies = new BitSet();
+            for (String name : filter.companies()) {
+                OptionalInt id = dictionary.find(name);
+                IntPostings rows = id.isPresent() ? byCompany.get(id.getAsInt()) : null;
+                if (rows != null) {
+                    rows.orInto(companies);
+                }
+            }
+            result.and(companies);
+        }
+        if (!filter.positions().isEmpty()) {
+            BitSet positions = new BitSet();
+            filter.positions().forEach(position -> positions.or(byPosition[position.ordinal()]));
+            result.and(positions);
+        }
+        if (!filter.statuses().isEmpty()) {
+            BitSet statuses = new BitSet();
+            filter.statuses().forEach(status -> statuses.or(byStatus[status.ordinal()]));
+            result.and(statuses);
+        }
+        if (filter.minSalary() != null || filter.maxSalary() != null) {
+            result.and(salaryRange(filter.minSalary(), filter.maxSalary()));
+        }
+        return result;
+    }
+
+    private BitSet salaryRange(Double min, Double max) {
+        double low = min == null ? Double.NEGATIVE_INFINITY : min;
+        double high = max == null ? Double.POSITIVE_INFINITY : max;
+        long first = min == null ? Long.MIN_VALUE : bucket(low);
+        long last = max == null ? Long.MAX_VALUE : bucket(high);
+        BitSet result = new BitSet();
+        bySalaryBucket.subMap(first, true, last, true).forEach((bucket, rows) -> {
+            if ((min == null || bucket > first) && (max == null || bucket < last)) {
+                rows.orInto(result);
+                return;
+            }
+            for (PrimitiveIterator.OfInt it = rows.iterator(); it.hasNext(); ) {
+                int row = it.nextInt();
+                if (salaries[row] >= low && salaries[row] <= high) {
+                    result.set(row);
+                }
+            }
+        });
+        return result;
+    }
+
+    private static long bucket(double salary) {
+        return (long) Math.floor(salary / SALARY_BUCKET);
+    }
+
+    private static <K> void removeFrom(Map<K, IntPostings> postings, K key, int row) {
+        IntPostings rows = postings.get(key);
+        if (rows != null && rows.remove(row) && rows.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+
+    private static BitSet[] bitmaps(int count) {
+        BitSet[] bitmaps = new BitSet[count];
+        for (int i = 0; i < count; i++) {
+            bitmaps[i] = new BitSet();
+        }
+        return bitmaps;
+    }
+}
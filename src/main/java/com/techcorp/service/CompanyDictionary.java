@@ -0,0 +1,90 @@
+package com.techcorp.service;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.techcorp.model.Employee;
+
+/**
+ * Company names of one service's stored employees. Names are matched
+ * case-insensitively once, when an employee is indexed, and every employee of a
+ * company then shares one compact id and one name: the spelling of the first
+ * employee stored while the company had none.
+ * <p>
+ * Only stored employees hold an entry: the service acquires one when it indexes
+ * a row and releases it when the row goes, both under its write lock, so a
+ * rejected request never leaves a name behind. Once a company's last employee
+ * leaves its id is free for the next new company. Employees carry their own
+ * name, so copies held by snapshots or change events do not depend on the id.
+ */
+final class CompanyDictionary {
+
+    private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+    // written under the service write lock and republished through the volatile field
+    private volatile String[] names = new String[64];
+    private int[] uses = new int[64];
+    private int[] free = new int[16];
+    private int freeCount;
+    private int size;
+
+    /**
+     * Points the employee at its company's entry, creating one in the
+     * employee's spelling if no stored employee works there.
+     */
+    void acquire(Employee employee) {
+        String name = employee.getCompanyName();
+        String key = normalize(name);
+        Integer id = ids.get(key);
+        if (id == null) {
+            id = freeCount > 0 ? free[--freeCount] : size++;
+            String[] current = names;
+            if (id == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+                uses = Arrays.copyOf(uses, current.length);
+            }
+            current[id] = name;
+            names = current;
+            ids.put(key, id);
+        }
+        uses[id]++;
+        employee.assignCompany(id, names[id]);
+    }
+
+    /** Gives back an entry taken by {@link #acquire}; its id is freed with its last employee. */
+    void release(int id) {
+        if (--uses[id] == 0) {
+            // a retired name may already point at a newer entry
+            ids.remove(normalize(names[id]), id);
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, free.length * 2);
+            }
+            free[freeCount++] = id;
+        }
+    }
+
+    /**
+     * Stops matching the name, so the next employee acquiring it starts a new
+     * entry in its own spelling; the old entry lives until its employees leave.
+     */
+    void retire(String companyName) {
+        ids.remove(normalize(companyName));
+    }
+
+    /** Id of the company some stored employee works for. */
+    OptionalInt find(String companyName) {
+        Objects.requireNonNull(companyName, "companyName");
+        Integer id = ids.get(normalize(companyName));
+        return id == null ? OptionalInt.empty() : OptionalInt.of(id);
+    }
+
+    String nameOf(int id) {
+        return names[id];
+    }
+
+    private static String normalize(String companyName) {
+        return companyName.toLowerCase();
+    }
+}
@@ -0,0 +1,115 @@
+package com.techcorp.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import com.techcorp.model.CompanyStatistics;
+import com.techcorp.model.Employee;
+
+/**
+ * Company id -> employees (in row order), together with a per-company salary
+ * view that doubles as the materialized company statistics. Names are resolved
+ * through the service's {@link CompanyDictionary}, so lookups are case-insensitive.
+ */
+class CompanyIndex implements EmployeeIndex {
+
+    private final EmployeeStorage storage;
+    private final CompanyDictionary companies;
+    private final Map<Integer, Company> byCompany = new ConcurrentHashMap<>();
+
+    CompanyIndex(EmployeeStorage storage, CompanyDictionary companies) {
+        this.storage = storage;
+        this.companies = companies;
+    }
+
+    @Override
+    public void add(int row, Employee employee) {
+        byCompany.computeIfAbsent(employee.getCompanyId(), id -> new Company(storage, employee.getCompanyName()))
+                .add(row, employee);
+    }
+
+    @Override
+    public void remove(int row, Employee employee) {
+        Company company = byCompany.get(employee.getCompanyId());
+        if (company != null) {
+            company.remove(row, employee);
+            if (company.members.isEmpty()) {
+                byCompany.remove(employee.getCompanyId());
+            }
+        }
+    }
+
+    List<Employee> find(String companyName) {
+        Company company = lookup(companyName);
+        return company == null ? Collections.emptyList() : storage.get(company.members);
+    }
+
+    /** Live view of the company's rows, ascending; empty for unknown companies. */
+    NavigableSet<Integer> rows(String companyName) {
+        Company company = lookup(companyName);
+        return company == null ? Collections.emptyNavigableSet() : company.members;
+    }
+
+    long count(String companyName) {
+        Company company = lookup(companyName);
+        return company == null ? 0 : company.salaries.count();
+    }
+
+    Optional<CompanyStatistics> statistics(String companyName) {
+        return Optional.ofNullable(lookup(companyName)).map(Company::statistics);
+    }
+
+    Optional<SalaryDistribution> distribution(String companyName) {
+        return Optional.ofNullable(lookup(companyName)).map(company -> company.salaries.distribution());
+    }
+
+    Map<String, CompanyStatistics> statistics() {
+        Map<String, CompanyStatistics> result = new LinkedHashMap<>();
+        byCompany.forEach((id, company) -> result.put(company.name, company.statistics()));
+        return result;
+    }
+
+    // lock-free, so the id may have passed to another company since it was resolved
+    private Company lookup(String companyName) {
+        OptionalInt id = companies.find(companyName);
+        Company company = id.isPresent() ? byCompany.get(id.getAsInt()) : null;
+        return company != null && company.name.equalsIgnoreCase(companyName) ? company : null;
+    }
+
+    private static final class Company {
+        private final String name;
+        private final NavigableSet<Integer> members = new ConcurrentSkipListSet<>();
+        private final SalaryIndex salaries;
+
+        Company(EmployeeStorage storage, String name) {
+            this.name = name;
+            this.salaries = new SalaryIndex(storage);
+        }
+
+        void add(int row, Employee employee) {
+            members.add(row);
+            salaries.add(row, employee);
+        }
+
+        void remove(int row, Employee employee) {
+            members.remove(row);
+            salaries.remove(row, employee);
+        }
+
+        CompanyStatistics statistics() {
+            Optional<Employee> top = salaries.highest();
+            return new CompanyStatistics(
+                    salaries.count(),
+                    salaries.average().orElse(0.0),
+                    top.map(Employee::getSalary).orElse(0.0),
+                    top.map(Employee::getFullName).orElse(""));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.techcorp.service;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+import com.techcorp.model.CompanyStatistics;
+import com.techcorp.model.Employee;
+
+/**
+ * Per-company count, salary sum, highest salary and top earner in a single pass.
+ * Accumulators are arrays indexed by company id, so there is no per-company List
+ * and no hashing per employee; the ids are the storing service's, so the
+ * employees must be stored ones. With parallelStream each thread
+ * fills its own accumulator and the combiner merges them, which avoids the
+ * contention a shared CONCURRENT container would see on large companies.
+ * Ties for the top earner keep the employee met first, as Stream.max does.
+ */
+public final class CompanyStatisticsCollector
+        implements Collector<Employee, CompanyStatisticsCollector.Accumulator, Map<String, CompanyStatistics>> {
+
+    private static final CompanyStatisticsCollector INSTANCE = new CompanyStatisticsCollector();
+
+    private CompanyStatisticsCollector() {
+    }
+
+    public static Collector<Employee, ?, Map<String, CompanyStatistics>> toCompanyStatistics() {
+        return INSTANCE;
+    }
+
+    @Override
+    public Supplier<Accumulator> supplier() {
+        return Accumulator::new;
+    }
+
+    @Override
+    public BiConsumer<Accumulator, Employee> accumulator() {
+        return Accumulator::add;
+    }
+
+    @Override
+    public BinaryOperator<Accumulator> combiner() {
+        return Accumulator::merge;
+    }
+
+    @Override
+    public Function<Accumulator, Map<String, CompanyStatistics>> finisher() {
+        return Accumulator::finish;
+    }
+
+    @Override
+    public Set<Characteristics> characteristics() {
+        return Set.of();
+    }
+
+    static final class Accumulator {
+        private long[] counts = new long[0];
+        private double[] sums = new double[0];
+        private double[] maxSalaries = new double[0];
+        private Employee[] topEarners = new Employee[0];
+
+        void add(Employee employee) {
+            int id = employee.getCompanyId();
+            ensureCapacity(id + 1);
+            double salary = employee.getSalary();
+            if (counts[id]++ == 0 || salary > maxSalaries[id]) {
+                maxSalaries[id] = salary;
+                topEarners[id] = employee;
+            }
+            sums[id] += salary;
+        }
+
+        // this holds the earlier part of the stream, so it wins ties
+        Accumulator merge(Accumulator other) {
+            ensureCapacity(other.counts.length);
+            for (int id = 0; id < other.counts.length; id++) {
+                if (other.counts[id] == 0) {
+                    continue;
+                }
+                if (counts[id] == 0 || other.maxSalaries[id] > maxSalaries[id]) {
+                    maxSalaries[id] = other.maxSalaries[id];
+                    topEarners[id] = other.topEarners[id];
+                }
+                counts[id] += other.counts[id];
+                sums[id] += other.sums[id];
+            }
+            return this;
+        }
+
+        Map<String, CompanyStatistics> finish() {
+            Map<String, CompanyStatistics> result = new LinkedHashMap<>();
+            for (int id = 0; id < counts.length; id++) {
+                if (counts[id] > 0) {
+                    result.put(topEarners[id].getCompanyName(), new CompanyStatistics(
+                            counts[id], sums[id] / counts[id], maxSalaries[id], topEarners[id].getFullName()));
+                }
+            }
+            return result;
+        }
+
+        private void ensureCapacity(int companies) {
+            if (companies > counts.length) {
+                int length = Math.max(companies, Math.max(16, counts.length * 2));
+                counts = Arrays.copyOf(counts, length);
+                sums = Arrays.copyOf(sums, length);
+                maxSalaries = Arrays.copyOf(maxSalaries, length);
+                topEarners = Arrays.copyOf(topEarners, length);
+            }
+        }
+    }
+}
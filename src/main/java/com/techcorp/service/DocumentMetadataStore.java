@@ -0,0 +1,375 @@
+package com.techcorp.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+import com.techcorp.model.DocumentType;
+import com.techcorp.model.EmployeeDocument;
+
+/**
+ * Metadata of uploaded documents, indexed by document id and by employee
+ * e-mail. With a file, every change is appended as an {@code Add} or
+ * {@code Remove} record framed as {@code [length][crc32c][payload]} and forced
+ * before it is acknowledged; opening the store replays the file into the
+ * indexes, stopping at the first torn or corrupt record and cutting the file
+ * there. When removed records outnumber live ones the file is rewritten with
+ * the live documents only.
+ * <p>
+ * Lookups read the concurrent maps without locking; writers are serialized.
+ * The per-e-mail lists are immutable and replaced on every change, which is
+ * cheap because an employee has a handful of documents.
+ */
+public final class DocumentMetadataStore implements Closeable {
+
+    private static final int MAGIC = 0x45444F43; // "EDOC"
+    private static final int FORMAT = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int FRAME_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 1 << 16;
+    // dead records tolerated before a rewrite, on top of one per live document
+    private static final int COMPACT_SLACK = 1024;
+
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+
+    private final Path file;
+    private FileChannel channel;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+    private final DataOutputStream out = new DataOutputStream(buffer);
+    private final CRC32C crc = new CRC32C();
+    private long written;
+    private long records;
+
+    private final ConcurrentMap<String, EmployeeDocument> byId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, List<EmployeeDocument>> byEmail = new ConcurrentHashMap<>();
+
+    private DocumentMetadataStore(Path file, FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+    }
+
+    /** A store that keeps metadata for the lifetime of the process only. */
+    public static DocumentMetadataStore inMemory() {
+        return new DocumentMetadataStore(null, null);
+    }
+
+    /** Opens the store, creating the file and its directory if needed, and loads it. */
+    public static DocumentMetadataStore open(Path file) throws IOException {
+        Objects.requireNonNull(file, "file");
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                writeHeader(channel);
+            }
+            DocumentMetadataStore store = new DocumentMetadataStore(file, channel);
+            store.load();
+            return store;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Optional<EmployeeDocument> find(String documentId) {
+        Objects.requireNonNull(documentId, "documentId");
+        return Optional.ofNullable(byId.get(documentId));
+    }
+
+    /** Documents of one employee in upload order; unmodifiable. */
+    public List<EmployeeDocument> findByEmail(String email) {
+        return byEmail.getOrDefault(emailKey(email), List.of());
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /** Records the document; it is on disk when this returns. */
+    public void add(EmployeeDocument document) {
+        Objects.requireNonNull(document, "document");
+        writeLock.lock();
+        try {
+            if (byId.containsKey(document.getId())) {
+                throw new IllegalArgumentException("Document already registered: " + document.getId());
+            }
+            append(ADD, document, null);
+            index(document);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Forgets the document and returns it, or empty if it was not registered. */
+    public Optional<EmployeeDocument> remove(String documentId) {
+        Objects.requireNonNull(documentId, "documentId");
+        writeLock.lock();
+        try {
+            EmployeeDocument document = byId.get(documentId);
+            if (document == null) {
+                return Optional.empty();
+            }
+            append(REMOVE, null, documentId);
+            unindex(document);
+            if (channel != null && records > 2L * byId.size() + COMPACT_SLACK) {
+                compact();
+            }
+            return Optional.of(document);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            if (channel != null && channel.isOpen()) {
+                channel.close();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void load() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+            throw new IOException(file + " is not a document metadata file");
+        }
+        int format = header.getInt();
+        if (format != FORMAT) {
+            throw new IOException(file + " has unsupported format " + format);
+        }
+        long position = HEADER_BYTES;
+        channel.position(position);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+        byte[] payload = new byte[256];
+        while (true) {
+            int length;
+            int checksum;
+            try {
+                length = in.readInt();
+                checksum = in.readInt();
+                if (length <= 0 || length > MAX_RECORD_BYTES) {
+                    break;
+                }
+                if (length > payload.length) {
+                    payload = new byte[Math.max(length, payload.length * 2)];
+                }
+                in.readFully(payload, 0, length);
+            } catch (EOFException torn) {
+                break;
+            }
+            crc.reset();
+            crc.update(payload, 0, length);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload, 0, length));
+            byte type = record.readByte();
+            if (type == ADD) {
+                EmployeeDocument document = decode(record);
+                EmployeeDocument replaced = byId.get(document.getId());
+                if (replaced != null) {
+                    unindex(replaced);
+                }
+                index(document);
+            } else if (type == REMOVE) {
+                EmployeeDocument removed = byId.get(record.readUTF());
+                if (removed != null) {
+                    unindex(removed);
+                }
+            } else {
+                throw new IOException("Unknown record type " + type + " in " + file);
+            }
+            position += FRAME_BYTES + length;
+            records++;
+        }
+        if (channel.size() > position) {
+            channel.truncate(position);
+            channel.force(true);
+        }
+        channel.position(position);
+        written = position;
+        if (records > 2L * byId.size() + COMPACT_SLACK) {
+            compact();
+        }
+    }
+
+    // The helpers below must be called with writeLock held (or while loading).
+
+    private void append(byte type, EmployeeDocument document, String documentId) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            byte[] bytes = encode(type, document, documentId);
+            long start = written;
+            try {
+                ByteBuffer frame = ByteBuffer.wrap(bytes);
+                while (frame.hasRemaining()) {
+                    channel.write(frame, start + frame.position());
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                // keep the tail clean so later records are not hidden behind a torn one
+                channel.truncate(start);
+                throw e;
+            }
+            written = start + bytes.length;
+            records++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to " + file, e);
+        }
+    }
+
+    // Writes the live documents to a new file and moves it over the old one.
+    // Documents are written e-mail by e-mail, keeping each employee's upload order.
+    // The new file is opened before the move, so once it is in place there is no
+    // reopen left to fail and leave the store appending to the unlinked old file.
+    private void compact() {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        FileChannel target = null;
+        long size;
+        try {
+            target = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            writeHeader(target);
+            target.position(HEADER_BYTES);
+            OutputStream stream = new BufferedOutputStream(Channels.newOutputStream(target), 1 << 16);
+            for (List<EmployeeDocument> documents : byEmail.values()) {
+                for (EmployeeDocument document : documents) {
+                    stream.write(encode(ADD, document, null));
+                }
+            }
+            stream.flush();
+            target.force(true);
+            size = target.position();
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // the old file is still complete; the next removal tries again
+            try {
+                if (target != null) {
+                    target.close();
+                }
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // left for the next attempt to overwrite
+            }
+            return;
+        }
+        FileChannel old = channel;
+        channel = target;
+        written = size;
+        records = byId.size();
+        try {
+            old.close();
+        } catch (IOException ignored) {
+            // nothing more is written through it
+        }
+    }
+
+    // framed record: [length][crc32c][payload]
+    private byte[] encode(byte type, EmployeeDocument document, String documentId) throws IOException {
+        buffer.reset();
+        out.writeLong(0); // frame, filled in below
+        out.writeByte(type);
+        if (type == ADD) {
+            out.writeUTF(document.getId());
+            out.writeUTF(document.getEmployeeEmail());
+            out.writeUTF(document.getFileName());
+            out.writeUTF(document.getOriginalFileName());
+            out.writeUTF(document.getFileType().name());
+            out.writeLong(document.getUploadDate().toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(document.getUploadDate().getNano());
+            out.writeUTF(document.getFilePath());
+        } else {
+            out.writeUTF(documentId);
+        }
+        byte[] bytes = buffer.toByteArray();
+        int length = bytes.length - FRAME_BYTES;
+        crc.reset();
+        crc.update(bytes, FRAME_BYTES, length);
+        ByteBuffer.wrap(bytes).putInt(0, length).putInt(4, (int) crc.getValue());
+        return bytes;
+    }
+
+    private static EmployeeDocument decode(DataInputStream in) throws IOException {
+        String id = in.readUTF();
+        String email = in.readUTF();
+        String fileName = in.readUTF();
+        String originalFileName = in.readUTF();
+        DocumentType type = DocumentType.valueOf(in.readUTF());
+        LocalDateTime uploadDate = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+        String filePath = in.readUTF();
+        return new EmployeeDocument(id, email, fileName, originalFileName, type, uploadDate, filePath);
+    }
+
+    private void index(EmployeeDocument document) {
+        byId.put(document.getId(), document);
+        byEmail.compute(emailKey(document.getEmployeeEmail()), (key, current) -> {
+            List<EmployeeDocument> updated = new ArrayList<>(current == null ? 1 : current.size() + 1);
+            if (current != null) {
+                updated.addAll(current);
+            }
+            updated.add(document);
+            return List.copyOf(updated);
+        });
+    }
+
+    private void unindex(EmployeeDocument document) {
+        byId.remove(document.getId());
+        byEmail.computeIfPresent(emailKey(document.getEmployeeEmail()), (key, current) -> {
+            List<EmployeeDocument> updated = new ArrayList<>(current);
+            updated.removeIf(d -> d.getId().equals(document.getId()));
+            return updated.isEmpty() ? null : List.copyOf(updated);
+        });
+    }
+
+    private static void writeHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(FORMAT).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, HEADER_BYTES - header.remaining());
+        }
+        channel.force(true);
+    }
+
+    private static String emailKey(String email) {
+        Objects.requireNonNull(email, "email");
+        return email.toLowerCase();
+    }
+}
@@ -0,0 +1,82 @@
+package com.techcorp.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.techcorp.model.Employee;
+import com.techcorp.model.EmployeeChange;
+
+/**
+ * The most recent employee changes in a fixed-size ring, numbered from 1 without
+ * gaps. Readers resume from the last sequence they applied; once the ring has
+ * wrapped past it they are told to start over instead of silently missing
+ * changes. Sequences restart with the process, so a reader that is ahead of the
+ * feed is told the same.
+ * <p>
+ * Listeners are called by the writer after every publish, with the service
+ * write lock held, so they must only hand work off (e.g. wake a sender thread).
+ */
+public final class EmployeeChangeFeed {
+
+    private final EmployeeChange[] ring;
+    private final int mask;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private long lastSequence;
+
+    EmployeeChangeFeed(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.ring = new EmployeeChange[size];
+        this.mask = size - 1;
+    }
+
+    EmployeeChange publish(EmployeeChange.Type type, String email, Employee employee) {
+        EmployeeChange change;
+        synchronized (this) {
+            change = new EmployeeChange(++lastSequence, type, email, employee);
+            ring[(int) (change.sequence() & mask)] = change;
+        }
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+        return change;
+    }
+
+    public synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    public int capacity() {
+        return ring.length;
+    }
+
+    /**
+     * Up to {@code max} changes with a sequence above {@code after}, oldest first.
+     * Empty when changes after {@code after} have already been overwritten, or
+     * {@code after} is ahead of the feed; the reader has to resynchronize then.
+     */
+    public synchronized Optional<List<EmployeeChange>> after(long after, int max) {
+        if (after < 0 || after > lastSequence || lastSequence - after > ring.length) {
+            return Optional.empty();
+        }
+        int count = (int) Math.min(max, lastSequence - after);
+        List<EmployeeChange> changes = new ArrayList<>(count);
+        for (long sequence = after + 1; sequence <= after + count; sequence++) {
+            changes.add(ring[(int) (sequence & mask)]);
+        }
+        return Optional.of(changes);
+    }
+
+    /** Returns the action that removes the listener again. */
+    public Runnable subscribe(Runnable listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+}
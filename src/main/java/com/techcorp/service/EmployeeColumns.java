@@ -0,0 +1,199 @@
+package com.techcorp.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import com.techcorp.model.Employee;
+import com.techcorp.model.EmploymentStatus;
+import com.techcorp.model.Position;
+
+/**
+ * Immutable column-per-attribute copy of the employee set for analytics; company
+ * columns hold the storing service's company ids, so the employees must be stored ones.
+ * Aggregations are plain loops over primitive arrays instead of Stream&lt;Employee&gt;
+ * pipelines; sums use four independent accumulators so the JIT can pipeline
+ * (and, where it is able to, vectorize) the additions.
+ */
+public final class EmployeeColumns {
+
+    private static final Position[] POSITIONS = Position.values();
+    private static final EmploymentStatus[] STATUSES = EmploymentStatus.values();
+    private static final double[] BASE_SALARIES = new double[POSITIONS.length];
+
+    static {
+        for (Position position : POSITIONS) {
+            BASE_SALARIES[position.ordinal()] = position.getBaseSalary();
+        }
+    }
+
+    private final long version;
+    private final int size;
+    private final double[] salaries;
+    private final byte[] positions;
+    private final byte[] statuses;
+    private final int[] companyIds;
+    // by company id, as of the copy
+    private final String[] companyNames;
+
+    private EmployeeColumns(long version, int size, double[] salaries, byte[] positions, byte[] statuses,
+                            int[] companyIds, String[] companyNames) {
+        this.version = version;
+        this.size = size;
+        this.salaries = salaries;
+        this.positions = positions;
+        this.statuses = statuses;
+        this.companyIds = companyIds;
+        this.companyNames = companyNames;
+    }
+
+    public static EmployeeColumns of(Collection<Employee> employees) {
+        return of(employees, 0L);
+    }
+
+    static EmployeeColumns of(Collection<Employee> employees, long version) {
+        int n = employees.size();
+        double[] salaries = new double[n];
+        byte[] positions = new byte[n];
+        byte[] statuses = new byte[n];
+        int[] companyIds = new int[n];
+        String[] companyNames = new String[16];
+        int i = 0;
+        for (Employee employee : employees) {
+            if (i == n) {
+                break;
+            }
+            salaries[i] = employee.getSalary();
+            positions[i] = (byte) employee.getPosition().ordinal();
+            statuses[i] = (byte) employee.getStatus().ordinal();
+            int id = employee.getCompanyId();
+            if (id >= companyNames.length) {
+                companyNames = Arrays.copyOf(companyNames, Math.max(id + 1, companyNames.length * 2));
+            }
+            companyIds[i] = id;
+            companyNames[id] = employee.getCompanyName();
+            i++;
+        }
+        return new EmployeeColumns(version, i, salaries, positions, statuses, companyIds, companyNames);
+    }
+
+    /** Wraps already filled columns; the first {@code size} entries are used. */
+    static EmployeeColumns of(int size, double[] salaries, byte[] positions, byte[] statuses,
+                              int[] companyIds, IntFunction<String> companyNames, long version) {
+        int companyCount = 0;
+        for (int i = 0; i < size; i++) {
+            companyCount = Math.max(companyCount, companyIds[i] + 1);
+        }
+        String[] names = new String[companyCount];
+        for (int i = 0; i < size; i++) {
+            if (names[companyIds[i]] == null) {
+                names[companyIds[i]] = companyNames.apply(companyIds[i]);
+            }
+        }
+        return new EmployeeColumns(version, size, salaries, positions, statuses, companyIds, names);
+    }
+
+    long version() {
+        return version;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double sumSalary() {
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < size; i += 4) {
+            s0 += salaries[i];
+            s1 += salaries[i + 1];
+            s2 += salaries[i + 2];
+            s3 += salaries[i + 3];
+        }
+        for (; i < size; i++) {
+            s0 += salaries[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    public double averageSalary() {
+        return size == 0 ? 0.0 : sumSalary() / size;
+    }
+
+    public Map<Position, Double> sumSalaryByPosition() {
+        double[] sums = new double[POSITIONS.length];
+        for (int i = 0; i < size; i++) {
+            sums[positions[i]] += salaries[i];
+        }
+        Map<Position, Double> result = new EnumMap<>(Position.class);
+        for (Position position : POSITIONS) {
+            result.put(position, sums[position.ordinal()]);
+        }
+        return result;
+    }
+
+    public Map<Position, Double> averageSalaryByPosition() {
+        double[] sums = new double[POSITIONS.length];
+        long[] counts = new long[POSITIONS.length];
+        for (int i = 0; i < size; i++) {
+            sums[positions[i]] += salaries[i];
+            counts[positions[i]]++;
+        }
+        Map<Position, Double> result = new EnumMap<>(Position.class);
+        for (Position position : POSITIONS) {
+            int p = position.ordinal();
+            if (counts[p] > 0) {
+                result.put(position, sums[p] / counts[p]);
+            }
+        }
+        return result;
+    }
+
+    public Map<EmploymentStatus, Double> averageSalaryByStatus() {
+        double[] sums = new double[STATUSES.length];
+        long[] counts = new long[STATUSES.length];
+        for (int i = 0; i < size; i++) {
+            sums[statuses[i]] += salaries[i];
+            counts[statuses[i]]++;
+        }
+        Map<EmploymentStatus, Double> result = new EnumMap<>(EmploymentStatus.class);
+        for (EmploymentStatus status : STATUSES) {
+            int s = status.ordinal();
+            if (counts[s] > 0) {
+                result.put(status, sums[s] / counts[s]);
+            }
+        }
+        return result;
+    }
+
+    /** Keyed by the company name its employees share. */
+    public Map<String, Double> averageSalaryByCompany() {
+        int companyCount = companyNames.length;
+        double[] sums = new double[companyCount];
+        long[] counts = new long[companyCount];
+        for (int i = 0; i < size; i++) {
+            sums[companyIds[i]] += salaries[i];
+            counts[companyIds[i]]++;
+        }
+        Map<String, Double> result = new HashMap<>();
+        for (int c = 0; c < companyCount; c++) {
+            if (counts[c] > 0) {
+                result.put(companyNames[c], sums[c] / counts[c]);
+            }
+        }
+        return result;
+    }
+
+    public long countUnderpaid() {
+        long count = 0;
+        for (int i = 0; i < size; i++) {
+            if (salaries[i] < BASE_SALARIES[positions[i]]) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,18 @@
+package com.techcorp.service;
+
+import com.techcorp.model.Employee;
+
+/**
+ * Secondary structure kept in sync by {@link EmployeeService}. Both callbacks are
+ * invoked with the service write lock held; an update is a remove of the old
+ * version followed by an add of the new one under the same row id. {@code remove}
+ * receives a copy of the employee exactly as it was passed to {@code add}.
+ * Indexes keep row ids (plus sort keys) only and resolve them through
+ * {@link EmployeeStorage}, so they hold no Employee objects of their own.
+ */
+interface EmployeeIndex {
+
+    void add(int row, Employee employee);
+
+    void remove(int row, Employee employee);
+}
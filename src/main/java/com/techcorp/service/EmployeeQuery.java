@@ -0,0 +1,365 @@
+package com.techcorp.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import com.techcorp.model.Employee;
+import com.techcorp.model.EmploymentStatus;
+import com.techcorp.model.Position;
+
+/**
+ * Filter expression compiled into a predicate tree, in the RSQL style:
+ * {@code position==MANAGER;salary=gt=12000;company==TechCorp}. {@code ;} is AND
+ * and binds tighter than {@code ,} (OR); parentheses group. Operators are
+ * {@code ==}, {@code !=}, {@code =gt=}, {@code =ge=}, {@code =lt=}, {@code =le=},
+ * {@code =in=} and {@code =out=} (the last two take {@code (a,b,...)}); values
+ * with spaces or reserved characters are quoted. Selectors are company, position,
+ * status, salary, name and email; text compares case-insensitively and {@code *}
+ * is a wildcard. Instances are immutable, so a compiled query can be cached and
+ * shared.
+ */
+public final class EmployeeQuery {
+
+    enum Selector {
+        COMPANY, POSITION, STATUS, SALARY, NAME, EMAIL
+    }
+
+    enum Operator {
+        EQ("=="), NE("!="), GT("=gt="), GE("=ge="), LT("=lt="), LE("=le="), IN("=in="), OUT("=out=");
+
+        final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        boolean isRange() {
+            return this == GT || this == GE || this == LT || this == LE;
+        }
+    }
+
+    interface Node extends Predicate<Employee> {
+    }
+
+    record And(List<Node> children) implements Node {
+        @Override
+        public boolean test(Employee employee) {
+            for (Node child : children) {
+                if (!child.test(employee)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    record Or(List<Node> children) implements Node {
+        @Override
+        public boolean test(Employee employee) {
+            for (Node child : children) {
+                if (child.test(employee)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /** {@code values} are typed by selector: String, Position, EmploymentStatus or Double. */
+    record Comparison(Selector selector, Operator operator, List<Object> values, boolean wildcard,
+                      Predicate<Employee> predicate) implements Node {
+        @Override
+        public boolean test(Employee employee) {
+            return predicate.test(employee);
+        }
+    }
+
+    private final String text;
+    private final Node root;
+
+    private EmployeeQuery(String text, Node root) {
+        this.text = text;
+        this.root = root;
+    }
+
+    /** @throws IllegalArgumentException with the position of the first syntax error */
+    public static EmployeeQuery parse(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Filter must not be empty");
+        }
+        return new EmployeeQuery(text, new Parser(text).parse());
+    }
+
+    public boolean test(Employee employee) {
+        return root.test(employee);
+    }
+
+    public String text() {
+        return text;
+    }
+
+    /** Comparisons every match has to satisfy: the root, or the direct children of a root AND. */
+    List<Comparison> conjuncts() {
+        List<Comparison> result = new ArrayList<>();
+        if (root instanceof Comparison comparison) {
+            result.add(comparison);
+        } else if (root instanceof And and) {
+            for (Node child : and.children()) {
+                if (child instanceof Comparison comparison) {
+                    result.add(comparison);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    private static final class Parser {
+        private static final String RESERVED = "();,=!'\"";
+        // each '(' is a level of recursion here and in test(), so a deeply nested filter would overflow the stack
+        private static final int MAX_DEPTH = 32;
+
+        private final String input;
+        private int pos;
+        private int depth;
+
+        Parser(String input) {
+            this.input = input;
+        }
+
+        Node parse() {
+            Node node = or();
+            skipSpaces();
+            if (pos < input.length()) {
+                throw error("unexpected '" + input.charAt(pos) + "'");
+            }
+            return node;
+        }
+
+        private Node or() {
+            List<Node> children = new ArrayList<>();
+            children.add(and());
+            while (accept(',')) {
+                children.add(and());
+            }
+            return children.size() == 1 ? children.get(0) : new Or(List.copyOf(children));
+        }
+
+        private Node and() {
+            List<Node> children = new ArrayList<>();
+            children.add(primary());
+            while (accept(';')) {
+                children.add(primary());
+            }
+            return children.size() == 1 ? children.get(0) : new And(List.copyOf(children));
+        }
+
+        private Node primary() {
+            if (accept('(')) {
+                if (++depth > MAX_DEPTH) {
+                    throw error("parentheses nested deeper than " + MAX_DEPTH);
+                }
+                Node node = or();
+                if (!accept(')')) {
+                    throw error("expected ')'");
+                }
+                depth--;
+                return node;
+            }
+            return comparison();
+        }
+
+        private Node comparison() {
+            skipSpaces();
+            int start = pos;
+            while (pos < input.length() && Character.isLetter(input.charAt(pos))) {
+                pos++;
+            }
+            if (start == pos) {
+                throw error("expected a selector");
+            }
+            String name = input.substring(start, pos);
+            Selector selector;
+            try {
+                selector = Selector.valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw error("unknown selector '" + name + "'");
+            }
+            Operator operator = operator();
+            List<String> raw = new ArrayList<>();
+            if (operator == Operator.IN || operator == Operator.OUT) {
+                if (!accept('(')) {
+                    throw error("expected '(' after " + operator.symbol);
+                }
+                do {
+                    raw.add(value());
+                } while (accept(','));
+                if (!accept(')')) {
+                    throw error("expected ')'");
+                }
+            } else {
+                raw.add(value());
+            }
+            return compile(selector, operator, raw);
+        }
+
+        private Operator operator() {
+            skipSpaces();
+            for (Operator operator : Operator.values()) {
+                if (input.startsWith(operator.symbol, pos)) {
+                    pos += operator.symbol.length();
+                    return operator;
+                }
+            }
+            throw error("expected an operator");
+        }
+
+        private String value() {
+            skipSpaces();
+            if (pos < input.length() && (input.charAt(pos) == '\'' || input.charAt(pos) == '"')) {
+                char quote = input.charAt(pos++);
+                StringBuilder value = new StringBuilder();
+                while (pos < input.length() && input.charAt(pos) != quote) {
+                    char c = input.charAt(pos++);
+                    if (c == '\\' && pos < input.length()) {
+                        c = input.charAt(pos++);
+                    }
+                    value.append(c);
+                }
+                if (pos == input.length()) {
+                    throw error("unterminated string");
+                }
+                pos++;
+                return value.toString();
+            }
+            int start = pos;
+            while (pos < input.length() && RESERVED.indexOf(input.charAt(pos)) < 0) {
+                pos++;
+            }
+            String value = input.substring(start, pos).trim();
+            if (value.isEmpty()) {
+                throw error("expected a value");
+            }
+            return value;
+        }
+
+        private Comparison compile(Selector selector, Operator operator, List<String> raw) {
+            List<Object> values = new ArrayList<>(raw.size());
+            boolean wildcard = false;
+            for (String value : raw) {
+                switch (selector) {
+                    case SALARY -> values.add(number(value));
+                    case POSITION -> values.add(constant(Position.class, value));
+                    case STATUS -> values.add(constant(EmploymentStatus.class, value));
+                    default -> {
+                        values.add(value);
+                        wildcard |= value.indexOf('*') >= 0;
+                    }
+                }
+            }
+            if (operator.isRange() && selector != Selector.SALARY) {
+                throw error(operator.symbol + " only applies to salary");
+            }
+            return new Comparison(selector, operator, List.copyOf(values), wildcard,
+                    predicate(selector, operator, values, wildcard));
+        }
+
+        private static Predicate<Employee> predicate(Selector selector, Operator operator, List<Object> values,
+                                                     boolean wildcard) {
+            if (selector == Selector.SALARY && operator.isRange()) {
+                double bound = (Double) values.get(0);
+                return switch (operator) {
+                    case GT -> employee -> employee.getSalary() > bound;
+                    case GE -> employee -> employee.getSalary() >= bound;
+                    case LT -> employee -> employee.getSalary() < bound;
+                    default -> employee -> employee.getSalary() <= bound;
+                };
+            }
+            Predicate<Employee> matches = switch (selector) {
+                case SALARY -> {
+                    Set<Double> salaries = new HashSet<>();
+                    values.forEach(value -> salaries.add((Double) value));
+                    yield employee -> salaries.contains(employee.getSalary());
+                }
+                case POSITION -> employee -> values.contains(employee.getPosition());
+                case STATUS -> employee -> values.contains(employee.getStatus());
+                case COMPANY -> text(values, wildcard, Employee::getCompanyName);
+                case NAME -> text(values, wildcard, Employee::getFullName);
+                case EMAIL -> text(values, wildcard, Employee::getEmail);
+            };
+            return operator == Operator.NE || operator == Operator.OUT ? matches.negate() : matches;
+        }
+
+        private static Predicate<Employee> text(List<Object> values, boolean wildcard,
+                                                Function<Employee, String> field) {
+            if (!wildcard) {
+                Set<String> lowered = new HashSet<>();
+                values.forEach(value -> lowered.add(((String) value).toLowerCase(Locale.ROOT)));
+                return employee -> {
+                    String actual = field.apply(employee);
+                    return actual != null && lowered.contains(actual.toLowerCase(Locale.ROOT));
+                };
+            }
+            List<Pattern> patterns = new ArrayList<>();
+            for (Object value : values) {
+                StringBuilder regex = new StringBuilder();
+                for (String part : ((String) value).split("\\*", -1)) {
+                    if (regex.length() > 0) {
+                        regex.append(".*");
+                    }
+                    regex.append(Pattern.quote(part));
+                }
+                patterns.add(Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE));
+            }
+            return employee -> {
+                String actual = field.apply(employee);
+                return actual != null && patterns.stream().anyMatch(pattern -> pattern.matcher(actual).matches());
+            };
+        }
+
+        private Double number(String value) {
+            try {
+                return Double.valueOf(value);
+            } catch (NumberFormatException e) {
+                throw error("'" + value + "' is not a number");
+            }
+        }
+
+        private <E extends Enum<E>> E constant(Class<E> type, String value) {
+            try {
+                return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw error("unknown " + type.getSimpleName() + " '" + value + "'");
+            }
+        }
+
+        private boolean accept(char c) {
+            skipSpaces();
+            if (pos < input.length() && input.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipSpaces() {
+            while (pos < input.length() && Character.isWhitespace(input.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid filter at position " + pos + ": " + message);
+        }
+    }
+}
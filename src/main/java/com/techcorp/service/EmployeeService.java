@@ -1,110 +1,482 @@
 package com.techcorp.service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collection;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalDouble;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import jakarta.annotation.PreDestroy;
+
 import com.techcorp.exception.DuplicateEmailException;
 import com.techcorp.exception.EmployeeNotFoundException;
+import com.techcorp.exception.NotLeaderException;
+import com.techcorp.model.BatchMode;
+import com.techcorp.model.BatchResult;
 import com.techcorp.model.CompanyStatistics;
 import com.techcorp.model.Employee;
+import com.techcorp.model.EmployeeChange;
+import com.techcorp.model.EmployeeFilter;
 import com.techcorp.model.EmploymentStatus;
 import com.techcorp.model.Position;
 
 @Service
 public class EmployeeService {
-    private final Map<String, Employee> employees = new LinkedHashMap<>();
+    // Every employee lives in a row; row ids grow monotonically, so iterating rows
+    // in key order gives insertion order. Readers only touch the storage and the
+    // concurrent maps, writers are serialized by writeLock. With a write-ahead log
+    // every mutation is appended before it is applied and made durable after the
+    // lock is released, so concurrent writers can share one fsync. A checkpoint
+    // rotates the log under the lock and writes the snapshot file outside it.
+    // On a replication leader every logged mutation is also handed to the
+    // replication log; a follower refuses writes and applies the leader's.
+    static final int DEFAULT_PARALLEL_THRESHOLD = 100_000;
+    static final int DEFAULT_CHANGE_CAPACITY = 16_384;
+
+    private final EmployeeStorage storage;
+    private final int parallelThreshold;
+    private final EmployeeChangeFeed changeFeed;
+    private final WriteAheadLog log;
+    private final SnapshotFile snapshotFile;
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+    private volatile ScheduledExecutorService checkpointer;
+    private volatile ReplicationLog replicationLog;
+    private volatile boolean replica;
+    private final ConcurrentMap<String, Integer> rowsByEmail = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private int nextRow;
+
+    // bumped on every mutation; derived snapshots are rebuilt when it moves on
+    private volatile long version;
+    private volatile EmployeeColumns columns;
+    // held weakly when the storage materializes rows, so an idle snapshot does
+    // not pin a heap copy of every off-heap record
+    private volatile Supplier<EmployeeSnapshot> snapshot = () -> null;
+
+    private final CompanyDictionary companies = new CompanyDictionary();
+    private final CompanyIndex companyIndex;
+    private final EnumIndex<EmploymentStatus> statusIndex;
+    private final EnumIndex<Position> positionIndex;
+    private final SalaryIndex salaryIndex;
+    private final PositionSalaryIndex positionSalaryIndex;
+    private final NameIndex nameIndex;
+    private final UnderpaidIndex underpaidIndex;
+    private final SearchIndex searchIndex;
+    private final BitmapIndex bitmapIndex;
+    private final QueryPlanner queryPlanner;
+    private final List<EmployeeIndex> indexes;
+
+    /** Storage mode from the {@code app.storage.mode} system property (heap by default). */
+    public EmployeeService() {
+        this(StorageMode.fromSystemProperty());
+    }
+
+    public EmployeeService(StorageMode storageMode) {
+        this(storageMode, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    public EmployeeService(StorageMode storageMode, int parallelThreshold) {
+        this(storageMode, parallelThreshold, DEFAULT_CHANGE_CAPACITY);
+    }
+
+    public EmployeeService(StorageMode storageMode, int parallelThreshold, int changeCapacity) {
+        this(storageMode, parallelThreshold, changeCapacity, null);
+    }
+
+    /**
+     * @param walFile               write-ahead log to replay and append to; blank keeps employees in memory only
+     * @param walSyncIntervalMs     how often the log is forced in {@link WriteAheadLog.Durability#INTERVAL} mode
+     * @param snapshotFile          binary snapshot loaded before the log is replayed; blank for none
+     * @param checkpointIntervalMs  how often to check whether a checkpoint is due
+     * @param checkpointMinLogBytes log size from which a checkpoint is taken
+     * @param replicationRole       a follower keeps no log or snapshot of its own and refuses writes
+     */
+    @Autowired
+    public EmployeeService(@Value("${app.storage.mode:HEAP}") StorageMode storageMode,
+                           @Value("${app.statistics.parallel-threshold:100000}") int parallelThreshold,
+                           @Value("${app.changes.capacity:16384}") int changeCapacity,
+                           @Value("${app.wal.file:}") String walFile,
+                           @Value("${app.wal.durability:EVERY_WRITE}") WriteAheadLog.Durability walDurability,
+                           @Value("${app.wal.sync-interval-ms:10}") long walSyncIntervalMs,
+                           @Value("${app.snapshot.file:}") String snapshotFile,
+                           @Value("${app.snapshot.check-interval-ms:60000}") long checkpointIntervalMs,
+                           @Value("${app.snapshot.min-log-bytes:67108864}") long checkpointMinLogBytes,
+                           @Value("${app.replication.role:STANDALONE}") ReplicationRole replicationRole) {
+        this(storageMode, parallelThreshold, changeCapacity,
+                walFile.isBlank() || replicationRole == ReplicationRole.FOLLOWER
+                        ? null : openLog(Path.of(walFile), walDurability, walSyncIntervalMs),
+                snapshotFile.isBlank() || replicationRole == ReplicationRole.FOLLOWER
+                        ? null : new SnapshotFile(Path.of(snapshotFile)));
+        if (replicationRole == ReplicationRole.FOLLOWER) {
+            // its state comes from the leader, which sends a snapshot on connect
+            becomeReplica();
+        } else if (log != null && this.snapshotFile != null) {
+            scheduleCheckpoints(checkpointIntervalMs, checkpointMinLogBytes);
+        }
+    }
+
+    public EmployeeService(StorageMode storageMode, int parallelThreshold, int changeCapacity, WriteAheadLog log) {
+        this(storageMode, parallelThreshold, changeCapacity, log, null);
+    }
+
+    /**
+     * @param parallelThreshold headcount from which whole-store recomputations
+     *                          such as {@link #computeCompanyStatistics()} run as parallel streams
+     * @param changeCapacity    number of recent changes kept for {@link #getChangeFeed()} readers
+     * @param log               replayed before the service is usable, then appended to; may be null.
+     *                          The service closes it in {@link #close()}.
+     * @param snapshotFile      loaded before the log if it exists, written by {@link #checkpoint()}; may be null
+     */
+    public EmployeeService(StorageMode storageMode, int parallelThreshold, int changeCapacity, WriteAheadLog log,
+                           SnapshotFile snapshotFile) {
+        this.storage = Objects.requireNonNull(storageMode, "storageMode") == StorageMode.OFF_HEAP
+                ? new OffHeapEmployeeStorage(companies)
+                : new HeapEmployeeStorage();
+        requirePositive(parallelThreshold, "parallelThreshold");
+        this.parallelThreshold = parallelThreshold;
+        this.changeFeed = new EmployeeChangeFeed(changeCapacity);
+        this.companyIndex = new CompanyIndex(storage, companies);
+        this.statusIndex = new EnumIndex<>(storage, EmploymentStatus.class, Employee::getStatus);
+        this.positionIndex = new EnumIndex<>(storage, Position.class, Employee::getPosition);
+        this.salaryIndex = new SalaryIndex(storage);
+        this.positionSalaryIndex = new PositionSalaryIndex(storage);
+        this.nameIndex = new NameIndex(storage);
+        this.underpaidIndex = new UnderpaidIndex(storage);
+        this.searchIndex = new SearchIndex(storage);
+        this.bitmapIndex = new BitmapIndex(storage, companies);
+        this.indexes = List.of(companyIndex, statusIndex, positionIndex, salaryIndex, positionSalaryIndex, nameIndex,
+                underpaidIndex, searchIndex, bitmapIndex);
+        this.queryPlanner = new QueryPlanner(storage, companyIndex, positionIndex, statusIndex, salaryIndex,
+                bitmapIndex, this::getAllEmployees, this::size);
+        this.log = log;
+        this.snapshotFile = snapshotFile;
+        restore();
+    }
 
     public void addEmployee(Employee employee) {
+        requireWritable();
         Objects.requireNonNull(employee, "employee");
-        String key = employee.getEmail().toLowerCase();
-        if (employees.containsKey(key)) {
-            throw new DuplicateEmailException(employee.getEmail());
+        String key = emailKey(employee.getEmail());
+        long logged;
+        writeLock.lock();
+        try {
+            if (rowsByEmail.containsKey(key)) {
+                throw new DuplicateEmailException(employee.getEmail());
+            }
+            logged = log(new WriteAheadLog.Put(employee));
+            publish(EmployeeChange.Type.ADDED, insertRow(key, employee));
+        } finally {
+            writeLock.unlock();
+        }
+        awaitDurable(logged);
+    }
+
+    /**
+     * Adds a batch under a single write-lock acquisition. Each e-mail is
+     * normalized once and one lookup checks it against both the store and the
+     * part of the batch applied so far. In FAIL_FAST mode any duplicate throws
+     * {@link DuplicateEmailException} before anything is applied.
+     */
+    public BatchResult addAll(Collection<Employee> employees, BatchMode mode) {
+        requireWritable();
+        Objects.requireNonNull(employees, "employees");
+        Objects.requireNonNull(mode, "mode");
+        Employee[] batch = employees.toArray(new Employee[0]);
+        String[] keys = new String[batch.length];
+        for (int i = 0; i < batch.length; i++) {
+            keys[i] = emailKey(Objects.requireNonNull(batch[i], "employee").getEmail());
+        }
+        List<BatchResult.Item> items = new ArrayList<>(batch.length);
+        long logged = 0;
+        writeLock.lock();
+        try {
+            if (mode == BatchMode.FAIL_FAST) {
+                Set<String> seen = new HashSet<>(batch.length * 2);
+                for (int i = 0; i < batch.length; i++) {
+                    if (!seen.add(keys[i]) || rowsByEmail.containsKey(keys[i])) {
+                        throw new DuplicateEmailException(batch[i].getEmail());
+                    }
+                }
+            }
+            for (int i = 0; i < batch.length; i++) {
+                Employee employee = batch[i];
+                Integer row = rowsByEmail.get(keys[i]);
+                if (row == null) {
+                    logged = log(new WriteAheadLog.Put(employee));
+                    publish(EmployeeChange.Type.ADDED, insertRow(keys[i], employee));
+                    items.add(new BatchResult.Item(i, employee.getEmail(), BatchResult.Status.ADDED, null));
+                } else if (mode == BatchMode.UPSERT) {
+                    logged = log(new WriteAheadLog.Put(employee));
+                    replaceRow(row, employee);
+                    publish(EmployeeChange.Type.UPDATED, row);
+                    items.add(new BatchResult.Item(i, employee.getEmail(), BatchResult.Status.UPDATED, null));
+                } else {
+                    items.add(new BatchResult.Item(i, employee.getEmail(), BatchResult.Status.SKIPPED,
+                            DuplicateEmailException.messageFor(employee.getEmail())));
+                }
+            }
+        } finally {
+            writeLock.unlock();
         }
-        employees.put(key, employee);
+        // one wait for the whole batch
+        awaitDurable(logged);
+        return new BatchResult(items);
     }
 
+    /** Unmodifiable and shared by all callers until the next write. */
     public List<Employee> getAllEmployees() {
-        return new ArrayList<>(employees.values());
+        return getSnapshot().employees();
+    }
+
+    /**
+     * Consistent view of all employees at one version. Built on the first call
+     * after a write and shared by all readers until the next one, so repeated
+     * reads allocate nothing.
+     */
+    public EmployeeSnapshot getSnapshot() {
+        EmployeeSnapshot current = snapshot.get();
+        if (current != null && current.version() == version) {
+            return current;
+        }
+        writeLock.lock();
+        try {
+            current = snapshot.get();
+            if (current == null || current.version() != version) {
+                EmployeeSnapshot built = new EmployeeSnapshot(version, storage.all());
+                snapshot = storage.materializesOnRead() ? new WeakReference<>(built)::get : () -> built;
+                current = built;
+            }
+            return current;
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     public List<Employee> findByCompany(String companyName) {
         Objects.requireNonNull(companyName, "companyName");
-        return stream()
-                .filter(e -> e.getCompanyName().equalsIgnoreCase(companyName))
-                .collect(Collectors.toList());
+        return companyIndex.find(companyName);
     }
 
     public List<Employee> getEmployeesSortedByLastName() {
-        Comparator<Employee> cmp = Comparator
-                .comparing((Employee e) -> e.getLastName().toLowerCase())
-                .thenComparing(e -> e.getFullName().toLowerCase());
-        return stream().sorted(cmp).collect(Collectors.toList());
+        return nameIndex.all();
+    }
+
+    public NamePage getEmployeesSortedByLastName(String fromLastName, int limit) {
+        Objects.requireNonNull(fromLastName, "fromLastName");
+        requirePositive(limit, "limit");
+        return nameIndex.from(fromLastName, limit);
+    }
+
+    /** The page following the one whose {@link NamePage#nextCursor()} is {@code cursor}. */
+    public NamePage getEmployeesSortedByLastNameAfter(String cursor, int limit) {
+        Objects.requireNonNull(cursor, "cursor");
+        requirePositive(limit, "limit");
+        return nameIndex.after(cursor, limit);
+    }
+
+    /**
+     * Employees whose name, e-mail or company contains every word of the query,
+     * as a whole word, a word prefix or (from three letters) inside a word;
+     * best matches first. Case and Polish diacritics are ignored.
+     */
+    public List<Employee> search(String query, int limit) {
+        Objects.requireNonNull(query, "query");
+        requirePositive(limit, "limit");
+        return searchIndex.search(query, limit);
+    }
+
+    /** Employees matching every criterion of the filter, in insertion order. */
+    public List<Employee> filter(EmployeeFilter filter) {
+        Objects.requireNonNull(filter, "filter");
+        return bitmapIndex.find(filter);
+    }
+
+    /**
+     * Employees matching a filter expression such as
+     * {@code position==MANAGER;salary=gt=12000;company==TechCorp} (see
+     * {@link EmployeeQuery}), with the access path the planner chose.
+     *
+     * @throws IllegalArgumentException if the expression does not parse
+     */
+    public QueryResult query(String filter) {
+        Objects.requireNonNull(filter, "filter");
+        return queryPlanner.execute(filter);
+    }
+
+    /** Number of employees matching the filter; no employee is read. */
+    public int count(EmployeeFilter filter) {
+        Objects.requireNonNull(filter, "filter");
+        return bitmapIndex.count(filter);
     }
 
     public Map<Position, List<Employee>> groupByPosition() {
-        return stream().collect(Collectors.groupingBy(Employee::getPosition));
+        return positionIndex.group();
     }
 
     public Map<Position, Long> countByPosition() {
-        return stream().collect(Collectors.groupingBy(Employee::getPosition, Collectors.counting()));
+        return positionIndex.counts();
     }
 
     public OptionalDouble getAverageSalary() {
-        return employees.values().stream().mapToDouble(Employee::getSalary).average();
+        return salaryIndex.average();
     }
 
     public Optional<Employee> getTopEarner() {
-        return stream().max(Comparator.comparingDouble(Employee::getSalary));
+        return salaryIndex.highest();
+    }
+
+    public DoubleSummaryStatistics getSalaryStatistics() {
+        return salaryIndex.summary();
+    }
+
+    /**
+     * Columnar copy of all employees for analytics, rebuilt lazily on the first
+     * call after a mutation and shared by all callers until the next one.
+     */
+    public EmployeeColumns getColumns() {
+        EmployeeColumns current = columns;
+        if (current != null && current.version() == version) {
+            return current;
+        }
+        writeLock.lock();
+        try {
+            current = columns;
+            if (current == null || current.version() != version) {
+                current = storage.columns(version);
+                columns = current;
+            }
+            return current;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Top {@code n} earners, highest first; {@code position} may be null for all positions. */
+    public List<Employee> getTopEarners(int n, Position position) {
+        requirePositive(n, "n");
+        return salaryIndex(position).top(n);
+    }
+
+    /** Bottom {@code n} earners, lowest first; {@code position} may be null for all positions. */
+    public List<Employee> getBottomEarners(int n, Position position) {
+        requirePositive(n, "n");
+        return salaryIndex(position).bottom(n);
+    }
+
+    /** Employees earning between {@code min} and {@code max} inclusive, ascending by salary. */
+    public List<Employee> findBySalaryRange(double min, double max, Position position) {
+        if (min > max) {
+            throw new IllegalArgumentException("min must not be greater than max");
+        }
+        return salaryIndex(position).range(min, max);
+    }
+
+    /** Salary percentiles and histogram; {@code position} may be null for all positions. */
+    public SalaryDistribution getSalaryDistribution(Position position) {
+        return salaryIndex(position).distribution();
+    }
+
+    public Optional<SalaryDistribution> getCompanySalaryDistribution(String companyName) {
+        Objects.requireNonNull(companyName, "companyName");
+        return companyIndex.distribution(companyName);
     }
 
     public int size() {
-        return employees.size();
+        return rowsByEmail.size();
     }
 
+    /** Employees earning less than their position's base salary, in insertion order. */
     public List<Employee> validateSalaryConsistency() {
-        return stream()
-                .filter(employee -> employee.getSalary() < employee.getPosition().getBaseSalary())
-                .collect(Collectors.toList());
+        return underpaidIndex.all();
+    }
+
+    /** Page {@code page} (from 0) of {@link #validateSalaryConsistency()}, {@code size} per page. */
+    public List<Employee> getUnderpaidEmployees(int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+        requirePositive(size, "size");
+        return underpaidIndex.page(page, size);
+    }
+
+    public int countUnderpaid() {
+        return underpaidIndex.count();
     }
 
     public Map<String, CompanyStatistics> getCompanyStatistics() {
-        return stream()
-                .collect(Collectors.groupingBy(
-                    Employee::getCompanyName,
-                    Collectors.collectingAndThen(
-                        Collectors.toList(),
-                        employeesList -> {
-                            long count = employeesList.size();
-                            
-                            double avgSalary = employeesList.stream()
-                                    .mapToDouble(Employee::getSalary)
-                                    .average()
-                                    .orElse(0.0);
-                            
-                            String highestPaid = employeesList.stream()
-                                    .max(Comparator.comparingDouble(Employee::getSalary))
-                                    .map(Employee::getFullName)
-                                    .orElse("");
-                            
-                            return new CompanyStatistics(count, avgSalary, highestPaid);
-                        }
-                    )
-                ));
+        return companyIndex.statistics();
+    }
+
+    /**
+     * Company statistics recomputed from the current snapshot in one pass, in
+     * parallel above the configured threshold. {@link #getCompanyStatistics()}
+     * reads the maintained per-company view and is the cheap path; this one
+     * serves as an independent cross-check of it.
+     */
+    public Map<String, CompanyStatistics> computeCompanyStatistics() {
+        List<Employee> employees = getAllEmployees();
+        Stream<Employee> stream = employees.size() >= parallelThreshold
+                ? employees.parallelStream()
+                : employees.stream();
+        return stream.collect(CompanyStatisticsCollector.toCompanyStatistics());
+    }
+
+    public Optional<CompanyStatistics> getCompanyStatistics(String companyName) {
+        Objects.requireNonNull(companyName, "companyName");
+        return companyIndex.statistics(companyName);
+    }
+
+    /**
+     * Moves every employee of a company to a new company name in one write;
+     * {@code newName} may differ from the current name in case only. Employees
+     * carry their company name, so snapshots and change events from before the
+     * rename keep the old one.
+     *
+     * @throws IllegalArgumentException if no employee works for {@code oldName}
+     *                                  or another company here already uses {@code newName}
+     */
+    public void renameCompany(String oldName, String newName) {
+        requireWritable();
+        long logged;
+        writeLock.lock();
+        try {
+            Map<Integer, Employee> moved = movedToCompany(oldName, newName);
+            logged = log(new WriteAheadLog.Rename(oldName, newName));
+            moveRows(oldName, moved);
+            // every employee of the company changed; cheaper for clients to refetch
+            changeFeed.publish(EmployeeChange.Type.RESET, null, null);
+        } finally {
+            writeLock.unlock();
+        }
+        awaitDurable(logged);
     }
 
     public Optional<Employee> findByEmail(String email) {
         Objects.requireNonNull(email, "email");
-        return Optional.ofNullable(employees.get(email.toLowerCase()));
+        Integer row = rowsByEmail.get(emailKey(email));
+        return row == null ? Optional.empty() : Optional.ofNullable(storage.get(row));
     }
 
     public Employee getByEmail(String email) {
@@ -113,43 +485,510 @@ public class EmployeeService {
     }
 
     public void updateEmployee(String email, Employee updatedEmployee) {
-        getByEmail(email);
-        String key = email.toLowerCase();
-        
-        if (!email.equalsIgnoreCase(updatedEmployee.getEmail())) {
-            String newKey = updatedEmployee.getEmail().toLowerCase();
-            if (employees.containsKey(newKey)) {
-                throw new DuplicateEmailException(updatedEmployee.getEmail());
+        requireWritable();
+        Objects.requireNonNull(updatedEmployee, "updatedEmployee");
+        String key = emailKey(email);
+        String newKey = emailKey(updatedEmployee.getEmail());
+        long logged;
+        writeLock.lock();
+        try {
+            int row = requireRow(email);
+            if (!key.equals(newKey)) {
+                if (rowsByEmail.containsKey(newKey)) {
+                    throw new DuplicateEmailException(updatedEmployee.getEmail());
+                }
+                logged = log(new WriteAheadLog.Move(email, updatedEmployee));
+                publishDeleted(key, row);
+                publish(EmployeeChange.Type.ADDED, insertRow(newKey, updatedEmployee));
+            } else {
+                logged = log(new WriteAheadLog.Put(updatedEmployee));
+                replaceRow(row, updatedEmployee);
+                publish(EmployeeChange.Type.UPDATED, row);
             }
-            employees.remove(key);
-            employees.put(newKey, updatedEmployee);
-        } else {
-            employees.put(key, updatedEmployee);
+        } finally {
+            writeLock.unlock();
         }
+        awaitDurable(logged);
     }
 
     public void deleteEmployee(String email) {
-        getByEmail(email);
-        employees.remove(email.toLowerCase());
+        requireWritable();
+        long logged;
+        writeLock.lock();
+        try {
+            int row = requireRow(email);
+            logged = log(new WriteAheadLog.Delete(email));
+            publishDeleted(emailKey(email), row);
+        } finally {
+            writeLock.unlock();
+        }
+        awaitDurable(logged);
     }
 
     public void updateEmployeeStatus(String email, EmploymentStatus status) {
-        Employee employee = getByEmail(email);
-        employee.setStatus(status);
+        requireWritable();
+        Objects.requireNonNull(status, "status");
+        long logged;
+        writeLock.lock();
+        try {
+            int row = requireRow(email);
+            Employee updated = new Employee(storage.get(row));
+            updated.setStatus(status);
+            logged = log(new WriteAheadLog.Put(updated));
+            replaceRow(row, updated);
+            publish(EmployeeChange.Type.STATUS_CHANGED, row);
+        } finally {
+            writeLock.unlock();
+        }
+        awaitDurable(logged);
+    }
+
+    public void updatePhotoFileName(String email, String photoFileName) {
+        requireWritable();
+        long logged;
+        writeLock.lock();
+        try {
+            int row = requireRow(email);
+            Employee updated = new Employee(storage.get(row));
+            updated.setPhotoFileName(photoFileName);
+            logged = log(new WriteAheadLog.Put(updated));
+            replaceRow(row, updated);
+            publish(EmployeeChange.Type.UPDATED, row);
+        } finally {
+            writeLock.unlock();
+        }
+        awaitDurable(logged);
+    }
+
+    /**
+     * Recent changes, for clients that fetch the full list once and then only
+     * apply deltas. Take {@link #lastChangeSequence()} before fetching the list:
+     * changes up to it are already in the list, later ones may be replayed.
+     */
+    public EmployeeChangeFeed getChangeFeed() {
+        return changeFeed;
+    }
+
+    public long lastChangeSequence() {
+        return changeFeed.lastSequence();
+    }
+
+    /** The write-ahead log, if the service was given one. */
+    public Optional<WriteAheadLog> getWriteAheadLog() {
+        return Optional.ofNullable(log);
+    }
+
+    /**
+     * Writes the current state to the snapshot file and drops the log behind
+     * it. Writers are held off only while the log is rotated and the employee
+     * list is captured; the file itself is written outside the write lock.
+     *
+     * @return number of employees written
+     * @throws IllegalStateException if the service has no snapshot file
+     */
+    public int checkpoint() throws IOException {
+        if (snapshotFile == null) {
+            throw new IllegalStateException("No snapshot file configured");
+        }
+        checkpointLock.lock();
+        try {
+            List<Employee> employees;
+            long epoch;
+            writeLock.lock();
+            try {
+                employees = getSnapshot().employees();
+                epoch = log == null ? 0 : log.rotate();
+            } finally {
+                writeLock.unlock();
+            }
+            snapshotFile.write(epoch, employees);
+            if (log != null) {
+                log.dropBefore(epoch);
+            }
+            return employees.size();
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    /**
+     * Checks every {@code intervalMs} whether the log has grown to
+     * {@code minLogBytes} and takes a {@link #checkpoint()} if so.
+     */
+    public void scheduleCheckpoints(long intervalMs, long minLogBytes) {
+        if (intervalMs <= 0) {
+            throw new IllegalArgumentException("intervalMs must be positive");
+        }
+        if (log == null || snapshotFile == null) {
+            throw new IllegalStateException("Checkpoints need a write-ahead log and a snapshot file");
+        }
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+                task -> Thread.ofPlatform().name("employee-checkpoint").daemon().unstarted(task));
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                if (log.size() >= minLogBytes) {
+                    checkpoint();
+                }
+            } catch (IOException | RuntimeException e) {
+                // the log still holds everything; retried on the next tick
+            }
+        }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        checkpointer = scheduler;
+    }
+
+    /** True on a replication follower, which refuses writes with {@link NotLeaderException}. */
+    public boolean isReplica() {
+        return replica;
+    }
+
+    // Makes this service a follower's copy; called before it is used.
+    void becomeReplica() {
+        writeLock.lock();
+        try {
+            if (log != null || snapshotFile != null || replicationLog != null) {
+                throw new IllegalStateException("A follower keeps no log or snapshot of its own");
+            }
+            replica = true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Hands every mutation from now on to the given log, numbered in apply order;
+    // it is released to followers once awaitDurable has passed it.
+    void replicateTo(ReplicationLog replicationLog) {
+        writeLock.lock();
+        try {
+            if (replica || this.replicationLog != null) {
+                throw new IllegalStateException("Already replicating");
+            }
+            this.replicationLog = replicationLog;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * What a leader sends a follower that has to start over: the store as of one
+     * replication sequence, which may not be durable yet.
+     */
+    record ReplicaImage(long sequence, List<Employee> employees) {
+    }
+
+    ReplicaImage captureReplicaImage() {
+        writeLock.lock();
+        try {
+            if (replicationLog == null) {
+                throw new IllegalStateException("Not a replication leader");
+            }
+            return new ReplicaImage(replicationLog.appendedSequence(), getSnapshot().employees());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces a follower's whole state with a snapshot from the leader.
+     * Readers of the change feed get a RESET and refetch.
+     */
+    void resetReplica(List<Employee> employees) {
+        writeLock.lock();
+        try {
+            for (Map.Entry<String, Integer> entry : List.copyOf(rowsByEmail.entrySet())) {
+                deleteRow(entry.getKey(), entry.getValue());
+            }
+            // nothing refers to the old rows any more; numbering again from 0 keeps
+            // row-sized structures such as bitmaps at the size of the store
+            nextRow = 0;
+            for (Employee employee : employees) {
+                insertRow(emailKey(employee.getEmail()), employee);
+            }
+            version++;
+            changeFeed.publish(EmployeeChange.Type.RESET, null, null);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // one past the highest row handed out
+    int rowLimit() {
+        return nextRow;
+    }
+
+    /** Applies mutations streamed from the leader, in its order, and publishes them to the change feed. */
+    void applyReplicated(List<WriteAheadLog.Entry> entries) {
+        writeLock.lock();
+        try {
+            for (WriteAheadLog.Entry entry : entries) {
+                switch (entry) {
+                    case WriteAheadLog.Put put -> {
+                        String key = emailKey(put.employee().getEmail());
+                        Integer row = rowsByEmail.get(key);
+                        if (row == null) {
+                            publish(EmployeeChange.Type.ADDED, insertRow(key, put.employee()));
+                        } else {
+                            replaceRow(row, put.employee());
+                            publish(EmployeeChange.Type.UPDATED, row);
+                        }
+                    }
+                    case WriteAheadLog.Move move -> {
+                        String oldKey = emailKey(move.oldEmail());
+                        Integer row = rowsByEmail.get(oldKey);
+                        if (row != null) {
+                            publishDeleted(oldKey, row);
+                        }
+                        String key = emailKey(move.employee().getEmail());
+                        Integer existing = rowsByEmail.get(key);
+                        if (existing == null) {
+                            publish(EmployeeChange.Type.ADDED, insertRow(key, move.employee()));
+                        } else {
+                            replaceRow(existing, move.employee());
+                            publish(EmployeeChange.Type.UPDATED, existing);
+                        }
+                    }
+                    case WriteAheadLog.Delete delete -> {
+                        String key = emailKey(delete.email());
+                        Integer row = rowsByEmail.get(key);
+                        if (row != null) {
+                            publishDeleted(key, row);
+                        }
+                    }
+                    case WriteAheadLog.Rename rename -> {
+                        moveRows(rename.oldName(), movedToCompany(rename.oldName(), rename.newName()));
+                        changeFeed.publish(EmployeeChange.Type.RESET, null, null);
+                    }
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Forces and closes the write-ahead log; the service must not be written to afterwards. */
+    @PreDestroy
+    public void close() throws IOException {
+        ScheduledExecutorService scheduler = checkpointer;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            // a checkpoint in progress finishes before the log is closed
+            checkpointLock.lock();
+            checkpointLock.unlock();
+        }
+        if (log != null) {
+            writeLock.lock();
+            try {
+                log.close();
+            } finally {
+                writeLock.unlock();
+            }
+        }
     }
 
     public List<Employee> findByStatus(EmploymentStatus status) {
         Objects.requireNonNull(status, "status");
-        return stream()
-                .filter(e -> e.getStatus() == status)
-                .collect(Collectors.toList());
+        return statusIndex.find(status);
     }
 
     public Map<EmploymentStatus, Long> countByStatus() {
-        return stream().collect(Collectors.groupingBy(Employee::getStatus, Collectors.counting()));
+        return statusIndex.counts();
+    }
+
+    private void requireWritable() {
+        if (replica) {
+            throw new NotLeaderException();
+        }
+    }
+
+    private SalaryIndex salaryIndex(Position position) {
+        return position == null ? salaryIndex : positionSalaryIndex.of(position);
+    }
+
+    private static void requirePositive(int value, String name) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+    }
+
+    private static WriteAheadLog openLog(Path file, WriteAheadLog.Durability durability, long syncIntervalMs) {
+        try {
+            return WriteAheadLog.open(file, durability, syncIntervalMs);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open write-ahead log " + file, e);
+        }
+    }
+
+    // Rebuilds the state the snapshot and the log describe. Nothing is published:
+    // the change feed starts empty with the process and readers begin with a full fetch.
+    private void restore() {
+        writeLock.lock();
+        try {
+            long epoch = 0;
+            if (snapshotFile != null && snapshotFile.exists()) {
+                try {
+                    epoch = snapshotFile.load(employee -> insertRow(emailKey(employee.getEmail()), employee));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not load snapshot " + snapshotFile.file(), e);
+                }
+            }
+            if (log != null) {
+                try {
+                    log.replay(this::apply, epoch);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not replay write-ahead log " + log.file(), e);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void apply(WriteAheadLog.Entry entry) {
+        switch (entry) {
+            case WriteAheadLog.Put put -> {
+                String key = emailKey(put.employee().getEmail());
+                Integer row = rowsByEmail.get(key);
+                if (row == null) {
+                    insertRow(key, put.employee());
+                } else {
+                    replaceRow(row, put.employee());
+                }
+            }
+            case WriteAheadLog.Move move -> {
+                String oldKey = emailKey(move.oldEmail());
+                Integer row = rowsByEmail.get(oldKey);
+                if (row != null) {
+                    deleteRow(oldKey, row);
+                }
+                apply(new WriteAheadLog.Put(move.employee()));
+            }
+            case WriteAheadLog.Delete delete -> {
+                String key = emailKey(delete.email());
+                Integer row = rowsByEmail.get(key);
+                if (row != null) {
+                    deleteRow(key, row);
+                }
+            }
+            case WriteAheadLog.Rename rename ->
+                    moveRows(rename.oldName(), movedToCompany(rename.oldName(), rename.newName()));
+        }
+    }
+
+    private static String emailKey(String email) {
+        Objects.requireNonNull(email, "email");
+        return email.toLowerCase();
+    }
+
+    // The helpers below must be called with writeLock held.
+
+    private int requireRow(String email) {
+        Integer row = rowsByEmail.get(emailKey(email));
+        if (row == null) {
+            throw new EmployeeNotFoundException(email);
+        }
+        return row;
+    }
+
+    // The company's rows with a copy of each employee moved to newName; nothing
+    // is changed yet. Conflicts are judged by the companies that have employees
+    // here, so only a rename to another company's name, or to the very same
+    // spelling, is refused.
+    private Map<Integer, Employee> movedToCompany(String oldName, String newName) {
+        Objects.requireNonNull(oldName, "oldName");
+        Objects.requireNonNull(newName, "newName");
+        if (companyIndex.count(oldName) == 0) {
+            throw new IllegalArgumentException("Company not found: " + oldName);
+        }
+        // a name differing only in case is the same company
+        boolean recased = oldName.equalsIgnoreCase(newName);
+        if (recased ? companies.nameOf(companies.find(oldName).getAsInt()).equals(newName)
+                : companyIndex.count(newName) > 0) {
+            throw new IllegalArgumentException("Company already exists: " + newName);
+        }
+        Map<Integer, Employee> moved = new LinkedHashMap<>();
+        for (int row : companyIndex.rows(oldName)) {
+            Employee employee = new Employee(storage.indexed(row));
+            employee.setCompanyName(newName);
+            moved.put(row, employee);
+        }
+        return moved;
+    }
+
+    // the old entry stops matching first, so the moved rows start one under the new
+    // spelling even when it differs in case only
+    private void moveRows(String oldName, Map<Integer, Employee> moved) {
+        companies.retire(oldName);
+        moved.forEach(this::replaceRow);
+    }
+
+    // returns the log position to wait for once the lock is released, 0 without a log
+    private long log(WriteAheadLog.Entry entry) {
+        long position = log == null ? 0 : log.append(entry);
+        ReplicationLog shipped = replicationLog;
+        if (shipped != null) {
+            shipped.append(entry, position);
+        }
+        return position;
+    }
+
+    // followers are sent an entry only from here on, so they never see a change
+    // the leader could still lose; without a log it was released on append
+    private void awaitDurable(long position) {
+        if (position > 0) {
+            log.awaitDurable(position);
+            ReplicationLog shipped = replicationLog;
+            if (shipped != null) {
+                shipped.durable(position);
+            }
+        }
+    }
+
+    private int insertRow(String key, Employee employee) {
+        int row = nextRow++;
+        index(row, employee);
+        rowsByEmail.put(key, row);
+        return row;
     }
 
-    private Stream<Employee> stream() {
-        return employees.values().stream();
+    private void replaceRow(int row, Employee employee) {
+        unindex(row);
+        index(row, employee);
+    }
+
+    private void deleteRow(String key, int row) {
+        rowsByEmail.remove(key);
+        unindex(row);
+        storage.remove(row);
+    }
+
+    private void publishDeleted(String key, int row) {
+        Employee last = storage.indexed(row);
+        deleteRow(key, row);
+        changeFeed.publish(EmployeeChange.Type.DELETED, last.getEmail(), last);
+    }
+
+    // the indexed copy is never modified in place, so readers of the feed can share it
+    private void publish(EmployeeChange.Type type, int row) {
+        Employee current = storage.indexed(row);
+        changeFeed.publish(type, current.getEmail(), current);
+    }
+
+    // points the employee at the company entry it is stored under
+    private void index(int row, Employee employee) {
+        version++;
+        companies.acquire(employee);
+        storage.put(row, employee);
+        for (EmployeeIndex index : indexes) {
+            index.add(row, employee);
+        }
+    }
+
+    // unindexes the stored copy: callers may have mutated the instance they hold
+    private void unindex(int row) {
+        version++;
+        Employee indexed = storage.indexed(row);
+        for (EmployeeIndex index : indexes) {
+            index.remove(row, indexed);
+        }
+        companies.release(indexed.getCompanyId());
     }
 }
@@ -0,0 +1,36 @@
+package com.techcorp.service;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.techcorp.model.Employee;
+
+/**
+ * Immutable point-in-time view of all employees in insertion order. One instance
+ * is shared by every reader until the next write; EmployeeService replaces
+ * employees instead of changing them, so an old snapshot never sees later writes
+ * made through the service.
+ */
+public final class EmployeeSnapshot {
+
+    private final long version;
+    private final List<Employee> employees;
+
+    EmployeeSnapshot(long version, List<Employee> employees) {
+        this.version = version;
+        this.employees = Collections.unmodifiableList(employees);
+    }
+
+    /** Service version this snapshot was taken at; grows with every write. */
+    public long version() {
+        return version;
+    }
+
+    public List<Employee> employees() {
+        return employees;
+    }
+
+    public int size() {
+        return employees.size();
+    }
+}
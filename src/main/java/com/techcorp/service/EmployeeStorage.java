@@ -0,0 +1,55 @@
+package com.techcorp.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.techcorp.model.Employee;
+
+/**
+ * Row store behind {@link EmployeeService}. {@code put} and {@code remove} are
+ * called with the service write lock held; {@code get} and {@code all} may run
+ * concurrently with them and see each row either before or after a write.
+ * Indexes hold row ids only and resolve them here.
+ */
+interface EmployeeStorage {
+
+    /** The employee in {@code row}, or null if the row is not live. */
+    Employee get(int row);
+
+    /** The employee exactly as it was last passed to {@code put}; write lock held. */
+    Employee indexed(int row);
+
+    void put(int row, Employee employee);
+
+    void remove(int row);
+
+    /** All live employees in row (insertion) order. */
+    List<Employee> all();
+
+    /** Columnar copy of all live employees; write lock held. */
+    EmployeeColumns columns(long version);
+
+    /** Whether every read builds a new Employee, so holding on to results pins copies. */
+    default boolean materializesOnRead() {
+        return false;
+    }
+
+    /** Resolves rows in iteration order, skipping rows deleted meanwhile. */
+    default List<Employee> get(Iterable<Integer> rows, int limit) {
+        List<Employee> result = new ArrayList<>(Math.min(limit, 1024));
+        for (Integer row : rows) {
+            if (result.size() >= limit) {
+                break;
+            }
+            Employee employee = get(row);
+            if (employee != null) {
+                result.add(employee);
+            }
+        }
+        return result;
+    }
+
+    default List<Employee> get(Iterable<Integer> rows) {
+        return get(rows, Integer.MAX_VALUE);
+    }
+}
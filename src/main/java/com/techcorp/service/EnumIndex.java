@@ -0,0 +1,87 @@
+package com.techcorp.service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+import com.techcorp.model.Employee;
+
+/**
+ * Employees bucketed by an enum attribute (status, position). Buckets for every
+ * constant are created up front, so the EnumMap itself is never modified after
+ * construction and can be read without locking.
+ */
+class EnumIndex<E extends Enum<E>> implements EmployeeIndex {
+
+    private final EmployeeStorage storage;
+    private final Class<E> type;
+    private final Function<Employee, E> attribute;
+    private final Map<E, NavigableSet<Integer>> buckets;
+    private final AtomicLongArray counts;
+
+    EnumIndex(EmployeeStorage storage, Class<E> type, Function<Employee, E> attribute) {
+        this.storage = storage;
+        this.type = type;
+        this.attribute = attribute;
+        this.buckets = new EnumMap<>(type);
+        for (E constant : type.getEnumConstants()) {
+            buckets.put(constant, new ConcurrentSkipListSet<>());
+        }
+        this.counts = new AtomicLongArray(type.getEnumConstants().length);
+    }
+
+    @Override
+    public void add(int row, Employee employee) {
+        E value = attribute.apply(employee);
+        if (buckets.get(value).add(row)) {
+            counts.incrementAndGet(value.ordinal());
+        }
+    }
+
+    @Override
+    public void remove(int row, Employee employee) {
+        E value = attribute.apply(employee);
+        if (buckets.get(value).remove(row)) {
+            counts.decrementAndGet(value.ordinal());
+        }
+    }
+
+    /** Live view of the rows holding {@code value}, ascending. */
+    NavigableSet<Integer> rows(E value) {
+        return buckets.get(value);
+    }
+
+    long count(E value) {
+        return counts.get(value.ordinal());
+    }
+
+    List<Employee> find(E value) {
+        return storage.get(buckets.get(value));
+    }
+
+    /** Non-zero counts only, matching what groupingBy/counting used to return. */
+    Map<E, Long> counts() {
+        Map<E, Long> result = new EnumMap<>(type);
+        for (E constant : type.getEnumConstants()) {
+            long count = counts.get(constant.ordinal());
+            if (count > 0) {
+                result.put(constant, count);
+            }
+        }
+        return result;
+    }
+
+    Map<E, List<Employee>> group() {
+        Map<E, List<Employee>> result = new EnumMap<>(type);
+        buckets.forEach((constant, members) -> {
+            if (!members.isEmpty()) {
+                result.put(constant, storage.get(members));
+            }
+        });
+        return result;
+    }
+}
@@ -1,6 +1,7 @@
 package com.techcorp.service;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.MalformedURLException;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
@@ -8,20 +9,18 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import jakarta.annotation.PreDestroy;
+
 import com.techcorp.exception.FileMissingException;
 import com.techcorp.exception.FileStorageException;
 import com.techcorp.exception.InvalidFileException;
@@ -34,13 +33,28 @@ public class FileStorageService {
     private final Path uploadsDir;
     private final Path reportsDir;
 
-    // in-memory metadata: email -> list of documents
-    private final Map<String, List<EmployeeDocument>> documents = new ConcurrentHashMap<>();
+    // document metadata, indexed by id and by e-mail; survives restarts when backed by a file
+    private final DocumentMetadataStore documents;
+
+    public FileStorageService(String uploadsDir, String reportsDir) {
+        this(uploadsDir, reportsDir, DocumentMetadataStore.inMemory());
+    }
 
+    /**
+     * @param metadataFile append-only file holding document metadata; blank keeps it in memory only
+     */
+    @Autowired
     public FileStorageService(@Value("${app.upload.directory:uploads/}") String uploadsDir,
-                              @Value("${app.reports.directory:reports/}") String reportsDir) {
+                              @Value("${app.reports.directory:reports/}") String reportsDir,
+                              @Value("${app.documents.metadata-file:}") String metadataFile) {
+        this(uploadsDir, reportsDir,
+                metadataFile.isBlank() ? DocumentMetadataStore.inMemory() : openMetadata(Path.of(metadataFile)));
+    }
+
+    public FileStorageService(String uploadsDir, String reportsDir, DocumentMetadataStore documents) {
         this.uploadsDir = Paths.get(uploadsDir).toAbsolutePath().normalize();
         this.reportsDir = Paths.get(reportsDir).toAbsolutePath().normalize();
+        this.documents = documents;
 
         try {
             Files.createDirectories(this.uploadsDir);
@@ -92,13 +106,10 @@ public class FileStorageService {
     }
 
     public void deleteDocument(String email, String documentId) {
-        List<EmployeeDocument> list = documents.getOrDefault(email.toLowerCase(), Collections.emptyList());
-        EmployeeDocument found = list.stream().filter(d -> d.getId().equals(documentId)).findFirst().orElse(null);
-        if (found == null) {
-            throw new FileMissingException("Document not found: " + documentId);
-        }
+        EmployeeDocument found = getDocument(email, documentId);
+        // forgotten first: a crash in between leaves an unreferenced file, not a dangling record
+        documents.remove(found.getId());
         deleteFile(found.getFilePath());
-        list.remove(found);
     }
 
     public String storePhoto(MultipartFile file, String email) {
@@ -119,21 +130,33 @@ public class FileStorageService {
     public EmployeeDocument registerDocument(String email, String storedPath, String originalFilename, DocumentType type) {
         String id = UUID.randomUUID().toString();
         EmployeeDocument doc = new EmployeeDocument(id, email, Paths.get(storedPath).getFileName().toString(), originalFilename, type, LocalDateTime.now(), storedPath);
-        documents.computeIfAbsent(email.toLowerCase(), k -> Collections.synchronizedList(new ArrayList<>())).add(doc);
+        documents.add(doc);
         return doc;
     }
 
     public List<EmployeeDocument> listDocuments(String email) {
-        return documents.getOrDefault(email.toLowerCase(), Collections.emptyList()).stream().collect(Collectors.toList());
+        return documents.findByEmail(email);
     }
 
     public EmployeeDocument getDocument(String email, String documentId) {
-        return listDocuments(email).stream()
-                .filter(d -> d.getId().equals(documentId))
-                .findFirst()
+        return documents.find(documentId)
+                .filter(d -> d.getEmployeeEmail().equalsIgnoreCase(email))
                 .orElseThrow(() -> new FileMissingException("Document not found: " + documentId));
     }
 
+    @PreDestroy
+    public void close() throws IOException {
+        documents.close();
+    }
+
+    private static DocumentMetadataStore openMetadata(Path file) {
+        try {
+            return DocumentMetadataStore.open(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open document metadata " + file, e);
+        }
+    }
+
     private void validateFile(MultipartFile file, String subPath) {
         if (file == null || file.isEmpty()) {
             throw new InvalidFileException("File is empty");
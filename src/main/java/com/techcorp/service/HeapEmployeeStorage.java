@@ -0,0 +1,123 @@
+package com.techcorp.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import com.techcorp.model.Employee;
+import com.techcorp.model.EmploymentStatus;
+import com.techcorp.model.Position;
+
+/**
+ * Employees kept as ordinary objects; callers get the stored instance back.
+ */
+class HeapEmployeeStorage implements EmployeeStorage {
+
+    private static final int PAGE_SHIFT = 12;
+    private static final int ROWS_PER_PAGE = 1 << PAGE_SHIFT;
+
+    private static final Position[] POSITIONS = Position.values();
+    private static final EmploymentStatus[] STATUSES = EmploymentStatus.values();
+
+    private final ConcurrentNavigableMap<Integer, Employee> rows = new ConcurrentSkipListMap<>();
+
+    // Fields of each employee as it was last put (guarded by the service write lock).
+    // Callers may mutate the live instance, e.g. setSalary before updateEmployee,
+    // so indexes are always unindexed from these rather than the live object.
+    // Kept in column pages: a second Employee per row would double the heap.
+    private Page[] pages = new Page[16];
+
+    @Override
+    public Employee get(int row) {
+        return rows.get(row);
+    }
+
+    @Override
+    public Employee indexed(int row) {
+        int p = row >>> PAGE_SHIFT;
+        Page page = p < pages.length ? pages[p] : null;
+        return page == null ? null : page.employee(row & (ROWS_PER_PAGE - 1));
+    }
+
+    @Override
+    public void put(int row, Employee employee) {
+        rows.put(row, employee);
+        int p = row >>> PAGE_SHIFT;
+        if (p >= pages.length) {
+            pages = Arrays.copyOf(pages, Math.max(pages.length * 2, p + 1));
+        }
+        if (pages[p] == null) {
+            pages[p] = new Page();
+        }
+        pages[p].put(row & (ROWS_PER_PAGE - 1), employee);
+    }
+
+    @Override
+    public void remove(int row) {
+        rows.remove(row);
+        int p = row >>> PAGE_SHIFT;
+        Page page = p < pages.length ? pages[p] : null;
+        if (page != null && page.remove(row & (ROWS_PER_PAGE - 1))) {
+            pages[p] = null;
+        }
+    }
+
+    @Override
+    public List<Employee> all() {
+        return new ArrayList<>(rows.values());
+    }
+
+    @Override
+    public EmployeeColumns columns(long version) {
+        return EmployeeColumns.of(rows.values(), version);
+    }
+
+    // the fields indexes read, for ROWS_PER_PAGE consecutive rows; a null name marks a free slot
+    private static final class Page {
+        private final String[] fullNames = new String[ROWS_PER_PAGE];
+        private final String[] emails = new String[ROWS_PER_PAGE];
+        private final String[] photoFileNames = new String[ROWS_PER_PAGE];
+        private final String[] companyNames = new String[ROWS_PER_PAGE];
+        private final int[] companyIds = new int[ROWS_PER_PAGE];
+        private final double[] salaries = new double[ROWS_PER_PAGE];
+        private final byte[] positions = new byte[ROWS_PER_PAGE];
+        private final byte[] statuses = new byte[ROWS_PER_PAGE];
+        private int live;
+
+        Employee employee(int i) {
+            if (fullNames[i] == null) {
+                return null;
+            }
+            return new Employee(fullNames[i], emails[i], companyNames[i], companyIds[i], POSITIONS[positions[i]],
+                    salaries[i], STATUSES[statuses[i]], photoFileNames[i]);
+        }
+
+        void put(int i, Employee employee) {
+            if (fullNames[i] == null) {
+                live++;
+            }
+            fullNames[i] = employee.getFullName();
+            emails[i] = employee.getEmail();
+            photoFileNames[i] = employee.getPhotoFileName();
+            companyNames[i] = employee.getCompanyName();
+            companyIds[i] = employee.getCompanyId();
+            salaries[i] = employee.getSalary();
+            positions[i] = (byte) employee.getPosition().ordinal();
+            statuses[i] = (byte) employee.getStatus().ordinal();
+        }
+
+        // true once the page holds no row
+        boolean remove(int i) {
+            if (fullNames[i] == null) {
+                return false;
+            }
+            fullNames[i] = null;
+            emails[i] = null;
+            photoFileNames[i] = null;
+            companyNames[i] = null;
+            return --live == 0;
+        }
+    }
+}
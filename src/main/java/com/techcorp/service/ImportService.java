@@ -1,5 +1,7 @@
 package com.techcorp.service;
 
+import com.techcorp.model.BatchMode;
+import com.techcorp.model.BatchResult;
 import com.techcorp.model.Employee;
 import com.techcorp.model.ImportSummary;
 import com.techcorp.model.Position;
@@ -12,6 +14,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 @Service
 public class ImportService {
@@ -21,9 +25,24 @@ public class ImportService {
         this.employeeService = employeeService;
     }
     
+    /**
+     * Employees parsed from a file, not yet added. {@code numbers} holds the
+     * line or element number of each employee, {@code errors} the problems
+     * found while parsing, keyed by the same numbers.
+     */
+    public record ParsedFile(List<Employee> employees, List<Integer> numbers, String label,
+                             Map<Integer, String> errors) {
+    }
+
     public ImportSummary importFromCsv(String filepath) {
-        List<String> errors = new ArrayList<>();
-        int importedCount = 0;
+        return importParsed(parseCsv(filepath));
+    }
+
+    /** Parses the CSV file without touching the store, so it can run before the employees are added. */
+    public ParsedFile parseCsv(String filepath) {
+        Map<Integer, String> errors = new TreeMap<>();
+        List<Employee> parsed = new ArrayList<>();
+        List<Integer> parsedLines = new ArrayList<>();
         int lineNumber = 0;
         
     try (BufferedReader reader = Files.newBufferedReader(Path.of(filepath), StandardCharsets.UTF_8)) {
@@ -40,23 +59,42 @@ public class ImportService {
                 }
                 
                 try {
-                    Employee employee = parseCsvLine(line, lineNumber);
-                    employeeService.addEmployee(employee);
-                    importedCount++;
+                    parsed.add(parseCsvLine(line, lineNumber));
+                    parsedLines.add(lineNumber);
                 } catch (Exception e) {
-                    errors.add("Linia " + lineNumber + ": " + e.getMessage());
+                    errors.put(lineNumber, "Linia " + lineNumber + ": " + e.getMessage());
                 }
             }
         } catch (IOException e) {
-            errors.add("Błąd odczytu pliku: " + e.getMessage());
+            errors.put(Integer.MAX_VALUE, "Błąd odczytu pliku: " + e.getMessage());
         }
         
-        return new ImportSummary(importedCount, errors);
+        return new ParsedFile(parsed, parsedLines, "Linia ", errors);
+    }
+
+    /** Adds the employees of a parsed file; duplicates are reported with the parse errors. */
+    public ImportSummary importParsed(ParsedFile file) {
+        Map<Integer, String> errors = new TreeMap<>(file.errors());
+        int importedCount = addAll(file.employees(), file.numbers(), file.label(), errors);
+        return new ImportSummary(importedCount, new ArrayList<>(errors.values()));
+    }
+
+    /**
+     * Adds employees from another source, skipping duplicates; each skipped one
+     * is reported as {@code label} followed by its 1-based position.
+     */
+    public ImportSummary importAll(List<Employee> employees, String label) {
+        List<Integer> numbers = new ArrayList<>(employees.size());
+        for (int i = 1; i <= employees.size(); i++) {
+            numbers.add(i);
+        }
+        return importParsed(new ParsedFile(employees, numbers, label, Map.of()));
     }
 
     public ImportSummary importFromXml(String filepath) {
-        List<String> errors = new ArrayList<>();
-        int importedCount = 0;
+        Map<Integer, String> errors = new TreeMap<>();
+        List<Employee> parsed = new ArrayList<>();
+        List<Integer> parsedElements = new ArrayList<>();
         try {
             java.nio.file.Path path = Path.of(filepath);
             javax.xml.parsers.DocumentBuilderFactory dbFactory = javax.xml.parsers.DocumentBuilderFactory.newInstance();
@@ -94,18 +132,30 @@ public class ImportService {
                         }
 
                         String fullName = firstName + " " + lastName;
-                        Employee employee = new Employee(fullName, email, company, position, salary);
-                        employeeService.addEmployee(employee);
-                        importedCount++;
+                        parsed.add(new Employee(fullName, email, company, position, salary));
+                        parsedElements.add(nodeLine);
                     } catch (Exception ex) {
-                        errors.add("Element " + nodeLine + ": " + ex.getMessage());
+                        errors.put(nodeLine, "Element " + nodeLine + ": " + ex.getMessage());
                     }
                 }
             }
         } catch (Exception e) {
-            errors.add("Błąd odczytu pliku XML: " + e.getMessage());
+            errors.put(Integer.MAX_VALUE, "Błąd odczytu pliku XML: " + e.getMessage());
+        }
+        int importedCount = addAll(parsed, parsedElements, "Element ", errors);
+        return new ImportSummary(importedCount, new ArrayList<>(errors.values()));
+    }
+
+    // one batch insert for the whole file; duplicates are reported under their line/element number
+    private int addAll(List<Employee> parsed, List<Integer> numbers, String label, Map<Integer, String> errors) {
+        BatchResult result = employeeService.addAll(parsed, BatchMode.SKIP_DUPLICATES);
+        for (BatchResult.Item item : result.getItems()) {
+            if (item.status() == BatchResult.Status.SKIPPED) {
+                int number = numbers.get(item.index());
+                errors.put(number, label + number + ": " + item.message());
+            }
         }
-        return new ImportSummary(importedCount, errors);
+        return result.count(BatchResult.Status.ADDED);
     }
 
     private String getTagValue(org.w3c.dom.Element elem, String tag) {
@@ -0,0 +1,141 @@
+package com.techcorp.service;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Set of non-negative ints (rows or term ids) iterated in ascending order. Kept as
+ * a sorted array while sparse and switched to a BitSet once the bitmap is no
+ * larger than the array, so a value held by most rows costs one bit per row and
+ * updating it is not an array shift. Not thread-safe.
+ */
+final class IntPostings {
+
+    private static final int[] EMPTY = new int[0];
+    private static final int DENSE_MIN = 1024;
+
+    private int[] values = EMPTY;
+    private BitSet dense;
+    private int size;
+
+    /** Returns false when the value was already present. */
+    boolean add(int value) {
+        if (dense != null) {
+            if (dense.get(value)) {
+                return false;
+            }
+            dense.set(value);
+            size++;
+            return true;
+        }
+        int at;
+        if (size == 0 || values[size - 1] < value) {
+            at = size;
+        } else {
+            at = Arrays.binarySearch(values, 0, size, value);
+            if (at >= 0) {
+                return false;
+            }
+            at = -at - 1;
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size + Math.max(1, size >> 1));
+        }
+        System.arraycopy(values, at, values, at + 1, size - at);
+        values[at] = value;
+        size++;
+        if (size >= DENSE_MIN && (long) size * Integer.SIZE >= values[size - 1]) {
+            dense = new BitSet(values[size - 1] + 1);
+            for (int i = 0; i < size; i++) {
+                dense.set(values[i]);
+            }
+            values = EMPTY;
+        }
+        return true;
+    }
+
+    /** Returns false when the value was not present. */
+    boolean remove(int value) {
+        if (dense != null) {
+            if (!dense.get(value)) {
+                return false;
+            }
+            dense.clear(value);
+            if (--size < DENSE_MIN / 2) {
+                values = dense.stream().toArray();
+                dense = null;
+            }
+            return true;
+        }
+        int at = Arrays.binarySearch(values, 0, size, value);
+        if (at < 0) {
+            return false;
+        }
+        System.arraycopy(values, at + 1, values, at, size - at - 1);
+        if (--size == 0) {
+            values = EMPTY;
+        } else if (size < values.length / 4) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        return true;
+    }
+
+    boolean contains(int value) {
+        if (dense != null) {
+            return dense.get(value);
+        }
+        return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Sets every value in {@code target}. */
+    void orInto(BitSet target) {
+        if (dense != null) {
+            target.or(dense);
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            target.set(values[i]);
+        }
+    }
+
+    PrimitiveIterator.OfInt iterator() {
+        return iterator(0);
+    }
+
+    /** The values from {@code from} on, ascending. */
+    PrimitiveIterator.OfInt iterator(int from) {
+        if (dense != null) {
+            BitSet bits = dense;
+            return new PrimitiveIterator.OfInt() {
+                private int next = bits.nextSetBit(Math.max(from, 0));
+
+                @Override
+                public boolean hasNext() {
+                    return next >= 0;
+                }
+
+                @Override
+                public int nextInt() {
+                    if (next < 0) {
+                        throw new NoSuchElementException();
+                    }
+                    int current = next;
+                    next = current == Integer.MAX_VALUE ? -1 : bits.nextSetBit(current + 1);
+                    return current;
+                }
+            };
+        }
+        int at = Arrays.binarySearch(values, 0, size, from);
+        return Arrays.stream(values, at >= 0 ? at : -at - 1, size).iterator();
+    }
+}
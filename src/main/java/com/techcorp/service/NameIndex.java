@@ -0,0 +1,109 @@
+package com.techcorp.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import com.techcorp.model.Employee;
+
+/**
+ * Rows ordered by last name, then full name, then e-mail (all case-insensitive),
+ * so listing in that order is a walk over the skip list rather than a sort.
+ * E-mails are unique, so every position in the order can be named by a cursor
+ * that does not depend on row numbers and survives a restart.
+ */
+class NameIndex implements EmployeeIndex {
+
+    private static final Comparator<NameKey> ORDER = Comparator
+            .comparing(NameKey::lastName)
+            .thenComparing(NameKey::fullName)
+            .thenComparing(NameKey::email);
+
+    private static final char SEPARATOR = '\0';
+
+    private final EmployeeStorage storage;
+    private final NavigableSet<NameKey> byName = new ConcurrentSkipListSet<>(ORDER);
+
+    NameIndex(EmployeeStorage storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public void add(int row, Employee employee) {
+        byName.add(key(row, employee));
+    }
+
+    @Override
+    public void remove(int row, Employee employee) {
+        byName.remove(key(row, employee));
+    }
+
+    List<Employee> all() {
+        return storage.get(rows(byName));
+    }
+
+    /** Up to {@code limit} employees whose last name sorts at or after {@code fromLastName}. */
+    NamePage from(String fromLastName, int limit) {
+        NameKey start = new NameKey(fromLastName.toLowerCase(), "", "", -1);
+        return page(byName.tailSet(start, true), limit);
+    }
+
+    /** Up to {@code limit} employees sorting strictly after the position {@code cursor} names. */
+    NamePage after(String cursor, int limit) {
+        return page(byName.tailSet(decode(cursor), false), limit);
+    }
+
+    // one extra row tells whether another page follows
+    private NamePage page(NavigableSet<NameKey> keys, int limit) {
+        List<Employee> employees = storage.get(rows(keys), (int) Math.min(limit + 1L, Integer.MAX_VALUE));
+        if (employees.size() <= limit) {
+            return new NamePage(employees, null);
+        }
+        employees = employees.subList(0, limit);
+        return new NamePage(employees, encode(employees.get(limit - 1)));
+    }
+
+    private static String encode(Employee last) {
+        String key = last.getLastNameSortKey() + SEPARATOR + last.getFullNameSortKey()
+                + SEPARATOR + last.getEmail().toLowerCase();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static NameKey decode(String cursor) {
+        String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                .split(String.valueOf(SEPARATOR), -1);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return new NameKey(parts[0], parts[1], parts[2], -1);
+    }
+
+    private static Iterable<Integer> rows(Iterable<NameKey> keys) {
+        return () -> new Iterator<>() {
+            private final Iterator<NameKey> delegate = keys.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return delegate.hasNext();
+            }
+
+            @Override
+            public Integer next() {
+                return delegate.next().row();
+            }
+        };
+    }
+
+    private static NameKey key(int row, Employee employee) {
+        return new NameKey(employee.getLastNameSortKey(), employee.getFullNameSortKey(),
+                employee.getEmail().toLowerCase(), row);
+    }
+
+    /** The row only locates the employee; it takes no part in the order. */
+    private record NameKey(String lastName, String fullName, String email, int row) {
+    }
+}
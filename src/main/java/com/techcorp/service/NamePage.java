@@ -0,0 +1,12 @@
+package com.techcorp.service;
+
+import java.util.List;
+
+import com.techcorp.model.Employee;
+
+/**
+ * One page of employees in last-name order; {@code nextCursor} resumes right
+ * after the last of them, or is {@code null} when nothing follows.
+ */
+public record NamePage(List<Employee> employees, String nextCursor) {
+}
@@ -0,0 +1,324 @@
+package com.techcorp.service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+import com.techcorp.model.Employee;
+import com.techcorp.model.EmploymentStatus;
+import com.techcorp.model.Position;
+
+/**
+ * Employees kept outside the Java heap: one fixed-width record per row in pages
+ * of direct memory, with names, e-mails and photo file names stored UTF-8 in an
+ * append-only string arena. Every {@code get} materializes a fresh Employee, so
+ * the heap only holds the objects callers are currently using.
+ * <p>
+ * Writers (already serialized by the service write lock) take the StampedLock
+ * write lock around each buffer update; readers decode under an optimistic stamp
+ * and retry under the read lock when a write overlapped. Direct memory is bounded
+ * by {@code -XX:MaxDirectMemorySize}, which defaults to the heap limit.
+ */
+final class OffHeapEmployeeStorage implements EmployeeStorage {
+
+    private static final int PAGE_SHIFT = 16;
+    private static final int RECORDS_PER_PAGE = 1 << PAGE_SHIFT;
+
+    // record layout: live flag, enum ordinals, company id, salary, string refs
+    private static final int LIVE = 0;
+    private static final int POSITION = 1;
+    private static final int STATUS = 2;
+    private static final int COMPANY = 4;
+    private static final int SALARY = 8;
+    private static final int FULL_NAME = 16;
+    private static final int EMAIL = 24;
+    private static final int PHOTO = 32;
+    private static final int RECORD_BYTES = 40;
+
+    private static final long NO_STRING = -1L;
+    // the arena is compacted once at least this much of it, and half of it, is dead
+    private static final long COMPACT_THRESHOLD = 64L << 20;
+
+    private static final Position[] POSITIONS = Position.values();
+    private static final EmploymentStatus[] STATUSES = EmploymentStatus.values();
+
+    private final CompanyDictionary companies;
+    private final StampedLock lock = new StampedLock();
+    private ByteBuffer[] pages = new ByteBuffer[16];
+    private int[] livePerPage = new int[16];
+    private StringArena strings = new StringArena();
+    private int size;
+    // one past the highest row ever written; rows beyond it are never live
+    private volatile int rowLimit;
+
+    // records hold company ids; names are resolved through the owning service's dictionary
+    OffHeapEmployeeStorage(CompanyDictionary companies) {
+        this.companies = companies;
+    }
+
+    @Override
+    public Employee get(int row) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Employee employee = read(row);
+                if (lock.validate(stamp)) {
+                    return employee;
+                }
+            } catch (RuntimeException overlapped) {
+                // decoded a record while it was being written; retried below
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return read(row);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Employee indexed(int row) {
+        // writers are serialized, so the record is exactly what was last put
+        return read(row);
+    }
+
+    @Override
+    public void put(int row, Employee employee) {
+        long stamp = lock.writeLock();
+        try {
+            ByteBuffer page = pageForWrite(row);
+            int at = offset(row);
+            if (page.get(at + LIVE) == 0) {
+                page.putLong(at + FULL_NAME, strings.write(employee.getFullName()));
+                page.putLong(at + EMAIL, strings.write(employee.getEmail()));
+                page.putLong(at + PHOTO, NO_STRING);
+                livePerPage[row >>> PAGE_SHIFT]++;
+                size++;
+            } else {
+                page.putLong(at + FULL_NAME, strings.replace(page.getLong(at + FULL_NAME), employee.getFullName()));
+                page.putLong(at + EMAIL, strings.replace(page.getLong(at + EMAIL), employee.getEmail()));
+            }
+            page.putLong(at + PHOTO, strings.replace(page.getLong(at + PHOTO), employee.getPhotoFileName()));
+            page.put(at + POSITION, (byte) employee.getPosition().ordinal());
+            page.put(at + STATUS, (byte) employee.getStatus().ordinal());
+            page.putInt(at + COMPANY, employee.getCompanyId());
+            page.putDouble(at + SALARY, employee.getSalary());
+            page.put(at + LIVE, (byte) 1);
+            compactStringsIfWasteful();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void remove(int row) {
+        long stamp = lock.writeLock();
+        try {
+            int p = row >>> PAGE_SHIFT;
+            ByteBuffer page = p < pages.length ? pages[p] : null;
+            int at = offset(row);
+            if (page == null || page.get(at + LIVE) == 0) {
+                return;
+            }
+            page.put(at + LIVE, (byte) 0);
+            strings.release(page.getLong(at + FULL_NAME));
+            strings.release(page.getLong(at + EMAIL));
+            strings.release(page.getLong(at + PHOTO));
+            size--;
+            if (--livePerPage[p] == 0 && p < tailPage()) {
+                pages[p] = null;
+            }
+            compactStringsIfWasteful();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public List<Employee> all() {
+        List<Employee> result = new ArrayList<>();
+        int limit = rowLimit;
+        for (int row = 0; row < limit; row++) {
+            Employee employee = get(row);
+            if (employee != null) {
+                result.add(employee);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public EmployeeColumns columns(long version) {
+        double[] salaries = new double[size];
+        byte[] positions = new byte[size];
+        byte[] statuses = new byte[size];
+        int[] companyIds = new int[size];
+        int i = 0;
+        for (ByteBuffer page : pages) {
+            if (page == null) {
+                continue;
+            }
+            for (int at = 0; at < page.capacity(); at += RECORD_BYTES) {
+                if (page.get(at + LIVE) != 0) {
+                    salaries[i] = page.getDouble(at + SALARY);
+                    positions[i] = page.get(at + POSITION);
+                    statuses[i] = page.get(at + STATUS);
+                    companyIds[i] = page.getInt(at + COMPANY);
+                    i++;
+                }
+            }
+        }
+        return EmployeeColumns.of(i, salaries, positions, statuses, companyIds, companies::nameOf, version);
+    }
+
+    @Override
+    public boolean materializesOnRead() {
+        return true;
+    }
+
+    private Employee read(int row) {
+        ByteBuffer[] current = pages;
+        int p = row >>> PAGE_SHIFT;
+        ByteBuffer page = p < current.length ? current[p] : null;
+        int at = offset(row);
+        if (page == null || page.get(at + LIVE) == 0) {
+            return null;
+        }
+        StringArena arena = strings;
+        long photo = page.getLong(at + PHOTO);
+        int companyId = page.getInt(at + COMPANY);
+        return new Employee(
+                arena.read(page.getLong(at + FULL_NAME)),
+                arena.read(page.getLong(at + EMAIL)),
+                companies.nameOf(companyId),
+                companyId,
+                POSITIONS[page.get(at + POSITION)],
+                page.getDouble(at + SALARY),
+                STATUSES[page.get(at + STATUS)],
+                photo == NO_STRING ? null : arena.read(photo));
+    }
+
+    private ByteBuffer pageForWrite(int row) {
+        int p = row >>> PAGE_SHIFT;
+        if (p >= pages.length) {
+            int length = Math.max(pages.length * 2, p + 1);
+            pages = Arrays.copyOf(pages, length);
+            livePerPage = Arrays.copyOf(livePerPage, length);
+        }
+        if (pages[p] == null) {
+            pages[p] = ByteBuffer.allocateDirect(RECORDS_PER_PAGE * RECORD_BYTES).order(ByteOrder.nativeOrder());
+            // the old tail page was kept while new rows could still land in it
+            int previousTail = tailPage();
+            if (previousTail >= 0 && previousTail < p && livePerPage[previousTail] == 0) {
+                pages[previousTail] = null;
+            }
+        }
+        rowLimit = Math.max(rowLimit, row + 1);
+        return pages[p];
+    }
+
+    private int tailPage() {
+        return (rowLimit - 1) >> PAGE_SHIFT;
+    }
+
+    private static int offset(int row) {
+        return (row & (RECORDS_PER_PAGE - 1)) * RECORD_BYTES;
+    }
+
+    private void compactStringsIfWasteful() {
+        if (strings.garbage < COMPACT_THRESHOLD || strings.garbage * 2 < strings.used) {
+            return;
+        }
+        StringArena compacted = new StringArena();
+        for (ByteBuffer page : pages) {
+            if (page == null) {
+                continue;
+            }
+            for (int at = 0; at < page.capacity(); at += RECORD_BYTES) {
+                if (page.get(at + LIVE) != 0) {
+                    page.putLong(at + FULL_NAME, compacted.copy(strings, page.getLong(at + FULL_NAME)));
+                    page.putLong(at + EMAIL, compacted.copy(strings, page.getLong(at + EMAIL)));
+                    page.putLong(at + PHOTO, compacted.copy(strings, page.getLong(at + PHOTO)));
+                }
+            }
+        }
+        strings = compacted;
+    }
+
+    /**
+     * Length-prefixed UTF-8 strings in direct pages. A reference is the page
+     * index in the high 32 bits and the byte offset in the low 32 bits.
+     */
+    private static final class StringArena {
+        private static final int PAGE_BYTES = 1 << 20;
+
+        private ByteBuffer[] pages = new ByteBuffer[16];
+        private int pageCount;
+        private int tailUsed;
+        private long used;
+        private long garbage;
+
+        long write(String value) {
+            return value == null ? NO_STRING : write(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /** Keeps {@code ref} when it already holds {@code value}. */
+        long replace(long ref, String value) {
+            if (ref != NO_STRING && value != null && read(ref).equals(value)) {
+                return ref;
+            }
+            release(ref);
+            return write(value);
+        }
+
+        long copy(StringArena from, long ref) {
+            return ref == NO_STRING ? NO_STRING : write(from.bytes(ref));
+        }
+
+        String read(long ref) {
+            return new String(bytes(ref), StandardCharsets.UTF_8);
+        }
+
+        void release(long ref) {
+            if (ref != NO_STRING) {
+                garbage += Integer.BYTES + pages[(int) (ref >>> 32)].getInt((int) ref);
+            }
+        }
+
+        private long write(byte[] bytes) {
+            int needed = Integer.BYTES + bytes.length;
+            if (pageCount == 0 || pages[pageCount - 1].capacity() - tailUsed < needed) {
+                if (pageCount == pages.length) {
+                    pages = Arrays.copyOf(pages, pageCount * 2);
+                }
+                pages[pageCount++] = ByteBuffer.allocateDirect(Math.max(PAGE_BYTES, needed));
+                tailUsed = 0;
+            }
+            ByteBuffer page = pages[pageCount - 1];
+            int at = tailUsed;
+            page.putInt(at, bytes.length);
+            page.put(at + Integer.BYTES, bytes);
+            tailUsed += needed;
+            used += needed;
+            return ((long) (pageCount - 1) << 32) | at;
+        }
+
+        private byte[] bytes(long ref) {
+            ByteBuffer page = pages[(int) (ref >>> 32)];
+            int at = (int) ref;
+            int length = page.getInt(at);
+            if (length < 0 || length > page.capacity() - at - Integer.BYTES) {
+                // only possible for a reference read while it was being rewritten
+                throw new IndexOutOfBoundsException("Invalid string reference " + ref);
+            }
+            byte[] bytes = new byte[length];
+            page.get(at + Integer.BYTES, bytes);
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.techcorp.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.techcorp.model.Employee;
+import com.techcorp.model.Position;
+
+/**
+ * One {@link SalaryIndex} per position, for salary queries scoped to a position.
+ */
+class PositionSalaryIndex implements EmployeeIndex {
+
+    private final Map<Position, SalaryIndex> byPosition = new EnumMap<>(Position.class);
+
+    PositionSalaryIndex(EmployeeStorage storage) {
+        for (Position position : Position.values()) {
+            byPosition.put(position, new SalaryIndex(storage));
+        }
+    }
+
+    @Override
+    public void add(int row, Employee employee) {
+        byPosition.get(employee.getPosition()).add(row, employee);
+    }
+
+    @Override
+    public void remove(int row, Employee employee) {
+        byPosition.get(employee.getPosition()).remove(row, employee);
+    }
+
+    SalaryIndex of(Position position) {
+        return byPosition.get(position);
+    }
+}
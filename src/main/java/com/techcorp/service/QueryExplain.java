@@ -0,0 +1,11 @@
+package com.techcorp.service;
+
+/**
+ * How a filter was answered. {@code accessPath} is {@code SCAN},
+ * {@code INDEX(<selector>)} or {@code BITMAP(<selectors>)}; {@code examinedRows}
+ * counts the employees the predicate was evaluated on, and {@code cachedPlan}
+ * tells whether the compiled filter came from the plan cache.
+ */
+public record QueryExplain(String filter, String accessPath, long estimatedRows, int examinedRows,
+                           int matchedRows, boolean cachedPlan, long elapsedMicros) {
+}
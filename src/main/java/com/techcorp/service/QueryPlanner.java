@@ -0,0 +1,234 @@
+package com.techcorp.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+import com.techcorp.model.Employee;
+import com.techcorp.model.EmployeeFilter;
+import com.techcorp.model.EmploymentStatus;
+import com.techcorp.model.Position;
+import com.techcorp.service.EmployeeQuery.Comparison;
+import com.techcorp.service.EmployeeQuery.Operator;
+
+/**
+ * Runs {@link EmployeeQuery} filters. Only comparisons every match must satisfy
+ * (top-level AND) can narrow the search: company, position and status
+ * equality or {@code =in=}, and salary bounds. Each gives a candidate index
+ * whose size is estimated from counts the indexes already maintain; the planner
+ * then picks the cheapest of
+ * <ul>
+ * <li>INDEX: the single most selective index, costing one predicate test per row,</li>
+ * <li>BITMAP: intersecting all of them in {@link BitmapIndex}, costing a word per
+ * 64 rows per criterion plus the estimated result,</li>
+ * <li>SCAN: testing every employee.</li>
+ * </ul>
+ * The full predicate is applied to the candidates in every case, so a plan only
+ * affects speed. Compiled filters are cached by their text (LRU); the access
+ * path is chosen again on every run since the estimates move with the data.
+ */
+final class QueryPlanner {
+
+    static final int CACHE_SIZE = 256;
+    // cost of AND-ing one 64-row word relative to testing one employee
+    private static final double WORD_COST = 0.05;
+
+    private final EmployeeStorage storage;
+    private final CompanyIndex companyIndex;
+    private final EnumIndex<Position> positionIndex;
+    private final EnumIndex<EmploymentStatus> statusIndex;
+    private final SalaryIndex salaryIndex;
+    private final BitmapIndex bitmapIndex;
+    private final Supplier<List<Employee>> allEmployees;
+    private final IntSupplier size;
+    private final Map<String, EmployeeQuery> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, EmployeeQuery> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    QueryPlanner(EmployeeStorage storage, CompanyIndex companyIndex, EnumIndex<Position> positionIndex,
+                 EnumIndex<EmploymentStatus> statusIndex, SalaryIndex salaryIndex, BitmapIndex bitmapIndex,
+                 Supplier<List<Employee>> allEmployees, IntSupplier size) {
+        this.storage = storage;
+        this.companyIndex = companyIndex;
+        this.positionIndex = positionIndex;
+        this.statusIndex = statusIndex;
+        this.salaryIndex = salaryIndex;
+        this.bitmapIndex = bitmapIndex;
+        this.allEmployees = allEmployees;
+        this.size = size;
+    }
+
+    QueryResult execute(String filter) {
+        long start = System.nanoTime();
+        EmployeeQuery query;
+        synchronized (cache) {
+            query = cache.get(filter);
+        }
+        boolean cached = query != null;
+        if (!cached) {
+            query = EmployeeQuery.parse(filter);
+            synchronized (cache) {
+                cache.put(filter, query);
+            }
+        }
+        Plan plan = plan(query);
+        List<Employee> matches = new ArrayList<>();
+        int examined = 0;
+        for (Employee employee : plan.candidates().get()) {
+            if (employee != null) {
+                examined++;
+                if (query.test(employee)) {
+                    matches.add(employee);
+                }
+            }
+        }
+        long elapsed = (System.nanoTime() - start) / 1_000;
+        return new QueryResult(matches, new QueryExplain(
+                filter, plan.accessPath(), plan.estimate(), examined, matches.size(), cached, elapsed));
+    }
+
+    private Plan plan(EmployeeQuery query) {
+        Criteria criteria = new Criteria();
+        for (Comparison comparison : query.conjuncts()) {
+            criteria.add(comparison);
+        }
+        int total = size.getAsInt();
+        Plan best = new Plan(null, "SCAN", total, total, allEmployees::get);
+        List<Plan> indexed = new ArrayList<>();
+        if (criteria.companies != null) {
+            long estimate = criteria.companies.stream().mapToLong(companyIndex::count).sum();
+            indexed.add(index("company", estimate,
+                    () -> criteria.companies.stream().map(companyIndex::rows).toList()));
+        }
+        if (criteria.positions != null) {
+            long estimate = criteria.positions.stream().mapToLong(positionIndex::count).sum();
+            indexed.add(index("position", estimate,
+                    () -> criteria.positions.stream().map(positionIndex::rows).toList()));
+        }
+        if (criteria.statuses != null) {
+            long estimate = criteria.statuses.stream().mapToLong(statusIndex::count).sum();
+            indexed.add(index("status", estimate,
+                    () -> criteria.statuses.stream().map(statusIndex::rows).toList()));
+        }
+        if (criteria.salary) {
+            long estimate = criteria.low > criteria.high
+                    ? 0
+                    : salaryIndex.distribution().estimateCount(criteria.low, criteria.high);
+            indexed.add(index("salary", estimate, () -> criteria.low > criteria.high
+                    ? List.of()
+                    : List.of(salaryIndex.rows(criteria.low, criteria.high))));
+        }
+        for (Plan plan : indexed) {
+            if (plan.cost() < best.cost()) {
+                best = plan;
+            }
+        }
+        if (indexed.size() > 1 && total > 0 && !(criteria.salary && criteria.low > criteria.high)) {
+            double fraction = 1.0;
+            StringJoiner names = new StringJoiner(",", "BITMAP(", ")");
+            for (Plan plan : indexed) {
+                fraction *= Math.min(1.0, (double) plan.estimate() / total);
+                names.add(plan.selector());
+            }
+            long estimate = Math.round(fraction * total);
+            double cost = indexed.size() * (total / 64.0) * WORD_COST + estimate;
+            if (cost < best.cost()) {
+                EmployeeFilter filter = criteria.toFilter();
+                best = new Plan(null, names.toString(), estimate, cost, () -> bitmapIndex.find(filter));
+            }
+        }
+        return best;
+    }
+
+    private Plan index(String selector, long estimate, Supplier<List<? extends Collection<Integer>>> sources) {
+        return new Plan(selector, "INDEX(" + selector + ")", estimate, estimate, () -> {
+            // sorted back into row (insertion) order whatever order the index keeps
+            int[] rows = sources.get().stream()
+                    .flatMap(Collection::stream)
+                    .mapToInt(Integer::intValue)
+                    .sorted()
+                    .distinct()
+                    .toArray();
+            return () -> Arrays.stream(rows).mapToObj(storage::get).iterator();
+        });
+    }
+
+    private record Plan(String selector, String accessPath, long estimate, double cost,
+                        Supplier<Iterable<Employee>> candidates) {
+    }
+
+    /** Indexable conjuncts; the first comparison of each selector wins, salary bounds combine. */
+    private static final class Criteria {
+        private Set<String> companies;
+        private Set<Position> positions;
+        private Set<EmploymentStatus> statuses;
+        private boolean salary;
+        private double low = Double.NEGATIVE_INFINITY;
+        private double high = Double.POSITIVE_INFINITY;
+
+        void add(Comparison comparison) {
+            Operator operator = comparison.operator();
+            boolean equality = operator == Operator.EQ || operator == Operator.IN;
+            switch (comparison.selector()) {
+                case COMPANY -> {
+                    if (companies == null && equality && !comparison.wildcard()) {
+                        companies = values(comparison, String.class);
+                    }
+                }
+                case POSITION -> {
+                    if (positions == null && equality) {
+                        positions = values(comparison, Position.class);
+                    }
+                }
+                case STATUS -> {
+                    if (statuses == null && equality) {
+                        statuses = values(comparison, EmploymentStatus.class);
+                    }
+                }
+                case SALARY -> {
+                    if (operator.isRange() || operator == Operator.EQ) {
+                        double value = (Double) comparison.values().get(0);
+                        switch (operator) {
+                            case GT -> low = Math.max(low, Math.nextUp(value));
+                            case GE -> low = Math.max(low, value);
+                            case LT -> high = Math.min(high, Math.nextDown(value));
+                            case LE -> high = Math.min(high, value);
+                            default -> {
+                                low = Math.max(low, value);
+                                high = Math.min(high, value);
+                            }
+                        }
+                        salary = true;
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        EmployeeFilter toFilter() {
+            return new EmployeeFilter(companies, positions, statuses,
+                    salary && low != Double.NEGATIVE_INFINITY ? low : null,
+                    salary && high != Double.POSITIVE_INFINITY ? high : null);
+        }
+
+        private static <T> Set<T> values(Comparison comparison, Class<T> type) {
+            Set<T> values = new LinkedHashSet<>();
+            for (Object value : comparison.values()) {
+                values.add(type.cast(value));
+            }
+            return values;
+        }
+    }
+}
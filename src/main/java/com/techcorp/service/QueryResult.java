@@ -0,0 +1,9 @@
+package com.techcorp.service;
+
+import java.util.List;
+
+import com.techcorp.model.Employee;
+
+/** Employees matching a filter, in insertion order, with the plan that found them. */
+public record QueryResult(List<Employee> employees, QueryExplain explain) {
+}
@@ -0,0 +1,349 @@
+package com.techcorp.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.techcorp.model.Employee;
+
+/**
+ * Keeps a follower's {@link EmployeeService} a copy of the leader's, applying
+ * what {@link ReplicationLeader} streams on one platform thread and
+ * reconnecting whenever the connection is lost.
+ * <p>
+ * Lag is measured as the time since the follower last held everything the
+ * leader had: every message says how far the leader was when it was sent, and
+ * once that sequence is applied the follower was current as of the moment the
+ * message arrived. An idle leader sends heartbeats, so the lag of a healthy
+ * follower stays below the heartbeat interval plus the time to apply a batch,
+ * while a lost connection makes it grow until the follower is back.
+ */
+public final class ReplicationFollower implements Closeable {
+
+    /** What the follower last knew; {@code lagMillis} as described above. */
+    public record Status(boolean connected, long generation, long appliedSequence, long leaderSequence,
+                         long lagMillis, int snapshotsLoaded) {
+    }
+
+    // a leader position and when the follower learned of it
+    private record Mark(long sequence, long receivedNanos) {
+    }
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 2_000;
+    private static final long READ_TIMEOUT_MILLIS = 30_000;
+    // applied sequence of a state the leader must replace with a snapshot
+    private static final long UNKNOWN = -1;
+
+    private final EmployeeService service;
+    private final InetSocketAddress leader;
+    private final byte[] secret;
+    private final long heartbeatMillis;
+    private final Thread worker;
+    private volatile Socket socket;
+    private volatile boolean closed;
+
+    // written by the worker under the lock, so the worker itself may read them without it
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition progressed = lock.newCondition();
+    private boolean connected;
+    private long generation;
+    private long applied;
+    private long leaderSequence;
+    private long caughtUpNanos = System.nanoTime();
+    private int snapshotsLoaded;
+    // leader positions not yet applied, oldest first; touched by the worker only
+    private final ArrayDeque<Mark> pending = new ArrayDeque<>();
+    private long announced;
+
+    private ReplicationFollower(EmployeeService service, InetSocketAddress leader, byte[] secret,
+                                long heartbeatMillis) {
+        this.service = service;
+        this.leader = leader;
+        this.secret = secret;
+        this.heartbeatMillis = heartbeatMillis;
+        this.worker = Thread.ofPlatform().name("employee-replication-follower").daemon().unstarted(this::run);
+    }
+
+    /**
+     * Makes {@code service} a follower of the leader at {@code host:port} and
+     * starts connecting; returns before the first snapshot has arrived.
+     *
+     * @param secret          the leader's, which both sides prove they know
+     * @param heartbeatMillis the leader's heartbeat interval, also the delay
+     *                        before reconnecting (at most a second)
+     */
+    public static ReplicationFollower start(EmployeeService service, String host, int port, String secret,
+                                            long heartbeatMillis) {
+        if (heartbeatMillis <= 0) {
+            throw new IllegalArgumentException("heartbeatMillis must be positive");
+        }
+        byte[] key = ReplicationLeader.secretKey(secret);
+        if (!service.isReplica()) {
+            service.becomeReplica();
+        }
+        ReplicationFollower follower = new ReplicationFollower(service, new InetSocketAddress(host, port), key,
+                heartbeatMillis);
+        follower.worker.start();
+        return follower;
+    }
+
+    public Status status() {
+        lock.lock();
+        try {
+            return new Status(connected, generation, applied, leaderSequence, lagMillis(), snapshotsLoaded);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Milliseconds since the follower last held everything the leader had. */
+    public long lagMillis() {
+        lock.lock();
+        try {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - caughtUpNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the leader's mutations up to {@code sequence} of the current
+     * generation are applied, e.g. to read a write made on the leader.
+     *
+     * @return false on timeout
+     */
+    public boolean awaitSequence(long sequence, long timeoutMillis) throws InterruptedException {
+        lock.lock();
+        try {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (!(connected && applied >= sequence)) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = progressed.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Stops replicating; the service keeps the state it has and stays read-only. */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        worker.interrupt();
+        Socket current = socket;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private void run() {
+        long retryMillis = Math.min(heartbeatMillis, 1000);
+        while (!closed) {
+            try (Socket connection = new Socket()) {
+                socket = connection;
+                connection.connect(leader, CONNECT_TIMEOUT_MILLIS);
+                // generous: the leader is silent while it writes a snapshot, and the lag
+                // grows during any silence whether or not the connection is dropped
+                connection.setSoTimeout((int) Math.max(heartbeatMillis * 20, READ_TIMEOUT_MILLIS));
+                connection.setTcpNoDelay(true);
+                follow(connection);
+            } catch (IOException | RuntimeException e) {
+                // leader down, restarted or unreachable: retried below
+            } finally {
+                socket = null;
+                lock.lock();
+                try {
+                    connected = false;
+                } finally {
+                    lock.unlock();
+                }
+            }
+            try {
+                Thread.sleep(retryMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void follow(Socket connection) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+        DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream(), 1 << 16));
+        byte[] nonce = ReplicationLeader.nonce();
+        out.writeInt(ReplicationLeader.MAGIC);
+        out.writeInt(ReplicationLeader.FORMAT);
+        out.write(nonce);
+        out.flush();
+        if (in.readInt() != ReplicationLeader.MAGIC || in.readInt() != ReplicationLeader.FORMAT) {
+            throw new IOException(leader + " is not a replication leader");
+        }
+        byte[] leaderNonce = new byte[ReplicationLeader.NONCE_BYTES];
+        in.readFully(leaderNonce);
+        byte[] leaderProof = new byte[ReplicationLeader.NONCE_BYTES];
+        in.readFully(leaderProof);
+        if (!MessageDigest.isEqual(leaderProof, ReplicationLeader.proof(secret, ReplicationLeader.LEADER_PROOF, nonce))) {
+            throw new IOException(leader + " does not know the replication secret");
+        }
+        out.write(ReplicationLeader.proof(secret, ReplicationLeader.FOLLOWER_PROOF, leaderNonce));
+        out.writeLong(generation);
+        out.writeLong(applied);
+        out.flush();
+        long leaderGeneration = in.readLong();
+        pending.clear();
+        lock.lock();
+        try {
+            connected = true;
+            if (leaderGeneration != generation) {
+                // sequences of another leader process mean nothing here; a snapshot follows
+                generation = leaderGeneration;
+                applied = UNKNOWN;
+            }
+            progressed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        while (!closed) {
+            byte type = in.readByte();
+            announced = in.readLong();
+            pending.add(new Mark(announced, System.nanoTime()));
+            switch (type) {
+                case ReplicationLeader.SNAPSHOT -> {
+                    long sequence = loadSnapshot(in, in.readLong());
+                    advance(sequence, true);
+                }
+                case ReplicationLeader.ENTRIES -> {
+                    long first = in.readLong();
+                    int count = in.readInt();
+                    List<WriteAheadLog.Entry> entries = new ArrayList<>(count);
+                    byte[] payload = new byte[256];
+                    for (int i = 0; i < count; i++) {
+                        int length = in.readInt();
+                        if (length > payload.length) {
+                            payload = new byte[Math.max(length, payload.length * 2)];
+                        }
+                        in.readFully(payload, 0, length);
+                        entries.add(WriteAheadLog.decode(
+                                new DataInputStream(new ByteArrayInputStream(payload, 0, length)), leader.toString()));
+                    }
+                    if (first != applied + 1) {
+                        throw new IOException("Expected entry " + (applied + 1) + " from " + leader + ", got " + first);
+                    }
+                    try {
+                        service.applyReplicated(entries);
+                    } catch (RuntimeException e) {
+                        // diverged from the leader, possibly part-way through the batch
+                        forget();
+                        throw e;
+                    }
+                    advance(first + count - 1, false);
+                }
+                case ReplicationLeader.HEARTBEAT -> advance(applied, false);
+                default -> throw new IOException("Unknown replication message " + type + " from " + leader);
+            }
+        }
+    }
+
+    // reads the snapshot into a temporary file, so it can be loaded like one written locally
+    private long loadSnapshot(DataInputStream in, long bytes) throws IOException {
+        Path file = Files.createTempFile("employees-replica", ".snapshot");
+        try {
+            Files.copy(new BoundedInputStream(in, bytes), file, StandardCopyOption.REPLACE_EXISTING);
+            List<Employee> employees = new ArrayList<>();
+            long sequence = new SnapshotFile(file).load(employees::add);
+            service.resetReplica(employees);
+            return sequence;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // the next connection starts over from a snapshot
+    private void forget() {
+        lock.lock();
+        try {
+            applied = UNKNOWN;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // records that everything up to sequence is applied, and how current that makes the follower
+    private void advance(long sequence, boolean snapshot) {
+        long caughtUp = -1;
+        while (!pending.isEmpty() && pending.peek().sequence() <= sequence) {
+            caughtUp = pending.poll().receivedNanos();
+        }
+        lock.lock();
+        try {
+            applied = sequence;
+            leaderSequence = announced;
+            if (caughtUp >= 0) {
+                caughtUpNanos = caughtUp;
+            }
+            if (snapshot) {
+                snapshotsLoaded++;
+            }
+            progressed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // exactly `remaining` bytes of the underlying stream, which stays open
+    private static final class BoundedInputStream extends InputStream {
+        private final InputStream in;
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long remaining) {
+            this.in = in;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining == 0) {
+                return -1;
+            }
+            int b = in.read();
+            if (b < 0) {
+                throw new IOException("Snapshot cut short");
+            }
+            remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining == 0) {
+                return -1;
+            }
+            int read = in.read(buffer, offset, (int) Math.min(length, remaining));
+            if (read < 0) {
+                throw new IOException("Snapshot cut short");
+            }
+            remaining -= read;
+            return read;
+        }
+    }
+}
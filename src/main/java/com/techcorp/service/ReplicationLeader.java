@@ -0,0 +1,274 @@
+package com.techcorp.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Streams the mutations of a leader's {@link EmployeeService} to followers
+ * over TCP (log shipping). Each follower is served on its own virtual thread.
+ * <p>
+ * Protocol, all numbers big-endian. Both ends prove they know the shared
+ * secret before anything else is exchanged: the follower opens with
+ * {@code [magic][format][nonce]}; the leader answers
+ * {@code [magic][format][nonce][proof]}, where the proof is an HMAC-SHA256 of
+ * the follower's nonce under the secret; the follower checks it and replies
+ * {@code [proof][generation][sequence]}, its own proof over the leader's nonce
+ * followed by the last leader generation and replication sequence it applied
+ * (0 and 0 when it has none). Either side hangs up on a wrong proof. The leader
+ * then answers {@code [generation]} and sends messages, each carrying the
+ * leader's last sequence at the time it was sent:
+ * <ul>
+ * <li>SNAPSHOT {@code [leaderLast][bytes][snapshot file]}: the whole store in
+ * {@link SnapshotFile} format, whose epoch is the sequence it includes; sent
+ * when the follower comes from another generation or has fallen behind the
+ * {@link ReplicationLog}.</li>
+ * <li>ENTRIES {@code [leaderLast][first][count]} followed by {@code count}
+ * {@code [length][payload]} entries in {@link WriteAheadLog} encoding.</li>
+ * <li>HEARTBEAT {@code [leaderLast]}, after {@code heartbeatMillis} without
+ * entries, so a follower can tell an idle leader from a lost one.</li>
+ * </ul>
+ * The generation is drawn at random when the leader starts, so a follower of a
+ * previous leader process always starts again from a snapshot. The stream
+ * itself is not encrypted.
+ */
+public final class ReplicationLeader implements Closeable {
+
+    static final int MAGIC = 0x4552504C; // "ERPL"
+    static final int FORMAT = 2;
+    static final byte SNAPSHOT = 1;
+    static final byte ENTRIES = 2;
+    static final byte HEARTBEAT = 3;
+    static final int NONCE_BYTES = 32;
+    // kept apart so a proof one side sent can never be replayed as the other's
+    static final byte LEADER_PROOF = 'L';
+    static final byte FOLLOWER_PROOF = 'F';
+    private static final int BATCH_SIZE = 1024;
+    private static final int HANDSHAKE_TIMEOUT_MILLIS = 10_000;
+    private static final SecureRandom NONCES = new SecureRandom();
+
+    private final EmployeeService service;
+    private final ReplicationLog log;
+    private final byte[] secret;
+    private final long generation;
+    private final long heartbeatMillis;
+    private final ServerSocket server;
+    private final Thread acceptor;
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Socket> followers = ConcurrentHashMap.newKeySet();
+
+    private ReplicationLeader(EmployeeService service, ReplicationLog log, byte[] secret, ServerSocket server,
+                              long heartbeatMillis) {
+        this.service = service;
+        this.log = log;
+        this.secret = secret;
+        this.generation = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+        this.heartbeatMillis = heartbeatMillis;
+        this.server = server;
+        this.acceptor = Thread.ofPlatform().name("employee-replication-leader").daemon().unstarted(this::accept);
+    }
+
+    /**
+     * Makes {@code service} a leader and starts listening.
+     *
+     * @param port            0 for any free port, see {@link #port()}
+     * @param secret          shared with the followers, which must prove they know it
+     * @param backlog         entries kept for followers that reconnect; one further behind gets a snapshot
+     * @param heartbeatMillis longest silence towards a connected follower
+     */
+    public static ReplicationLeader start(EmployeeService service, String host, int port, String secret,
+                                          int backlog, long heartbeatMillis) throws IOException {
+        if (heartbeatMillis <= 0) {
+            throw new IllegalArgumentException("heartbeatMillis must be positive");
+        }
+        byte[] key = secretKey(secret);
+        ReplicationLog log = new ReplicationLog(backlog);
+        ServerSocket server = new ServerSocket();
+        try {
+            server.bind(new InetSocketAddress(host, port));
+            service.replicateTo(log);
+        } catch (IOException | RuntimeException e) {
+            server.close();
+            throw e;
+        }
+        ReplicationLeader leader = new ReplicationLeader(service, log, key, server, heartbeatMillis);
+        leader.acceptor.start();
+        return leader;
+    }
+
+    public int port() {
+        return server.getLocalPort();
+    }
+
+    public long generation() {
+        return generation;
+    }
+
+    /** Sequence of the last mutation followers can be sent: durable in this leader's log. */
+    public long lastSequence() {
+        return log.lastSequence();
+    }
+
+    public int followers() {
+        return followers.size();
+    }
+
+    /** Stops listening and disconnects every follower; the service stays usable. */
+    @Override
+    public void close() throws IOException {
+        server.close();
+        // the port is only released once the acceptor has left accept(), and a
+        // new leader on the same address must be able to bind it
+        try {
+            acceptor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        senders.shutdownNow();
+        for (Socket follower : followers) {
+            follower.close();
+        }
+    }
+
+    // close() waits for this loop to end before it stops the senders, so every
+    // accepted socket is handed to one
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                followers.add(socket);
+                senders.execute(() -> serve(socket));
+            } catch (IOException e) {
+                // closed, or a connection that failed before it was accepted
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+            // a peer that never completes the handshake does not hold a sender for good
+            socket.setSoTimeout(HANDSHAKE_TIMEOUT_MILLIS);
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT) {
+                return;
+            }
+            byte[] followerNonce = new byte[NONCE_BYTES];
+            in.readFully(followerNonce);
+            byte[] nonce = nonce();
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.write(nonce);
+            out.write(proof(secret, LEADER_PROOF, followerNonce));
+            out.flush();
+            byte[] followerProof = new byte[NONCE_BYTES];
+            in.readFully(followerProof);
+            if (!MessageDigest.isEqual(followerProof, proof(secret, FOLLOWER_PROOF, nonce))) {
+                return;
+            }
+            long followerGeneration = in.readLong();
+            long followerSequence = in.readLong();
+            socket.setSoTimeout(0);
+            out.writeLong(generation);
+            out.flush();
+
+            // -1: the follower's state is unknown to this leader
+            long sent = followerGeneration == generation ? followerSequence : -1;
+            while (!Thread.currentThread().isInterrupted()) {
+                Optional<List<byte[]>> batch = sent < 0
+                        ? Optional.empty()
+                        : log.read(sent, BATCH_SIZE, heartbeatMillis);
+                if (batch.isEmpty()) {
+                    sent = sendSnapshot(out);
+                } else if (batch.get().isEmpty()) {
+                    out.writeByte(HEARTBEAT);
+                    out.writeLong(log.lastSequence());
+                } else {
+                    out.writeByte(ENTRIES);
+                    out.writeLong(log.lastSequence());
+                    out.writeLong(sent + 1);
+                    out.writeInt(batch.get().size());
+                    for (byte[] entry : batch.get()) {
+                        out.writeInt(entry.length);
+                        out.write(entry);
+                    }
+                    sent += batch.get().size();
+                }
+                out.flush();
+            }
+        } catch (IOException | RuntimeException e) {
+            // follower gone, leader closed or snapshot failed; the follower reconnects
+            // and is resent what it lacks
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            followers.remove(socket);
+        }
+    }
+
+    static byte[] secretKey(String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException("Replication needs a shared secret");
+        }
+        return secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] nonce() {
+        byte[] nonce = new byte[NONCE_BYTES];
+        NONCES.nextBytes(nonce);
+        return nonce;
+    }
+
+    // HMAC-SHA256 of the side's tag and the other side's nonce
+    static byte[] proof(byte[] secret, byte side, byte[] nonce) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            mac.update(side);
+            return mac.doFinal(nonce);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    // the image is captured under the service write lock, the file written and sent outside it
+    private long sendSnapshot(DataOutputStream out) throws IOException, InterruptedException {
+        EmployeeService.ReplicaImage image = service.captureReplicaImage();
+        // the image may hold writes still waiting for the leader's log
+        log.awaitDurable(image.sequence());
+        Path file = Files.createTempFile("employees-replica", ".snapshot");
+        try {
+            new SnapshotFile(file).write(image.sequence(), image.employees());
+            out.writeByte(SNAPSHOT);
+            out.writeLong(log.lastSequence());
+            out.writeLong(Files.size(file));
+            Files.copy(file, out);
+            return image.sequence();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
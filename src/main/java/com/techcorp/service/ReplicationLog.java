@@ -0,0 +1,152 @@
+package com.techcorp.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The most recent mutations of a leader, numbered from 1 and kept encoded as
+ * {@link WriteAheadLog} payloads, so a follower that reconnects can be sent
+ * what it missed instead of the whole store. Once more than {@code capacity}
+ * entries have been appended the oldest are overwritten; a follower behind
+ * them starts again from a snapshot.
+ * <p>
+ * An entry is appended with its position in the leader's write-ahead log and
+ * is only handed out once {@link #durable(long)} has reached that position,
+ * so a follower never holds a change the leader could lose in a crash.
+ */
+final class ReplicationLog {
+
+    private final byte[][] entries;
+    // write-ahead log position of each entry, 0 when the leader has no log
+    private final long[] positions;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+    private final DataOutputStream out = new DataOutputStream(buffer);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition shippable = lock.newCondition();
+    private long last;
+    private long durable;
+
+    ReplicationLog(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.entries = new byte[capacity][];
+        this.positions = new long[capacity];
+    }
+
+    /**
+     * Called with the service write lock held, in the order the mutations are
+     * applied; {@code logPosition} is what the write-ahead log returned for it.
+     */
+    void append(WriteAheadLog.Entry entry, long logPosition) {
+        buffer.reset();
+        try {
+            WriteAheadLog.encode(entry, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // not thrown by an in-memory stream
+        }
+        byte[] bytes = buffer.toByteArray();
+        lock.lock();
+        try {
+            last++;
+            entries[(int) (last % entries.length)] = bytes;
+            positions[(int) (last % entries.length)] = logPosition;
+            if (logPosition == 0) {
+                advance(0);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Marks every entry up to {@code logPosition} of the write-ahead log as durable. */
+    void durable(long logPosition) {
+        lock.lock();
+        try {
+            advance(logPosition);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Sequence of the last entry appended, durable or not; 0 before the first. */
+    long appendedSequence() {
+        lock.lock();
+        try {
+            return last;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Sequence of the last durable entry, the newest a follower can be sent. */
+    long lastSequence() {
+        lock.lock();
+        try {
+            return durable;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Waits until the entries up to {@code sequence} are durable. */
+    void awaitDurable(long sequence) throws InterruptedException {
+        lock.lock();
+        try {
+            while (durable < sequence) {
+                shippable.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Up to {@code max} durable entries following {@code after}, waiting at most
+     * {@code waitMillis} for one to become durable; an empty list if none did.
+     * Empty when the entry after {@code after} has already been overwritten,
+     * or {@code after} lies beyond the last entry.
+     */
+    Optional<List<byte[]>> read(long after, int max, long waitMillis) throws InterruptedException {
+        lock.lock();
+        try {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(waitMillis);
+            while (durable <= after && after <= last && nanos > 0) {
+                nanos = shippable.awaitNanos(nanos);
+            }
+            if (after > last || after < last - entries.length) {
+                return Optional.empty();
+            }
+            int count = (int) Math.max(0, Math.min(max, durable - after));
+            List<byte[]> batch = new ArrayList<>(count);
+            for (long sequence = after + 1; sequence <= after + count; sequence++) {
+                batch.add(entries[(int) (sequence % entries.length)]);
+            }
+            return Optional.of(batch);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Log positions grow with the sequence, so the newest entry at or below
+    // logPosition makes it and everything before it durable; overwritten
+    // entries lie below the oldest one kept.
+    private void advance(long logPosition) {
+        for (long sequence = last; sequence > durable && sequence > last - entries.length; sequence--) {
+            if (positions[(int) (sequence % entries.length)] <= logPosition) {
+                durable = sequence;
+                shippable.signalAll();
+                return;
+            }
+        }
+    }
+}
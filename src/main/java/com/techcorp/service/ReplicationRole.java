@@ -0,0 +1,17 @@
+package com.techcorp.service;
+
+/**
+ * Part a node plays in replicating the employee store, set with
+ * {@code app.replication.role}.
+ */
+public enum ReplicationRole {
+    /** Not replicated. */
+    STANDALONE,
+    /** Accepts writes and streams them to followers on {@code app.replication.listen}. */
+    LEADER,
+    /**
+     * Keeps a read-only copy of the leader at {@code app.replication.leader};
+     * writes are refused with {@link com.techcorp.exception.NotLeaderException}.
+     */
+    FOLLOWER
+}
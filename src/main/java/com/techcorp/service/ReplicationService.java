@@ -0,0 +1,181 @@
+package com.techcorp.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Starts this node's part in replication as set by {@code app.replication.role}:
+ * a leader listens for followers on {@code app.replication.listen}, a follower
+ * connects to {@code app.replication.leader} ({@code host:port}). Both must be
+ * given the same {@code app.replication.secret}, which each side proves it
+ * knows before any data is exchanged.
+ * <p>
+ * A follower bounds the staleness of its reads through readiness: it reports
+ * {@link ReadinessState#REFUSING_TRAFFIC} while it lags the leader by more
+ * than {@code app.replication.max-lag-ms}, so the load balancer only routes to
+ * followers that are close enough.
+ */
+@Service
+public class ReplicationService {
+
+    /** This node's view of replication; the counters belong to its role. */
+    public record Status(ReplicationRole role, boolean ready, int port, int followers, long generation,
+                         long sequence, long leaderSequence, long lagMillis, int snapshotsLoaded) {
+    }
+
+    private final ReplicationRole role;
+    private final long maxLagMillis;
+    private final ApplicationEventPublisher events;
+    private final ReplicationLeader leader;
+    private final ReplicationFollower follower;
+    private final ScheduledExecutorService monitor;
+    // guarded by this; events are published outside the lock, as other listeners take their own
+    private boolean refusing;
+
+    /**
+     * @param listenAddress   {@code host:port} a leader listens on; port 0 picks a free one
+     * @param leaderAddress   {@code host:port} of the leader, for a follower
+     * @param secret          shared by a leader and its followers
+     * @param backlog         mutations a leader keeps for reconnecting followers
+     * @param heartbeatMillis longest silence of a leader towards its followers
+     * @param maxLagMillis    lag beyond which a follower reports itself not ready
+     */
+    public ReplicationService(EmployeeService employeeService,
+                              @Value("${app.replication.role:STANDALONE}") ReplicationRole role,
+                              @Value("${app.replication.listen:}") String listenAddress,
+                              @Value("${app.replication.leader:}") String leaderAddress,
+                              @Value("${app.replication.secret:}") String secret,
+                              @Value("${app.replication.backlog:65536}") int backlog,
+                              @Value("${app.replication.heartbeat-ms:200}") long heartbeatMillis,
+                              @Value("${app.replication.max-lag-ms:2000}") long maxLagMillis,
+                              ApplicationEventPublisher events) {
+        this.role = role;
+        this.maxLagMillis = maxLagMillis;
+        this.events = events;
+        switch (role) {
+            case LEADER -> {
+                // no default: which interfaces the change stream is reachable on is a deliberate choice
+                if (listenAddress.isBlank()) {
+                    throw new IllegalArgumentException("A leader needs app.replication.listen");
+                }
+                try {
+                    this.leader = ReplicationLeader.start(employeeService, host(listenAddress), port(listenAddress),
+                            secret, backlog, heartbeatMillis);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not listen for followers on " + listenAddress, e);
+                }
+                this.follower = null;
+                this.monitor = null;
+            }
+            case FOLLOWER -> {
+                if (leaderAddress.isBlank()) {
+                    throw new IllegalArgumentException("A follower needs app.replication.leader");
+                }
+                this.leader = null;
+                this.follower = ReplicationFollower.start(employeeService, host(leaderAddress), port(leaderAddress),
+                        secret, heartbeatMillis);
+                this.monitor = Executors.newSingleThreadScheduledExecutor(
+                        task -> Thread.ofPlatform().name("employee-replication-lag").daemon().unstarted(task));
+                monitor.scheduleWithFixedDelay(this::checkLag, heartbeatMillis, heartbeatMillis,
+                        TimeUnit.MILLISECONDS);
+            }
+            default -> {
+                this.leader = null;
+                this.follower = null;
+                this.monitor = null;
+            }
+        }
+    }
+
+    public ReplicationRole getRole() {
+        return role;
+    }
+
+    /** The running leader or follower, for waiting on a sequence; null if standalone. */
+    public ReplicationLeader getLeader() {
+        return leader;
+    }
+
+    public ReplicationFollower getFollower() {
+        return follower;
+    }
+
+    public synchronized Status status() {
+        if (leader != null) {
+            return new Status(role, true, leader.port(), leader.followers(), leader.generation(),
+                    leader.lastSequence(), leader.lastSequence(), 0, 0);
+        }
+        if (follower != null) {
+            ReplicationFollower.Status status = follower.status();
+            return new Status(role, !refusing, 0, 0, status.generation(), status.appliedSequence(),
+                    status.leaderSequence(), status.lagMillis(), status.snapshotsLoaded());
+        }
+        return new Status(role, true, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    // Spring Boot reports ACCEPTING_TRAFFIC once the runners have returned, which
+    // says nothing about a follower's lag; hold it back until the lag is in bounds.
+    @EventListener
+    public void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+        if (follower != null && event.getState() == ReadinessState.ACCEPTING_TRAFFIC
+                && follower.lagMillis() > maxLagMillis) {
+            synchronized (this) {
+                refusing = true;
+            }
+            AvailabilityChangeEvent.publish(events, this, ReadinessState.REFUSING_TRAFFIC);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (monitor != null) {
+            monitor.shutdownNow();
+        }
+        if (leader != null) {
+            leader.close();
+        }
+        if (follower != null) {
+            follower.close();
+        }
+    }
+
+    void checkLag() {
+        boolean lagging = follower.lagMillis() > maxLagMillis;
+        synchronized (this) {
+            if (lagging == refusing) {
+                return;
+            }
+            refusing = lagging;
+        }
+        AvailabilityChangeEvent.publish(events, this,
+                lagging ? ReadinessState.REFUSING_TRAFFIC : ReadinessState.ACCEPTING_TRAFFIC);
+    }
+
+    private static String host(String address) {
+        int colon = address.lastIndexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("Expected host:port, got " + address);
+        }
+        return address.substring(0, colon);
+    }
+
+    private static int port(String address) {
+        try {
+            return Integer.parseInt(address.substring(address.lastIndexOf(':') + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected host:port, got " + address, e);
+        }
+    }
+}
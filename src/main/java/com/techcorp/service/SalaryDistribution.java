@@ -0,0 +1,175 @@
+package com.techcorp.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalDouble;
+
+/**
+ * Immutable copy of a salary sketch. Salaries are counted in logarithmic buckets
+ * whose representative value is within {@link #RELATIVE_ACCURACY} of every salary
+ * in the bucket, so percentiles carry at most that relative error and cost the
+ * same whatever the headcount. Distributions share one bucket layout and can be
+ * merged, e.g. to combine several companies.
+ */
+public final class SalaryDistribution {
+
+    public static final double RELATIVE_ACCURACY = 0.01;
+    static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    // buckets above this cover salaries nobody earns; they are folded into the last one
+    static final int MAX_BUCKET = bucketOf(1e12);
+    private static final int MAX_HISTOGRAM_BINS = 10_000;
+
+    static final SalaryDistribution EMPTY = new SalaryDistribution(0, 0, new long[0], 0, 0.0, 0.0);
+
+    // salaries below 1.0 are counted in their own bucket, represented by min
+    private final long zeroCount;
+    // bucket index of counts[0]
+    private final int offset;
+    private final long[] counts;
+    private final long count;
+    private final double min;
+    private final double max;
+
+    SalaryDistribution(long zeroCount, int offset, long[] counts, long count, double min, double max) {
+        this.zeroCount = zeroCount;
+        this.offset = offset;
+        this.counts = counts;
+        this.count = count;
+        this.min = min;
+        this.max = max;
+    }
+
+    public static SalaryDistribution of(double... salaries) {
+        SalarySketch sketch = new SalarySketch();
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (double salary : salaries) {
+            sketch.add(salary);
+            min = Math.min(min, salary);
+            max = Math.max(max, salary);
+        }
+        return sketch.distribution(min, max);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double min() {
+        return min;
+    }
+
+    public double max() {
+        return max;
+    }
+
+    /** Nearest-rank percentile, {@code p} in [0, 100]; empty when there are no salaries. */
+    public OptionalDouble percentile(double p) {
+        if (p < 0 || p > 100 || Double.isNaN(p)) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + p);
+        }
+        if (count == 0) {
+            return OptionalDouble.empty();
+        }
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * count));
+        if (rank >= count) {
+            return OptionalDouble.of(max);
+        }
+        long seen = zeroCount;
+        if (rank == 1 || seen >= rank) {
+            return OptionalDouble.of(min);
+        }
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return OptionalDouble.of(valueOf(offset + i));
+            }
+        }
+        return OptionalDouble.of(max);
+    }
+
+    /** Counts in consecutive bins of {@code width}, from the bin holding the lowest salary. */
+    public List<Bucket> histogram(double width) {
+        if (!(width > 0)) {
+            throw new IllegalArgumentException("width must be positive");
+        }
+        if (count == 0) {
+            return List.of();
+        }
+        long first = (long) Math.floor(min / width);
+        long bins = (long) Math.floor(max / width) - first + 1;
+        if (bins > MAX_HISTOGRAM_BINS) {
+            throw new IllegalArgumentException("width too small: more than " + MAX_HISTOGRAM_BINS + " bins");
+        }
+        long[] binCounts = new long[(int) bins];
+        binCounts[0] += zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                binCounts[(int) ((long) Math.floor(valueOf(offset + i) / width) - first)] += counts[i];
+            }
+        }
+        List<Bucket> result = new ArrayList<>(binCounts.length);
+        for (int b = 0; b < binCounts.length; b++) {
+            result.add(new Bucket((first + b) * width, (first + b + 1) * width, binCounts[b]));
+        }
+        return result;
+    }
+
+    /** Salaries in [from, to], counted by whole buckets, so off by at most the two edge buckets. */
+    long estimateCount(double from, double to) {
+        if (count == 0 || to < min || from > max) {
+            return 0;
+        }
+        long result = from < 1.0 ? zeroCount : 0;
+        if (to < 1.0) {
+            return result;
+        }
+        int first = from < 1.0 ? Integer.MIN_VALUE : Math.min(bucketOf(from), MAX_BUCKET);
+        int last = Math.min(bucketOf(to), MAX_BUCKET);
+        for (int i = Math.max(0, first - offset); i < counts.length && offset + i <= last; i++) {
+            result += counts[i];
+        }
+        return result;
+    }
+
+    public SalaryDistribution merge(SalaryDistribution other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            return other;
+        }
+        if (other.counts.length == 0 || counts.length == 0) {
+            SalaryDistribution buckets = counts.length == 0 ? other : this;
+            return new SalaryDistribution(zeroCount + other.zeroCount, buckets.offset, buckets.counts.clone(),
+                    count + other.count, Math.min(min, other.min), Math.max(max, other.max));
+        }
+        int from = Math.min(offset, other.offset);
+        int to = Math.max(offset + counts.length, other.offset + other.counts.length);
+        long[] merged = new long[to - from];
+        for (int i = 0; i < counts.length; i++) {
+            merged[offset - from + i] += counts[i];
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            merged[other.offset - from + i] += other.counts[i];
+        }
+        return new SalaryDistribution(zeroCount + other.zeroCount, from, merged, count + other.count,
+                Math.min(min, other.min), Math.max(max, other.max));
+    }
+
+    /** Bucket for salaries of at least 1.0; salaries in (GAMMA^(i-1), GAMMA^i] share bucket i. */
+    static int bucketOf(double salary) {
+        return (int) Math.ceil(Math.log(salary) / LOG_GAMMA);
+    }
+
+    // within RELATIVE_ACCURACY of both bucket bounds, clamped to the exact extremes
+    private double valueOf(int bucket) {
+        double value = 2 * Math.pow(GAMMA, bucket) / (GAMMA + 1);
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /** Salaries in [from, to). */
+    public record Bucket(double from, double to, long count) {
+    }
+}
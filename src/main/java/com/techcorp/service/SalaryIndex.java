@@ -0,0 +1,162 @@
+package com.techcorp.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.DoubleSummaryStatistics;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import com.techcorp.model.Employee;
+
+/**
+ * Rows ordered by salary plus running count/sum and a percentile sketch. The
+ * ordered set survives deletes, so min/max stay O(log n) after the current
+ * extreme is removed.
+ */
+class SalaryIndex implements EmployeeIndex {
+
+    private final EmployeeStorage storage;
+    private final NavigableSet<SalaryKey> bySalary = new ConcurrentSkipListSet<>();
+    private volatile Totals totals = Totals.EMPTY;
+    private final SalarySketch sketch = new SalarySketch();
+
+    SalaryIndex(EmployeeStorage storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public void add(int row, Employee employee) {
+        bySalary.add(new SalaryKey(employee.getSalary(), row));
+        totals = totals.plus(employee.getSalary());
+        sketch.add(employee.getSalary());
+    }
+
+    @Override
+    public void remove(int row, Employee employee) {
+        if (bySalary.remove(new SalaryKey(employee.getSalary(), row))) {
+            totals = totals.minus(employee.getSalary());
+            sketch.remove(employee.getSalary());
+        }
+    }
+
+    long count() {
+        return totals.count();
+    }
+
+    OptionalDouble average() {
+        Totals current = totals;
+        return current.count() == 0 ? OptionalDouble.empty() : OptionalDouble.of(current.sum() / current.count());
+    }
+
+    Optional<Employee> highest() {
+        return top(1).stream().findFirst();
+    }
+
+    /** Highest salaries first. */
+    List<Employee> top(int n) {
+        return take(bySalary.descendingSet(), n);
+    }
+
+    /** Lowest salaries first. */
+    List<Employee> bottom(int n) {
+        return take(bySalary, n);
+    }
+
+    /** Salaries in [min, max], ascending. */
+    List<Employee> range(double min, double max) {
+        // within one salary rows are descending, so the row bounds are swapped
+        SalaryKey from = new SalaryKey(min, Integer.MAX_VALUE);
+        SalaryKey to = new SalaryKey(max, Integer.MIN_VALUE);
+        return take(bySalary.subSet(from, true, to, true), Integer.MAX_VALUE);
+    }
+
+    /** Rows with salaries in [min, max], in salary order. */
+    List<Integer> rows(double min, double max) {
+        SalaryKey from = new SalaryKey(min, Integer.MAX_VALUE);
+        SalaryKey to = new SalaryKey(max, Integer.MIN_VALUE);
+        List<Integer> rows = new ArrayList<>();
+        for (SalaryKey key : bySalary.subSet(from, true, to, true)) {
+            rows.add(key.row());
+        }
+        return rows;
+    }
+
+    DoubleSummaryStatistics summary() {
+        Totals current = totals;
+        SalaryKey min = first(bySalary);
+        SalaryKey max = first(bySalary.descendingSet());
+        if (current.count() == 0 || min == null || max == null) {
+            return new DoubleSummaryStatistics();
+        }
+        return new DoubleSummaryStatistics(current.count(), min.salary(), max.salary(), current.sum());
+    }
+
+    SalaryDistribution distribution() {
+        SalaryKey min = first(bySalary);
+        SalaryKey max = first(bySalary.descendingSet());
+        return min == null || max == null
+                ? SalaryDistribution.EMPTY
+                : sketch.distribution(min.salary(), max.salary());
+    }
+
+    // first()/last() throw if a concurrent delete empties the set
+    private static SalaryKey first(Collection<SalaryKey> ordered) {
+        Iterator<SalaryKey> iterator = ordered.iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private List<Employee> take(Collection<SalaryKey> ordered, int n) {
+        List<Employee> result = new ArrayList<>(Math.min(n, 1024));
+        for (SalaryKey key : ordered) {
+            if (result.size() >= n) {
+                break;
+            }
+            Employee employee = storage.get(key.row());
+            if (employee != null) {
+                result.add(employee);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Ascending by salary; ties are ordered by descending row so that the last
+     * entry is the earliest-added top earner, as Stream.max used to pick.
+     */
+    record SalaryKey(double salary, int row) implements Comparable<SalaryKey> {
+        @Override
+        public int compareTo(SalaryKey other) {
+            int bySalary = Double.compare(salary, other.salary);
+            return bySalary != 0 ? bySalary : Integer.compare(other.row, row);
+        }
+    }
+
+    /** Immutable so readers always see a matching count and sum (Neumaier-compensated). */
+    private record Totals(long count, double rawSum, double compensation) {
+        static final Totals EMPTY = new Totals(0, 0.0, 0.0);
+
+        Totals plus(double value) {
+            double sum = rawSum + value;
+            double c = Math.abs(rawSum) >= Math.abs(value)
+                    ? compensation + ((rawSum - sum) + value)
+                    : compensation + ((value - sum) + rawSum);
+            return new Totals(count + 1, sum, c);
+        }
+
+        Totals minus(double value) {
+            if (count <= 1) {
+                return EMPTY;
+            }
+            Totals next = plus(-value);
+            return new Totals(count - 1, next.rawSum, next.compensation);
+        }
+
+        double sum() {
+            return rawSum + compensation;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.techcorp.service;
+
+import java.util.Arrays;
+
+/**
+ * Mutable counterpart of {@link SalaryDistribution}, updated on every add and
+ * remove. Only the bucket range actually used is allocated, so a company whose
+ * salaries span one order of magnitude needs about a hundred counters.
+ * Synchronized so readers copy a consistent set of counts; writers are already
+ * serialized by the service write lock, so the monitor is never contended by them.
+ */
+final class SalarySketch {
+
+    private long zeroCount;
+    private int offset;
+    private long[] counts = new long[0];
+    private long count;
+
+    synchronized void add(double salary) {
+        count++;
+        if (salary < 1.0) {
+            zeroCount++;
+            return;
+        }
+        int bucket = Math.min(SalaryDistribution.bucketOf(salary), SalaryDistribution.MAX_BUCKET);
+        if (counts.length == 0) {
+            offset = bucket;
+            counts = new long[1];
+        } else if (bucket < offset) {
+            long[] grown = new long[counts.length + offset - bucket];
+            System.arraycopy(counts, 0, grown, offset - bucket, counts.length);
+            counts = grown;
+            offset = bucket;
+        } else if (bucket >= offset + counts.length) {
+            counts = Arrays.copyOf(counts, bucket - offset + 1);
+        }
+        counts[bucket - offset]++;
+    }
+
+    synchronized void remove(double salary) {
+        count--;
+        if (salary < 1.0) {
+            zeroCount--;
+            return;
+        }
+        int bucket = Math.min(SalaryDistribution.bucketOf(salary), SalaryDistribution.MAX_BUCKET);
+        counts[bucket - offset]--;
+        if (count == 0) {
+            counts = new long[0];
+        }
+    }
+
+    /** {@code min} and {@code max} are the exact extremes, which the buckets only approximate. */
+    synchronized SalaryDistribution distribution(double min, double max) {
+        if (count == 0) {
+            return SalaryDistribution.EMPTY;
+        }
+        return new SalaryDistribution(zeroCount, offset, counts.clone(), count, min, max);
+    }
+}
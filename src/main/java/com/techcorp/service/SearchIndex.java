@@ -0,0 +1,523 @@
+package com.techcorp.service;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import com.techcorp.model.Employee;
+
+/**
+ * Search over full name, e-mail and company name. Each field is split into
+ * words, lower-cased and stripped of diacritics ("Łukasz" is found by "lukasz"),
+ * and every distinct word is a term in a sorted dictionary, so a prefix is a
+ * range scan. Substrings of three or more characters go through trigram
+ * postings over the terms rather than the rows: a trigram costs one entry per
+ * distinct word however many employees share it. Company terms point at company
+ * ids, so a company's name is indexed once however many employees it has.
+ * <p>
+ * Each query word scores its best match on an employee: exact word over prefix
+ * over substring, then name over e-mail over company. An employee has to match
+ * every query word and ranks by the sum, ties in the order found. The longest
+ * query word drives the search one match kind and field at a time, best first,
+ * and stops as soon as no unseen employee can beat the current top k, so a short
+ * query over millions of employees usually touches little more than k of them.
+ * <p>
+ * Writers are serialized by the service; readers share a read lock, held only
+ * while a chunk of about twice k row ids is copied. Employees are fetched and
+ * scored after it is released, and the scan resumes from where the chunk ended
+ * only while the top k can still improve.
+ */
+final class SearchIndex implements EmployeeIndex {
+
+    private enum Field {
+        NAME(2), EMAIL(1), COMPANY(0);
+
+        final int points;
+
+        Field(int points) {
+            this.points = points;
+        }
+    }
+
+    private enum Kind {
+        EXACT(2), PREFIX(1), SUBSTRING(0);
+
+        final int points;
+
+        Kind(int points) {
+            this.points = points;
+        }
+    }
+
+    private record Tier(Kind kind, Field field, int score) {
+    }
+
+    private static final Field[] FIELDS = Field.values();
+    private static final List<Tier> TIERS = tiers();
+    private static final int MAX_SCORE = TIERS.get(0).score();
+    private static final int MIN_SUBSTRING = 3;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    // row ids copied per read-lock hold: twice the limit, within these bounds
+    private static final int MIN_CHUNK = 16;
+    private static final int MAX_CHUNK = 4096;
+
+    private final EmployeeStorage storage;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Term> terms = new TreeMap<>();
+    private final Map<Long, IntPostings> termsByTrigram = new HashMap<>();
+    private final ArrayDeque<Integer> freeTermIds = new ArrayDeque<>();
+    private Term[] termsById = new Term[1024];
+    private int termIdLimit;
+    private final Map<Integer, IntPostings> rowsByCompany = new HashMap<>();
+
+    SearchIndex(EmployeeStorage storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public void add(int row, Employee employee) {
+        lock.writeLock().lock();
+        try {
+            for (String word : words(employee.getFullName())) {
+                term(word).postings(Field.NAME).add(row);
+            }
+            for (String word : words(employee.getEmail())) {
+                term(word).postings(Field.EMAIL).add(row);
+            }
+            int companyId = employee.getCompanyId();
+            IntPostings rows = rowsByCompany.get(companyId);
+            if (rows == null) {
+                rows = new IntPostings();
+                rowsByCompany.put(companyId, rows);
+                for (String word : words(employee.getCompanyName())) {
+                    term(word).postings(Field.COMPANY).add(companyId);
+                }
+            }
+            rows.add(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(int row, Employee employee) {
+        lock.writeLock().lock();
+        try {
+            for (String word : words(employee.getFullName())) {
+                unpost(word, Field.NAME, row);
+            }
+            for (String word : words(employee.getEmail())) {
+                unpost(word, Field.EMAIL, row);
+            }
+            int companyId = employee.getCompanyId();
+            IntPostings rows = rowsByCompany.get(companyId);
+            if (rows != null && rows.remove(row) && rows.isEmpty()) {
+                rowsByCompany.remove(companyId);
+                for (String word : words(employee.getCompanyName())) {
+                    unpost(word, Field.COMPANY, companyId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Up to {@code limit} employees matching every word of {@code query}, best first. */
+    List<Employee> search(String query, int limit) {
+        List<String> queryWords = words(query);
+        if (queryWords.isEmpty()) {
+            return List.of();
+        }
+        String driver = queryWords.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+        int othersMax = (queryWords.size() - 1) * MAX_SCORE;
+        int chunk = (int) Math.min(Math.max(2L * limit, MIN_CHUNK), MAX_CHUNK);
+        TopHits top = new TopHits(limit);
+        BitSet seen = new BitSet();
+        for (Tier tier : TIERS) {
+            int bound = tier.score() + othersMax;
+            if (top.cannotImprove(bound)) {
+                break;
+            }
+            TierScan scan = new TierScan(driver, tier);
+            while (!scan.done) {
+                int[] candidates;
+                lock.readLock().lock();
+                try {
+                    candidates = scan.next(chunk, seen);
+                } finally {
+                    lock.readLock().unlock();
+                }
+                for (int row : candidates) {
+                    // scored in full: the row may have been removed or reused since its id was copied
+                    Employee employee = storage.get(row);
+                    int score = employee == null ? -1 : score(employee, queryWords);
+                    if (score >= 0) {
+                        top.offer(employee, score);
+                        if (top.cannotImprove(bound)) {
+                            return top.employees();
+                        }
+                    }
+                }
+            }
+        }
+        return top.employees();
+    }
+
+    /** Distinct normalized words of {@code text}, in order. */
+    static List<String> words(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        String folded = fold(text);
+        List<String> words = new ArrayList<>(4);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String word = folded.substring(start, i);
+                if (!words.contains(word)) {
+                    words.add(word);
+                }
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    // verifying candidates folds every field, so plain ASCII skips the normalizer
+    private static String fold(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                        .toLowerCase(Locale.ROOT)
+                        .replace('ł', 'l');
+            }
+        }
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    private Term term(String word) {
+        Term term = terms.get(word);
+        if (term == null) {
+            Integer free = freeTermIds.poll();
+            int id = free != null ? free : termIdLimit++;
+            if (id == termsById.length) {
+                termsById = Arrays.copyOf(termsById, id * 2);
+            }
+            term = new Term(id, word);
+            termsById[id] = term;
+            terms.put(word, term);
+            for (long trigram : trigrams(word)) {
+                termsByTrigram.computeIfAbsent(trigram, t -> new IntPostings()).add(id);
+            }
+        }
+        return term;
+    }
+
+    private void unpost(String word, Field field, int value) {
+        Term term = terms.get(word);
+        IntPostings postings = term == null ? null : term.find(field);
+        if (postings == null || !postings.remove(value) || !term.isEmpty()) {
+            return;
+        }
+        terms.remove(word);
+        termsById[term.id] = null;
+        freeTermIds.push(term.id);
+        for (long trigram : trigrams(word)) {
+            IntPostings ids = termsByTrigram.get(trigram);
+            ids.remove(term.id);
+            if (ids.isEmpty()) {
+                termsByTrigram.remove(trigram);
+            }
+        }
+    }
+
+    // Terms the word matches by kind, starting at the term {@code from} (its text,
+    // or its id for substrings) when resuming, or at the first one when null.
+    private Iterable<Term> matching(String word, Kind kind, Term from) {
+        switch (kind) {
+            case EXACT: {
+                Term term = terms.get(word);
+                return term == null ? List.of() : List.of(term);
+            }
+            case PREFIX:
+                return from == null
+                        ? terms.subMap(word, false, word + Character.MAX_VALUE, false).values()
+                        : terms.subMap(from.text, true, word + Character.MAX_VALUE, false).values();
+            default:
+                return containing(word, from == null ? 0 : from.id);
+        }
+    }
+
+    // Terms holding the word other than at the start (those are prefix matches),
+    // in term id order from fromId. Lazy, so a search that fills up early stops intersecting.
+    private Iterable<Term> containing(String word, int fromId) {
+        if (word.length() < MIN_SUBSTRING) {
+            return List.of();
+        }
+        List<IntPostings> postings = new ArrayList<>();
+        for (long trigram : trigrams(word)) {
+            IntPostings ids = termsByTrigram.get(trigram);
+            if (ids == null) {
+                return List.of();
+            }
+            postings.add(ids);
+        }
+        postings.sort(Comparator.comparingInt(IntPostings::size));
+        return () -> new Iterator<>() {
+            private final PrimitiveIterator.OfInt ids = postings.get(0).iterator(fromId);
+            private Term next = advance();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Term next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Term current = next;
+                next = advance();
+                return current;
+            }
+
+            private Term advance() {
+                candidates:
+                while (ids.hasNext()) {
+                    int id = ids.nextInt();
+                    for (int i = 1; i < postings.size(); i++) {
+                        if (!postings.get(i).contains(id)) {
+                            continue candidates;
+                        }
+                    }
+                    Term term = termsById[id];
+                    if (term.text.indexOf(word, 1) > 0) {
+                        return term;
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    /** Sum of the best scores of {@code queryWords} on the employee, or -1 if one does not match. */
+    private static int score(Employee employee, List<String> queryWords) {
+        if (queryWords.isEmpty()) {
+            return 0;
+        }
+        List<List<String>> fields = List.of(
+                words(employee.getFullName()), words(employee.getEmail()), words(employee.getCompanyName()));
+        int total = 0;
+        for (String queryWord : queryWords) {
+            int best = -1;
+            for (Field field : FIELDS) {
+                for (String word : fields.get(field.ordinal())) {
+                    Kind kind = word.equals(queryWord) ? Kind.EXACT
+                            : word.startsWith(queryWord) ? Kind.PREFIX
+                            : queryWord.length() >= MIN_SUBSTRING && word.contains(queryWord) ? Kind.SUBSTRING
+                            : null;
+                    if (kind != null) {
+                        best = Math.max(best, score(kind, field));
+                    }
+                }
+            }
+            if (best < 0) {
+                return -1;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private static int score(Kind kind, Field field) {
+        return kind.points * FIELDS.length + field.points + 1;
+    }
+
+    private static List<Tier> tiers() {
+        List<Tier> tiers = new ArrayList<>();
+        for (Kind kind : Kind.values()) {
+            for (Field field : FIELDS) {
+                tiers.add(new Tier(kind, field, score(kind, field)));
+            }
+        }
+        tiers.sort(Comparator.comparingInt(Tier::score).reversed());
+        return List.copyOf(tiers);
+    }
+
+    private static long[] trigrams(String word) {
+        if (word.length() < MIN_SUBSTRING) {
+            return new long[0];
+        }
+        long[] trigrams = new long[word.length() - MIN_SUBSTRING + 1];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = ((long) word.charAt(i) << 32) | ((long) word.charAt(i + 1) << 16) | word.charAt(i + 2);
+        }
+        return trigrams;
+    }
+
+    private static final class Term {
+        private final int id;
+        private final String text;
+        // rows for NAME and EMAIL, company ids for COMPANY; allocated on first use
+        private final IntPostings[] postings = new IntPostings[FIELDS.length];
+
+        Term(int id, String text) {
+            this.id = id;
+            this.text = text;
+        }
+
+        IntPostings find(Field field) {
+            return postings[field.ordinal()];
+        }
+
+        IntPostings postings(Field field) {
+            IntPostings result = postings[field.ordinal()];
+            if (result == null) {
+                result = new IntPostings();
+                postings[field.ordinal()] = result;
+            }
+            return result;
+        }
+
+        boolean isEmpty() {
+            for (IntPostings p : postings) {
+                if (p != null && !p.isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The rows one tier's driver matches, not met in a better tier, handed out a
+     * chunk at a time in term order. Between chunks the scan keeps positions, not
+     * iterators: the term it was reading and the last company and row taken from
+     * it, so it resumes correctly after writers have run. Must be called under the
+     * read lock.
+     */
+    private final class TierScan {
+        private final String driver;
+        private final Tier tier;
+        private Term term;
+        private int company = -1;
+        private int row = -1;
+        private int walk;
+        private boolean done;
+
+        TierScan(String driver, Tier tier) {
+            this.driver = driver;
+            this.tier = tier;
+        }
+
+        // up to max unseen rows; walks at most a few chunks' worth of postings,
+        // so rows already met in a better tier cannot make one call unbounded
+        int[] next(int max, BitSet seen) {
+            int[] rows = new int[max];
+            int count = 0;
+            walk = max * 4;
+            for (Term next : matching(driver, tier.kind(), term)) {
+                if (next != term) {
+                    term = next;
+                    company = -1;
+                    row = -1;
+                }
+                IntPostings postings = next.find(tier.field());
+                if (postings == null) {
+                    continue;
+                }
+                if (tier.field() != Field.COMPANY) {
+                    count = take(postings, rows, count, seen);
+                } else {
+                    PrimitiveIterator.OfInt companies = postings.iterator(Math.max(company, 0));
+                    while (count < max && walk > 0 && companies.hasNext()) {
+                        int id = companies.nextInt();
+                        if (id != company) {
+                            company = id;
+                            row = -1;
+                        }
+                        IntPostings companyRows = rowsByCompany.get(id);
+                        if (companyRows != null) {
+                            count = take(companyRows, rows, count, seen);
+                        }
+                    }
+                }
+                if (count == max || walk <= 0) {
+                    return Arrays.copyOf(rows, count);
+                }
+            }
+            done = true;
+            return Arrays.copyOf(rows, count);
+        }
+
+        private int take(IntPostings postings, int[] rows, int count, BitSet seen) {
+            PrimitiveIterator.OfInt it = postings.iterator(row + 1);
+            while (count < rows.length && walk > 0 && it.hasNext()) {
+                row = it.nextInt();
+                walk--;
+                if (!seen.get(row)) {
+                    seen.set(row);
+                    rows[count++] = row;
+                }
+            }
+            return count;
+        }
+    }
+
+    /** Best {@code limit} hits so far; among equal scores the one found first wins. */
+    private static final class TopHits {
+        private record Hit(Employee employee, int score, long order) {
+        }
+
+        private static final Comparator<Hit> WORST_FIRST = Comparator.comparingInt(Hit::score)
+                .thenComparing(Comparator.comparingLong(Hit::order).reversed());
+
+        private final int limit;
+        private final PriorityQueue<Hit> hits = new PriorityQueue<>(WORST_FIRST);
+        private long found;
+
+        TopHits(int limit) {
+            this.limit = limit;
+        }
+
+        void offer(Employee employee, int score) {
+            Hit hit = new Hit(employee, score, found++);
+            if (hits.size() < limit) {
+                hits.add(hit);
+            } else if (WORST_FIRST.compare(hit, hits.peek()) > 0) {
+                hits.poll();
+                hits.add(hit);
+            }
+        }
+
+        // nothing scoring at most bound, found from now on, could enter
+        boolean cannotImprove(int bound) {
+            return hits.size() == limit && hits.peek().score() >= bound;
+        }
+
+        List<Employee> employees() {
+            List<Hit> sorted = new ArrayList<>(hits);
+            sorted.sort(WORST_FIRST.reversed());
+            return sorted.stream().map(Hit::employee).toList();
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.techcorp.service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+import com.techcorp.model.Employee;
+import com.techcorp.model.EmploymentStatus;
+import com.techcorp.model.Position;
+
+/**
+ * Binary image of the employee store at one {@link WriteAheadLog} epoch, so a
+ * restart replays only the log written since instead of every mutation ever made.
+ * <p>
+ * Layout after a fixed header: a dictionary section (position, status and
+ * company names; rows refer to them by index, so enum order may change),
+ * fixed-width columns for salary, company, position and status, a column of
+ * UTF-8 lengths for e-mail, full name and photo (-1 for none), and the string
+ * bytes themselves. The body is
+ * covered by one CRC32C. Loading maps the file read-only, so the columns are
+ * read straight from the page cache without a parse step; the string section
+ * is mapped in windows because it may outgrow a single buffer.
+ * <p>
+ * A snapshot is written to a temporary file, forced and then moved over the
+ * previous one, so a crash leaves either the old or the new snapshot in place.
+ */
+public final class SnapshotFile {
+
+    private static final int MAGIC = 0x45534E50; // "ESNP"
+    private static final int FORMAT = 1;
+    // magic, format, epoch, rows, companies, dictionary bytes, string bytes, crc
+    private static final int HEADER_BYTES = 44;
+    private static final int STRING_WINDOW = 1 << 30;
+    private static final int NONE = -1;
+
+    private final Path file;
+
+    public SnapshotFile(Path file) {
+        this.file = Objects.requireNonNull(file, "file");
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public boolean exists() {
+        return Files.exists(file);
+    }
+
+    /**
+     * Replaces the snapshot with {@code employees}.
+     *
+     * @param epoch log epoch whose entries come after this state
+     */
+    void write(long epoch, List<Employee> employees) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        int rows = employees.size();
+        // company names numbered in order of first use; employees of a company share one name
+        Map<String, Integer> local = new HashMap<>();
+        int[] companyOf = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            companyOf[i] = local.computeIfAbsent(employees.get(i).getCompanyName(), name -> local.size());
+        }
+        String[] usedNames = new String[local.size()];
+        local.forEach((name, id) -> usedNames[id] = name);
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            CRC32C crc = new CRC32C();
+            channel.position(HEADER_BYTES);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new CheckedOutputStream(Channels.newOutputStream(channel), crc), 1 << 16));
+
+            long dictionaryBytes = 8;
+            out.writeInt(Position.values().length);
+            out.writeInt(EmploymentStatus.values().length);
+            for (Position position : Position.values()) {
+                dictionaryBytes += writeString(out, position.name());
+            }
+            for (EmploymentStatus status : EmploymentStatus.values()) {
+                dictionaryBytes += writeString(out, status.name());
+            }
+            for (String name : usedNames) {
+                dictionaryBytes += writeString(out, name);
+            }
+            for (Employee employee : employees) {
+                out.writeDouble(employee.getSalary());
+            }
+            for (int i = 0; i < rows; i++) {
+                out.writeInt(companyOf[i]);
+            }
+            for (Employee employee : employees) {
+                out.writeByte(employee.getPosition().ordinal());
+            }
+            for (Employee employee : employees) {
+                out.writeByte(employee.getStatus().ordinal());
+            }
+            long stringBytes = 0;
+            for (Employee employee : employees) {
+                stringBytes += writeLength(out, employee.getEmail());
+                stringBytes += writeLength(out, employee.getFullName());
+                stringBytes += writeLength(out, employee.getPhotoFileName());
+            }
+            for (Employee employee : employees) {
+                out.write(utf8(employee.getEmail()));
+                out.write(utf8(employee.getFullName()));
+                if (employee.getPhotoFileName() != null) {
+                    out.write(utf8(employee.getPhotoFileName()));
+                }
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                    .putInt(MAGIC).putInt(FORMAT).putLong(epoch).putInt(rows).putInt(usedNames.length)
+                    .putLong(dictionaryBytes).putLong(stringBytes).putInt((int) crc.getValue())
+                    .flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Feeds every employee of the snapshot to {@code consumer} in row order.
+     *
+     * @return the log epoch to replay from
+     * @throws IOException if the file is not a snapshot or fails its checksum
+     */
+    long load(Consumer<Employee> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException(file + " is not an employee snapshot");
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC) {
+                throw new IOException(file + " is not an employee snapshot");
+            }
+            int format = header.getInt();
+            if (format != FORMAT) {
+                throw new IOException(file + " has unsupported format " + format);
+            }
+            long epoch = header.getLong();
+            int rows = header.getInt();
+            int companies = header.getInt();
+            long dictionaryBytes = header.getLong();
+            long stringBytes = header.getLong();
+            int checksum = header.getInt();
+
+            long salaries = HEADER_BYTES + dictionaryBytes;
+            long companyColumn = salaries + 8L * rows;
+            long positionColumn = companyColumn + 4L * rows;
+            long statusColumn = positionColumn + rows;
+            long lengthColumn = statusColumn + rows;
+            long strings = lengthColumn + 12L * rows;
+            if (rows < 0 || companies < 0 || dictionaryBytes < 0 || stringBytes < 0
+                    || strings + stringBytes != size) {
+                throw new IOException(file + " is truncated or corrupt");
+            }
+            if (checksum(channel, HEADER_BYTES, size) != checksum) {
+                throw new IOException(file + " failed its checksum");
+            }
+
+            ByteBuffer dictionary = map(channel, HEADER_BYTES, dictionaryBytes);
+            Position[] positions = new Position[dictionary.getInt()];
+            EmploymentStatus[] statuses = new EmploymentStatus[dictionary.getInt()];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = Position.valueOf(readString(dictionary));
+            }
+            for (int i = 0; i < statuses.length; i++) {
+                statuses[i] = EmploymentStatus.valueOf(readString(dictionary));
+            }
+            String[] companyNames = new String[companies];
+            for (int i = 0; i < companies; i++) {
+                companyNames[i] = readString(dictionary);
+            }
+
+            ByteBuffer salaryBuffer = map(channel, salaries, 8L * rows);
+            ByteBuffer companyBuffer = map(channel, companyColumn, 4L * rows);
+            ByteBuffer positionBuffer = map(channel, positionColumn, rows);
+            ByteBuffer statusBuffer = map(channel, statusColumn, rows);
+            ByteBuffer lengthBuffer = map(channel, lengthColumn, 12L * rows);
+            StringSection text = new StringSection(channel, strings, stringBytes);
+            for (int row = 0; row < rows; row++) {
+                String email = text.next(lengthBuffer.getInt(row * 12));
+                String fullName = text.next(lengthBuffer.getInt(row * 12 + 4));
+                String photo = text.next(lengthBuffer.getInt(row * 12 + 8));
+                consumer.accept(new Employee(fullName, email, companyNames[companyBuffer.getInt(row * 4)],
+                        Employee.UNASSIGNED, positions[positionBuffer.get(row)], salaryBuffer.getDouble(row * 8),
+                        statuses[statusBuffer.get(row)], photo));
+            }
+            return epoch;
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException(file + " is corrupt", e);
+        }
+    }
+
+    private static int checksum(FileChannel channel, long from, long to) throws IOException {
+        CRC32C crc = new CRC32C();
+        for (long position = from; position < to; position += STRING_WINDOW) {
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(STRING_WINDOW, to - position)));
+        }
+        return (int) crc.getValue();
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long position, long length) throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot column of " + length + " bytes is too large to map");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+    }
+
+    private static int writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = utf8(value);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        return 4 + bytes.length;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int writeLength(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NONE);
+            return 0;
+        }
+        int length = utf8(value).length;
+        out.writeInt(length);
+        return length;
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Reads the string section front to back, remapping when a string would
+    // cross the end of the current window.
+    private static final class StringSection {
+        private final FileChannel channel;
+        private final long start;
+        private final long length;
+        private long windowStart;
+        private MappedByteBuffer window;
+        private byte[] scratch = new byte[256];
+
+        StringSection(FileChannel channel, long start, long length) throws IOException {
+            this.channel = channel;
+            this.start = start;
+            this.length = length;
+            remap(0);
+        }
+
+        String next(int size) throws IOException {
+            if (size == NONE) {
+                return null;
+            }
+            if (window.remaining() < size) {
+                remap(windowStart + window.position());
+            }
+            if (size > scratch.length) {
+                scratch = new byte[Math.max(size, scratch.length * 2)];
+            }
+            window.get(scratch, 0, size);
+            return new String(scratch, 0, size, StandardCharsets.UTF_8);
+        }
+
+        private void remap(long offset) throws IOException {
+            windowStart = offset;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start + offset,
+                    Math.min(STRING_WINDOW, length - offset));
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.techcorp.service;
+
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.techcorp.model.Employee;
+import com.techcorp.model.ImportSummary;
+
+/**
+ * Loads the initial employees from the CSV file, the XML bean list and the
+ * HTTP API. The sources are fetched concurrently on virtual threads, but
+ * added in that fixed order: each source waits only for the ones before it,
+ * so duplicates resolve exactly as in a sequential load (the first source
+ * wins) while a slow API never holds back the CSV or XML employees.
+ * <p>
+ * The application reports {@link ReadinessState#REFUSING_TRAFFIC} from the
+ * start of a load until every source has been added or has failed.
+ */
+@Service
+public class StartupDataLoader {
+
+    public enum State {
+        NOT_STARTED,
+        LOADING,
+        READY
+    }
+
+    /**
+     * Outcome of one source. {@code fetchMillis} is the time spent reading it,
+     * {@code readyAfterMillis} the time from the start of the load until its
+     * employees were in the store.
+     */
+    public record SourceReport(String source, int added, List<String> errors, long fetchMillis,
+                               long readyAfterMillis) {
+    }
+
+    /**
+     * {@code restored} is true when nothing was loaded because the store already
+     * held employees or is a replication follower, which gets them from the leader.
+     */
+    public record Report(boolean restored, List<SourceReport> sources, long totalMillis) {
+    }
+
+    private record Source(String name, Callable<Supplier<ImportSummary>> fetch) {
+    }
+
+    private final EmployeeService employeeService;
+    private final ImportService importService;
+    private final ApiService apiService;
+    private final List<Employee> xmlEmployees;
+    private final String csvPath;
+    private final ApplicationEventPublisher events;
+
+    private State state = State.NOT_STARTED;
+    private CompletableFuture<Report> load;
+
+    public StartupDataLoader(EmployeeService employeeService,
+                             ImportService importService,
+                             ApiService apiService,
+                             @Qualifier("xmlEmployees") List<Employee> xmlEmployees,
+                             @Value("${app.import.csv-file}") String csvPath,
+                             ApplicationEventPublisher events) {
+        this.employeeService = employeeService;
+        this.importService = importService;
+        this.apiService = apiService;
+        this.xmlEmployees = xmlEmployees;
+        this.csvPath = csvPath;
+        this.events = events;
+    }
+
+    /**
+     * Starts the load and returns at once; later calls return the same load.
+     * Skipped when the store was already restored from a snapshot or log, and
+     * on a replication follower.
+     */
+    public synchronized CompletableFuture<Report> start() {
+        if (load != null) {
+            return load;
+        }
+        long started = System.nanoTime();
+        if (employeeService.isReplica() || employeeService.size() > 0) {
+            // importing again would only report duplicates, and a follower refuses writes
+            state = State.READY;
+            load = CompletableFuture.completedFuture(new Report(true, List.of(), 0));
+            return load;
+        }
+        state = State.LOADING;
+        AvailabilityChangeEvent.publish(events, this, ReadinessState.REFUSING_TRAFFIC);
+
+        List<Source> sources = List.of(
+                new Source("CSV", () -> {
+                    ImportService.ParsedFile parsed = importService.parseCsv(resolveCsvPath());
+                    return () -> importService.importParsed(parsed);
+                }),
+                new Source("XML", () -> () -> importService.importAll(xmlEmployees, "XML ")),
+                new Source("API", () -> {
+                    List<Employee> fetched = apiService.fetchEmployeesFromApi();
+                    return () -> importService.importAll(fetched, "API ");
+                }));
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        CompletableFuture<List<SourceReport>> added = CompletableFuture.completedFuture(List.of());
+        for (Source source : sources) {
+            CompletableFuture<Fetched> fetched = CompletableFuture.supplyAsync(() -> fetch(source), executor);
+            added = added.thenCombine(fetched, (reports, result) -> {
+                List<SourceReport> next = new ArrayList<>(reports);
+                next.add(add(result, started));
+                return next;
+            });
+        }
+        load = added
+                .thenApply(reports -> new Report(false, List.copyOf(reports), millisSince(started)))
+                .whenComplete((report, failure) -> {
+                    executor.shutdown();
+                    ready();
+                });
+        return load;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /** The load started by {@link #start()}, or empty if it was never started. */
+    public synchronized Optional<CompletableFuture<Report>> getLoad() {
+        return Optional.ofNullable(load);
+    }
+
+    // Spring Boot reports ACCEPTING_TRAFFIC once the runners have returned,
+    // which is before a background load is done; hold it back until then.
+    @EventListener
+    public synchronized void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC && state == State.LOADING) {
+            AvailabilityChangeEvent.publish(events, this, ReadinessState.REFUSING_TRAFFIC);
+        }
+    }
+
+    private synchronized void ready() {
+        state = State.READY;
+        AvailabilityChangeEvent.publish(events, this, ReadinessState.ACCEPTING_TRAFFIC);
+    }
+
+    // a classpath resource when one exists under that name, otherwise a file path
+    private String resolveCsvPath() {
+        try {
+            URL url = Thread.currentThread().getContextClassLoader().getResource(csvPath);
+            if (url != null) {
+                return Path.of(url.toURI()).toString();
+            }
+        } catch (URISyntaxException | FileSystemNotFoundException e) {
+            // not a plain file on the classpath; read it as a path
+        }
+        return csvPath;
+    }
+
+    // either the deferred insert or the reason the source could not be read
+    private record Fetched(String source, Supplier<ImportSummary> insert, Exception failure, long fetchMillis) {
+    }
+
+    private static Fetched fetch(Source source) {
+        long started = System.nanoTime();
+        try {
+            return new Fetched(source.name(), source.fetch().call(), null, millisSince(started));
+        } catch (Exception e) {
+            return new Fetched(source.name(), null, e, millisSince(started));
+        }
+    }
+
+    private static SourceReport add(Fetched fetched, long loadStarted) {
+        if (fetched.failure() != null) {
+            return new SourceReport(fetched.source(), 0, List.of(describe(fetched.failure())),
+                    fetched.fetchMillis(), millisSince(loadStarted));
+        }
+        try {
+            ImportSummary summary = fetched.insert().get();
+            return new SourceReport(fetched.source(), summary.getImportedCount(), List.copyOf(summary.getErrors()),
+                    fetched.fetchMillis(), millisSince(loadStarted));
+        } catch (RuntimeException e) {
+            // later sources are still added
+            return new SourceReport(fetched.source(), 0, List.of(describe(e)), fetched.fetchMillis(),
+                    millisSince(loadStarted));
+        }
+    }
+
+    private static String describe(Exception failure) {
+        return Objects.requireNonNullElse(failure.getMessage(), failure.getClass().getSimpleName());
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
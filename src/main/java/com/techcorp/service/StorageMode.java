@@ -0,0 +1,24 @@
+package com.techcorp.service;
+
+/**
+ * Where {@link EmployeeService} keeps employee records, set with
+ * {@code app.storage.mode}.
+ */
+public enum StorageMode {
+    /** Ordinary Employee objects on the Java heap. */
+    HEAP,
+    /**
+     * Fixed-width records and a string arena in direct memory; Employee objects
+     * are created only when returned to a caller. Intended for tens of millions
+     * of employees, where heap objects make GC pauses dominate latency.
+     */
+    OFF_HEAP;
+
+    static final String PROPERTY = "app.storage.mode";
+
+    /** Mode from the {@code app.storage.mode} system property, HEAP when unset. */
+    static StorageMode fromSystemProperty() {
+        String value = System.getProperty(PROPERTY);
+        return value == null || value.isBlank() ? HEAP : valueOf(value.trim().toUpperCase().replace('-', '_'));
+    }
+}
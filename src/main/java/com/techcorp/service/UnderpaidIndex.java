@@ -0,0 +1,61 @@
+package com.techcorp.service;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.techcorp.model.Employee;
+
+/**
+ * Rows of employees earning less than their position's base salary, in row
+ * order. Adds, updates and position changes all arrive as remove/add pairs,
+ * so the set never needs a full rescan.
+ */
+class UnderpaidIndex implements EmployeeIndex {
+
+    private final EmployeeStorage storage;
+    private final NavigableSet<Integer> underpaid = new ConcurrentSkipListSet<>();
+    // ConcurrentSkipListSet.size() walks the whole set
+    private final AtomicInteger count = new AtomicInteger();
+
+    UnderpaidIndex(EmployeeStorage storage) {
+        this.storage = storage;
+    }
+
+    static boolean isUnderpaid(Employee employee) {
+        return employee.getSalary() < employee.getPosition().getBaseSalary();
+    }
+
+    @Override
+    public void add(int row, Employee employee) {
+        if (isUnderpaid(employee) && underpaid.add(row)) {
+            count.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void remove(int row, Employee employee) {
+        if (underpaid.remove(row)) {
+            count.decrementAndGet();
+        }
+    }
+
+    List<Employee> all() {
+        return storage.get(underpaid);
+    }
+
+    /** One page of {@code size} employees; skipping earlier pages walks the skip list, no lookups. */
+    List<Employee> page(int page, int size) {
+        Iterator<Integer> rows = underpaid.iterator();
+        for (long skip = (long) page * size; skip > 0 && rows.hasNext(); skip--) {
+            rows.next();
+        }
+        return storage.get(() -> rows, size);
+    }
+
+    int count() {
+        return count.get();
+    }
+}
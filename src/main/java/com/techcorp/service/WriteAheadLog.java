@@ -0,0 +1,539 @@
+package com.techcorp.service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+import com.techcorp.model.Employee;
+import com.techcorp.model.EmploymentStatus;
+import com.techcorp.model.Position;
+
+/**
+ * Append-only log of employee mutations, replayed by {@link EmployeeService} on
+ * startup. Each entry is framed as {@code [length][crc32c][payload]}; replay
+ * stops at the first torn or corrupt frame and cuts the file there, so a crash
+ * mid-append loses at most the entries that were never acknowledged.
+ * <p>
+ * Appends are serialized by the service write lock and only reach the OS page
+ * cache. Durability is a separate step taken after the write lock is released,
+ * which is what lets concurrent writers share an fsync (group commit): the
+ * first writer to wait forces everything appended so far, and writers that
+ * appended meanwhile are covered by the next force instead of each paying
+ * their own. Company names and enum constants are written by name, so a log
+ * stays readable when ids or declaration order change.
+ * <p>
+ * Every log file carries an epoch. {@link #rotate()} moves the current file
+ * aside as {@code <name>.<epoch>} and starts the next epoch, so a checkpoint
+ * can write a {@link SnapshotFile} of the state at the rotation without holding
+ * writers back; once the snapshot is on disk the older files are dropped with
+ * {@link #dropBefore(long)}. Positions handed to writers keep growing across
+ * rotations.
+ */
+public final class WriteAheadLog implements Closeable {
+
+    /** When an acknowledged write is guaranteed to be on disk, set with {@code app.wal.durability}. */
+    public enum Durability {
+        /** Before the write returns; concurrent writers share one fsync. */
+        EVERY_WRITE,
+        /** Within {@code app.wal.sync-interval-ms}; a crash loses at most that window. */
+        INTERVAL,
+        /** Whenever the OS writes the page cache back; survives a process crash, not a power loss. */
+        OS
+    }
+
+    /** A logged mutation. */
+    public sealed interface Entry permits Put, Delete, Move, Rename {
+    }
+
+    /** The employee's full state after an add or update. */
+    public record Put(Employee employee) implements Entry {
+    }
+
+    public record Delete(String email) implements Entry {
+    }
+
+    /** An update that changed the e-mail: one entry, so no reader can see the delete without the put. */
+    public record Move(String oldEmail, Employee employee) implements Entry {
+    }
+
+    public record Rename(String oldName, String newName) implements Entry {
+    }
+
+    private static final int MAGIC = 0x4557414C; // "EWAL"
+    private static final int FORMAT = 2;
+    private static final int HEADER_BYTES = 16;
+    private static final int FRAME_BYTES = 8;
+    private static final int MAX_ENTRY_BYTES = 1 << 20;
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte RENAME = 3;
+    private static final byte MOVE = 4;
+
+    private final Path file;
+    // replaced by rotate(), which runs with appends held off and no sync in progress
+    private volatile FileChannel channel;
+    private long epoch;
+    // log position of the first byte of the current file
+    private volatile long base;
+    private final Durability durability;
+    private final ScheduledExecutorService syncer;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+    private final DataOutputStream out = new DataOutputStream(buffer);
+    private final CRC32C crc = new CRC32C();
+
+    // end of the last complete entry; written by appenders only
+    private volatile long written;
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition syncDone = syncLock.newCondition();
+    private long synced;
+    private boolean syncing;
+
+    private WriteAheadLog(Path file, FileChannel channel, long epoch, Durability durability,
+                          long syncIntervalMillis) {
+        this.file = file;
+        this.channel = channel;
+        this.epoch = epoch;
+        this.durability = durability;
+        if (durability == Durability.INTERVAL) {
+            this.syncer = Executors.newSingleThreadScheduledExecutor(
+                    task -> Thread.ofPlatform().name("employee-wal-sync").daemon().unstarted(task));
+            syncer.scheduleWithFixedDelay(this::syncQuietly, syncIntervalMillis, syncIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.syncer = null;
+        }
+    }
+
+    /**
+     * Opens the log, creating it and its directory if needed.
+     *
+     * @param syncIntervalMillis how often INTERVAL mode forces the log; ignored otherwise
+     */
+    public static WriteAheadLog open(Path file, Durability durability, long syncIntervalMillis) throws IOException {
+        Objects.requireNonNull(file, "file");
+        Objects.requireNonNull(durability, "durability");
+        if (durability == Durability.INTERVAL && syncIntervalMillis <= 0) {
+            throw new IllegalArgumentException("syncIntervalMillis must be positive");
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                writeHeader(channel, 0);
+            }
+            return new WriteAheadLog(file, channel, readEpoch(channel, file), durability, syncIntervalMillis);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public Durability durability() {
+        return durability;
+    }
+
+    /** Epoch of the file currently appended to. */
+    public long epoch() {
+        return epoch;
+    }
+
+    int replay(Consumer<Entry> consumer) throws IOException {
+        return replay(consumer, 0);
+    }
+
+    /**
+     * Feeds every complete entry from epoch {@code fromEpoch} on to
+     * {@code consumer} in log order: first the rotated files still on disk,
+     * then the current one. Positions the log after the last entry, cutting off
+     * a torn tail. A current file older than {@code fromEpoch} is already
+     * covered by the snapshot and is emptied. Must be called once, before the
+     * first append.
+     *
+     * @return number of entries replayed
+     */
+    int replay(Consumer<Entry> consumer, long fromEpoch) throws IOException {
+        int count = 0;
+        long required = fromEpoch;
+        for (Path rotated : rotatedFiles()) {
+            long rotatedEpoch = rotatedEpoch(rotated);
+            required = Math.max(required, rotatedEpoch + 1);
+            if (rotatedEpoch < fromEpoch) {
+                continue;
+            }
+            try (FileChannel old = FileChannel.open(rotated, StandardOpenOption.READ)) {
+                readEpoch(old, rotated); // only to reject a file that is not a current-format log
+                count += (int) readEntries(old, rotated, HEADER_BYTES, consumer)[1];
+            }
+        }
+        long position;
+        if (epoch < required) {
+            // stale (covered by the snapshot) or recreated after a crash mid-rotation
+            channel.truncate(0);
+            writeHeader(channel, required);
+            epoch = required;
+            position = HEADER_BYTES;
+        } else {
+            long[] read = readEntries(channel, file, HEADER_BYTES, consumer);
+            position = read[0];
+            count += (int) read[1];
+            if (channel.size() > position) {
+                channel.truncate(position);
+                channel.force(true);
+            }
+        }
+        channel.position(position);
+        written = position;
+        syncLock.lock();
+        try {
+            synced = position;
+        } finally {
+            syncLock.unlock();
+        }
+        return count;
+    }
+
+    // returns {end of the last complete entry, number of entries}
+    private long[] readEntries(FileChannel channel, Path source, long start, Consumer<Entry> consumer)
+            throws IOException {
+        long position = start;
+        int count = 0;
+        channel.position(position);
+        InputStream stream = new BufferedInputStream(Channels.newInputStream(channel), 1 << 16);
+        DataInputStream in = new DataInputStream(stream);
+        byte[] payload = new byte[256];
+        while (true) {
+            int length;
+            int checksum;
+            try {
+                length = in.readInt();
+                checksum = in.readInt();
+                if (length <= 0 || length > MAX_ENTRY_BYTES) {
+                    break;
+                }
+                if (length > payload.length) {
+                    payload = new byte[Math.max(length, payload.length * 2)];
+                }
+                in.readFully(payload, 0, length);
+            } catch (EOFException torn) {
+                break;
+            }
+            crc.reset();
+            crc.update(payload, 0, length);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            consumer.accept(decode(new DataInputStream(new ByteArrayInputStream(payload, 0, length)),
+                    source.toString()));
+            position += FRAME_BYTES + length;
+            count++;
+        }
+        return new long[] {position, count};
+    }
+
+    /**
+     * Appends one entry. Called with the service write lock held, before the
+     * change is applied; a failed append leaves the log as it was.
+     *
+     * @return log position to pass to {@link #awaitDurable(long)}
+     */
+    long append(Entry entry) {
+        try {
+            buffer.reset();
+            out.writeLong(0); // frame, filled in below
+            encode(entry, out);
+            byte[] bytes = buffer.toByteArray();
+            int length = bytes.length - FRAME_BYTES;
+            crc.reset();
+            crc.update(bytes, FRAME_BYTES, length);
+            ByteBuffer frame = ByteBuffer.wrap(bytes);
+            frame.putInt(0, length).putInt(4, (int) crc.getValue());
+            long start = written;
+            long offset = start - base;
+            try {
+                while (frame.hasRemaining()) {
+                    channel.write(frame, offset + frame.position());
+                }
+            } catch (IOException e) {
+                // keep the tail clean so later entries are not hidden behind a torn one
+                channel.truncate(offset);
+                throw e;
+            }
+            written = start + bytes.length;
+            return written;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to " + file, e);
+        }
+    }
+
+    /**
+     * Returns once everything up to {@code position} is as durable as the mode
+     * promises. In EVERY_WRITE mode the caller either forces the log itself,
+     * covering every writer that appended before it, or waits for the force in
+     * progress and then checks again.
+     */
+    void awaitDurable(long position) {
+        if (durability == Durability.EVERY_WRITE) {
+            sync(position);
+        }
+    }
+
+    /** Forces everything appended so far, whatever the mode. */
+    public void sync() {
+        sync(written);
+    }
+
+    private void sync(long position) {
+        syncLock.lock();
+        try {
+            while (synced < position) {
+                if (syncing) {
+                    syncDone.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                long target = written;
+                FileChannel current = channel;
+                boolean forced = false;
+                syncLock.unlock();
+                try {
+                    current.force(false);
+                    forced = true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not sync " + file, e);
+                } finally {
+                    syncLock.lock();
+                    syncing = false;
+                    if (forced) {
+                        synced = Math.max(synced, target);
+                    }
+                    syncDone.signalAll();
+                }
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (UncheckedIOException e) {
+            // retried on the next tick; writers are not told in INTERVAL mode
+        }
+    }
+
+    /**
+     * Forces the current file, moves it aside as {@code <name>.<epoch>} and
+     * starts an empty file in the next epoch. Called with appends held off (the
+     * service write lock); everything appended before is durable when it returns.
+     *
+     * @return the new epoch; a snapshot of the state at this point belongs to it
+     */
+    long rotate() {
+        sync();
+        syncLock.lock();
+        try {
+            while (syncing) {
+                syncDone.awaitUninterruptibly();
+            }
+            syncing = true;
+        } finally {
+            syncLock.unlock();
+        }
+        try {
+            channel.close();
+            Files.move(file, rotatedFile(epoch));
+            FileChannel next = FileChannel.open(file,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            writeHeader(next, epoch + 1);
+            next.position(HEADER_BYTES);
+            channel = next;
+            epoch++;
+            base = written;
+            written = base + HEADER_BYTES;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not rotate " + file, e);
+        } finally {
+            syncLock.lock();
+            try {
+                syncing = false;
+                synced = written;
+                syncDone.signalAll();
+            } finally {
+                syncLock.unlock();
+            }
+        }
+        return epoch;
+    }
+
+    /** Deletes the rotated files older than {@code epoch}, once a snapshot covers them. */
+    void dropBefore(long epoch) throws IOException {
+        for (Path rotated : rotatedFiles()) {
+            if (rotatedEpoch(rotated) < epoch) {
+                Files.deleteIfExists(rotated);
+            }
+        }
+    }
+
+    /** Bytes in the current file, header included. */
+    long size() {
+        return written - base;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (syncer != null) {
+            syncer.shutdownNow();
+        }
+        if (channel.isOpen()) {
+            try {
+                channel.force(false);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    private Path rotatedFile(long epoch) {
+        return file.resolveSibling(file.getFileName() + "." + epoch);
+    }
+
+    // rotated files in epoch order
+    private List<Path> rotatedFiles() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        String prefix = file.getFileName() + ".";
+        List<Path> rotated = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(parent, prefix + "*")) {
+            for (Path path : stream) {
+                String suffix = path.getFileName().toString().substring(prefix.length());
+                if (!suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit)) {
+                    rotated.add(path);
+                }
+            }
+        }
+        rotated.sort((a, b) -> Long.compare(rotatedEpoch(a), rotatedEpoch(b)));
+        return rotated;
+    }
+
+    private static long rotatedEpoch(Path rotated) {
+        String name = rotated.getFileName().toString();
+        return Long.parseLong(name.substring(name.lastIndexOf('.') + 1));
+    }
+
+    private static void writeHeader(FileChannel channel, long epoch) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(FORMAT).putLong(epoch).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, HEADER_BYTES - header.remaining());
+        }
+        channel.force(true);
+    }
+
+    private static long readEpoch(FileChannel channel, Path source) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < 8 || header.getInt(0) != MAGIC) {
+            throw new IOException(source + " is not an employee log");
+        }
+        int format = header.getInt(4);
+        if (format != FORMAT) {
+            throw new IOException(source + " has unsupported format " + format);
+        }
+        if (header.remaining() < HEADER_BYTES) {
+            throw new IOException(source + " has a truncated header");
+        }
+        return header.getLong(8);
+    }
+
+    // the payload of a frame; replication ships entries in the same encoding
+    static void encode(Entry entry, DataOutputStream out) throws IOException {
+        switch (entry) {
+            case Put put -> {
+                out.writeByte(PUT);
+                encodeEmployee(put.employee(), out);
+            }
+            case Move move -> {
+                out.writeByte(MOVE);
+                out.writeUTF(move.oldEmail());
+                encodeEmployee(move.employee(), out);
+            }
+            case Delete delete -> {
+                out.writeByte(DELETE);
+                out.writeUTF(delete.email());
+            }
+            case Rename rename -> {
+                out.writeByte(RENAME);
+                out.writeUTF(rename.oldName());
+                out.writeUTF(rename.newName());
+            }
+        }
+    }
+
+    static Entry decode(DataInputStream in, String source) throws IOException {
+        byte type = in.readByte();
+        return switch (type) {
+            case PUT -> new Put(decodeEmployee(in));
+            case MOVE -> new Move(in.readUTF(), decodeEmployee(in));
+            case DELETE -> new Delete(in.readUTF());
+            case RENAME -> new Rename(in.readUTF(), in.readUTF());
+            default -> throw new IOException("Unknown log entry type " + type + " in " + source);
+        };
+    }
+
+    private static void encodeEmployee(Employee employee, DataOutputStream out) throws IOException {
+        out.writeUTF(employee.getEmail());
+        out.writeUTF(employee.getFullName());
+        out.writeUTF(employee.getCompanyName());
+        out.writeUTF(employee.getPosition().name());
+        out.writeDouble(employee.getSalary());
+        out.writeUTF(employee.getStatus().name());
+        out.writeBoolean(employee.getPhotoFileName() != null);
+        if (employee.getPhotoFileName() != null) {
+            out.writeUTF(employee.getPhotoFileName());
+        }
+    }
+
+    private static Employee decodeEmployee(DataInputStream in) throws IOException {
+        String email = in.readUTF();
+        String fullName = in.readUTF();
+        String companyName = in.readUTF();
+        Position position = Position.valueOf(in.readUTF());
+        double salary = in.readDouble();
+        EmploymentStatus status = EmploymentStatus.valueOf(in.readUTF());
+        String photo = in.readBoolean() ? in.readUTF() : null;
+        return new Employee(fullName, email, companyName, Employee.UNASSIGNED, position, salary, status, photo);
+    }
+}
@@ -4,12 +4,16 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
@@ -21,22 +25,31 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.techcorp.dto.EmployeeDTO;
 import com.techcorp.exception.DuplicateEmailException;
 import com.techcorp.exception.EmployeeNotFoundException;
+import com.techcorp.model.BatchMode;
+import com.techcorp.model.BatchResult;
 import com.techcorp.model.Employee;
+import com.techcorp.model.EmployeeFilter;
 import com.techcorp.model.EmploymentStatus;
 import com.techcorp.model.Position;
+import com.techcorp.service.StorageMode;
 import com.techcorp.service.EmployeeService;
+import com.techcorp.service.QueryExplain;
+import com.techcorp.service.QueryResult;
 import com.techcorp.service.ImportService;
 import com.techcorp.service.ApiService;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -60,6 +73,9 @@ class EmployeeControllerTest {
     @MockBean
     private EmployeeService employeeService;
 
+    @MockBean
+    private EmployeeChangeStream changeStream;
+
     @MockBean
     private ImportService importService;
 
@@ -212,4 +228,174 @@ class EmployeeControllerTest {
 
         verify(employeeService, times(1)).findByStatus(EmploymentStatus.ACTIVE);
     }
+
+    @Test
+    void shouldCreateEmployeesInBatch() throws Exception {
+        EmployeeDTO jan = new EmployeeDTO("Jan", "Kowalski", "jan@test.com",
+                "TechCorp", Position.PROGRAMISTA, 8000, EmploymentStatus.ACTIVE);
+        EmployeeDTO anna = new EmployeeDTO("Anna", "Nowak", "anna@test.com",
+                "TechCorp", Position.MANAGER, 12000, EmploymentStatus.ACTIVE);
+
+        when(employeeService.addAll(any(), eq(BatchMode.SKIP_DUPLICATES))).thenReturn(new BatchResult(List.of(
+                new BatchResult.Item(0, "jan@test.com", BatchResult.Status.ADDED, null),
+                new BatchResult.Item(1, "anna@test.com", BatchResult.Status.SKIPPED, "już istnieje"))));
+
+        mockMvc.perform(post("/api/employees/batch")
+                        .param("mode", "SKIP_DUPLICATES")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(jan, anna))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].status", is("ADDED")))
+                .andExpect(jsonPath("$.items[1].status", is("SKIPPED")));
+
+        verify(employeeService, times(1)).addAll(any(), eq(BatchMode.SKIP_DUPLICATES));
+    }
+
+    @Test
+    void shouldReturnChangeSequenceWithEmployeeList() throws Exception {
+        when(employeeService.lastChangeSequence()).thenReturn(42L);
+        when(employeeService.getAllEmployees()).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/employees"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Change-Sequence", "42"));
+    }
+
+    @Test
+    void shouldResumeChangeStreamFromLastEventId() throws Exception {
+        when(changeStream.open(42L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/employees/changes")
+                        .header("Last-Event-ID", "42")
+                        .param("since", "7"))
+                .andExpect(request().asyncStarted());
+
+        verify(changeStream, times(1)).open(42L);
+    }
+
+    @Test
+    void shouldResumeAfterResetWhenReconnectingWithItsId() throws Exception {
+        // Arrange: a feed of 4 changes that has already overwritten the first ones
+        EmployeeService service = new EmployeeService(StorageMode.HEAP, 100_000, 4);
+        for (int i = 0; i < 6; i++) {
+            service.addEmployee(new Employee("Jan Kowalski" + i, "jan" + i + "@test.com", "TechCorp",
+                    Position.PROGRAMISTA, 8000));
+        }
+        EmployeeChangeStream stream = new EmployeeChangeStream(service, 60_000);
+        when(changeStream.open(anyLong())).thenAnswer(invocation -> stream.open(invocation.getArgument(0)));
+        try {
+            // Act: a client that fell behind gets a RESET, then reconnects with the id it carried
+            MvcResult reset = mockMvc.perform(get("/api/employees/changes").header("Last-Event-ID", "0"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            reset.getAsyncResult(5_000);
+            String resetEvent = reset.getResponse().getContentAsString();
+            MvcResult resumed = mockMvc.perform(get("/api/employees/changes").header("Last-Event-ID", "6"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            service.addEmployee(new Employee("Anna Nowak", "anna@test.com", "TechCorp", Position.MANAGER, 12000));
+            String resumedEvents = awaitContent(resumed, "anna@test.com");
+
+            // Assert
+            assertTrue(resetEvent.contains("id:6"), resetEvent);
+            assertTrue(resetEvent.contains("event:RESET"), resetEvent);
+            assertFalse(resumedEvents.contains("RESET"), resumedEvents);
+            assertTrue(resumedEvents.contains("id:7"), resumedEvents);
+            assertTrue(resumedEvents.contains("anna@test.com"), resumedEvents);
+        } finally {
+            stream.close();
+        }
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString();
+        }
+        return content;
+    }
+
+    @Test
+    void shouldSearchEmployees() throws Exception {
+        Employee emp = new Employee("Jan Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 8000);
+
+        when(employeeService.search("kowal", 5)).thenReturn(List.of(emp));
+
+        mockMvc.perform(get("/api/employees/search")
+                        .param("q", "kowal")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].email", is("jan@test.com")));
+
+        verify(employeeService, times(1)).search("kowal", 5);
+    }
+
+    @Test
+    void shouldFilterEmployeesByCombinedCriteria() throws Exception {
+        Employee emp = new Employee("Jan Kowalski", "jan@test.com", "TechCorp", Position.MANAGER, 12000);
+        EmployeeFilter filter = new EmployeeFilter(Set.of("TechCorp"), Set.of(Position.MANAGER, Position.PROGRAMISTA),
+                Set.of(EmploymentStatus.ACTIVE), 10000.0, null);
+
+        when(employeeService.filter(filter)).thenReturn(List.of(emp));
+
+        mockMvc.perform(get("/api/employees")
+                        .param("company", "TechCorp")
+                        .param("position", "MANAGER,PROGRAMISTA")
+                        .param("status", "ACTIVE")
+                        .param("minSalary", "10000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].email", is("jan@test.com")));
+
+        verify(employeeService, times(1)).filter(filter);
+    }
+
+    @Test
+    void shouldCountEmployeesMatchingCriteria() throws Exception {
+        EmployeeFilter filter = new EmployeeFilter(null, null, Set.of(EmploymentStatus.ACTIVE), null, 9000.0);
+
+        when(employeeService.count(filter)).thenReturn(7);
+
+        mockMvc.perform(get("/api/employees/count")
+                        .param("status", "ACTIVE")
+                        .param("maxSalary", "9000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count", is(7)));
+
+        verify(employeeService, times(1)).count(filter);
+    }
+
+    @Test
+    void shouldListEmployeesMatchingFilterExpression() throws Exception {
+        Employee emp = new Employee("Jan Kowalski", "jan@test.com", "TechCorp", Position.MANAGER, 12500);
+        String filter = "position==MANAGER;salary=gt=12000;company==TechCorp";
+        QueryExplain explain = new QueryExplain(filter, "INDEX(position)", 2, 2, 1, false, 40);
+
+        when(employeeService.query(filter)).thenReturn(new QueryResult(List.of(emp), explain));
+
+        mockMvc.perform(get("/api/employees").param("filter", filter))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].email", is("jan@test.com")));
+
+        mockMvc.perform(get("/api/employees").param("filter", filter).param("explain", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessPath", is("INDEX(position)")))
+                .andExpect(jsonPath("$.matchedRows", is(1)));
+
+        verify(employeeService, times(2)).query(filter);
+    }
+
+    @Test
+    void shouldRejectInvalidFilterExpression() throws Exception {
+        when(employeeService.query("salary=gt="))
+                .thenThrow(new IllegalArgumentException("Invalid filter at position 10: expected a value"));
+
+        mockMvc.perform(get("/api/employees").param("filter", "salary=gt="))
+                .andExpect(status().isBadRequest());
+    }
 }
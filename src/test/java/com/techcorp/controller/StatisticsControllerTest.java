@@ -1,10 +1,13 @@
 package com.techcorp.controller;
 
 import java.util.Arrays;
+import java.util.DoubleSummaryStatistics;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import org.junit.jupiter.api.Test;
 import static org.mockito.Mockito.times;
@@ -15,15 +18,18 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.techcorp.model.CompanyStatistics;
 import com.techcorp.model.Employee;
 import com.techcorp.model.EmploymentStatus;
 import com.techcorp.model.Position;
 import com.techcorp.service.EmployeeService;
 import com.techcorp.service.ImportService;
 import com.techcorp.service.ApiService;
+import com.techcorp.service.SalaryDistribution;
 import org.springframework.test.context.ActiveProfiles;
 
 @WebMvcTest(controllers = StatisticsController.class)
@@ -72,6 +78,33 @@ class StatisticsControllerTest {
         verify(employeeService, times(1)).findByCompany("TechCorp");
     }
 
+    @Test
+    void shouldGetSalarySummary() throws Exception {
+        DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
+        stats.accept(8000.0);
+        stats.accept(12000.0);
+        when(employeeService.getSalaryStatistics()).thenReturn(stats);
+
+        mockMvc.perform(get("/api/statistics/salary/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count", is(2)))
+                .andExpect(jsonPath("$.totalSalary", is(20000.0)))
+                .andExpect(jsonPath("$.averageSalary", is(10000.0)))
+                .andExpect(jsonPath("$.minSalary", is(8000.0)))
+                .andExpect(jsonPath("$.maxSalary", is(12000.0)));
+    }
+
+    @Test
+    void shouldGetZeroSalarySummary_whenNoEmployees() throws Exception {
+        when(employeeService.getSalaryStatistics()).thenReturn(new DoubleSummaryStatistics());
+
+        mockMvc.perform(get("/api/statistics/salary/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count", is(0)))
+                .andExpect(jsonPath("$.minSalary", is(0.0)))
+                .andExpect(jsonPath("$.maxSalary", is(0.0)));
+    }
+
     @Test
     void shouldGetPositionStatistics() throws Exception {
         Map<Position, Long> stats = new HashMap<>();
@@ -103,4 +136,106 @@ class StatisticsControllerTest {
 
         verify(employeeService, times(1)).countByStatus();
     }
+
+    @Test
+    void shouldGetCompanyStatistics() throws Exception {
+        when(employeeService.getCompanyStatistics("TechCorp"))
+                .thenReturn(Optional.of(new CompanyStatistics(2, 10000.0, 12000.0, "Anna Nowak")));
+
+        mockMvc.perform(get("/api/statistics/company/TechCorp"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.companyName", is("TechCorp")))
+                .andExpect(jsonPath("$.employeeCount", is(2)))
+                .andExpect(jsonPath("$.averageSalary", is(10000.0)))
+                .andExpect(jsonPath("$.highestSalary", is(12000.0)))
+                .andExpect(jsonPath("$.topEarnerName", is("Anna Nowak")));
+
+        verify(employeeService, times(1)).getCompanyStatistics("TechCorp");
+    }
+
+    @Test
+    void shouldReturn400WhenCompanyNotFound() throws Exception {
+        when(employeeService.getCompanyStatistics("Unknown")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/statistics/company/Unknown"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldGetTopEarners() throws Exception {
+        Employee emp1 = new Employee("Piotr Wiśniewski", "piotr@test.com", "DataSoft", Position.PREZES, 20000);
+        Employee emp2 = new Employee("Anna Nowak", "anna@test.com", "TechCorp", Position.MANAGER, 12000);
+
+        when(employeeService.getTopEarners(2, null)).thenReturn(Arrays.asList(emp1, emp2));
+
+        mockMvc.perform(get("/api/statistics/salary/top").param("n", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].email", is("piotr@test.com")));
+
+        verify(employeeService, times(1)).getTopEarners(2, null);
+    }
+
+    @Test
+    void shouldGetEmployeesInSalaryRange() throws Exception {
+        Employee emp = new Employee("Anna Nowak", "anna@test.com", "TechCorp", Position.MANAGER, 12000);
+
+        when(employeeService.findBySalaryRange(10000.0, 15000.0, Position.MANAGER)).thenReturn(List.of(emp));
+
+        mockMvc.perform(get("/api/statistics/salary/range")
+                        .param("min", "10000")
+                        .param("max", "15000")
+                        .param("position", "MANAGER"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].salary", is(12000.0)));
+    }
+
+    @Test
+    void shouldGetSalaryPercentilesForCompany() throws Exception {
+        when(employeeService.getCompanySalaryDistribution("TechCorp"))
+                .thenReturn(Optional.of(SalaryDistribution.of(5000, 6000, 7000, 8000, 20000)));
+
+        mockMvc.perform(get("/api/statistics/salary/percentiles").param("company", "TechCorp"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count", is(5)))
+                .andExpect(jsonPath("$.maxSalary", is(20000.0)))
+                .andExpect(jsonPath("$.percentiles.p99", is(20000.0)));
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenPercentilesAskedForCompanyAndPosition() throws Exception {
+        mockMvc.perform(get("/api/statistics/salary/percentiles")
+                        .param("company", "TechCorp")
+                        .param("position", "MANAGER"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldGetSalaryHistogramForPosition() throws Exception {
+        when(employeeService.getSalaryDistribution(Position.PROGRAMISTA))
+                .thenReturn(SalaryDistribution.of(8000, 8500, 9500));
+
+        mockMvc.perform(get("/api/statistics/salary/histogram")
+                        .param("position", "PROGRAMISTA")
+                        .param("width", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].from", is(8000.0)))
+                .andExpect(jsonPath("$[0].count", is(2)));
+    }
+
+    @Test
+    void shouldGetUnderpaidEmployeesPage() throws Exception {
+        Employee emp = new Employee("Ewa Zielińska", "ewa@test.com", "DataSoft", Position.STAZYSTA, 2000);
+
+        when(employeeService.getUnderpaidEmployees(1, 10)).thenReturn(List.of(emp));
+        when(employeeService.countUnderpaid()).thenReturn(11);
+
+        mockMvc.perform(get("/api/statistics/underpaid").param("page", "1").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "11"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].email", is("ewa@test.com")));
+    }
 }
@@ -1,15 +1,34 @@
 package com.techcorp.service;
 
 import com.techcorp.exception.DuplicateEmailException;
+import com.techcorp.model.BatchMode;
+import com.techcorp.model.BatchResult;
+import com.techcorp.model.CompanyStatistics;
 import com.techcorp.model.Employee;
+import com.techcorp.model.EmployeeChange;
+import com.techcorp.model.EmployeeFilter;
+import com.techcorp.model.EmploymentStatus;
 import com.techcorp.model.Position;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.OptionalDouble;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -17,6 +36,9 @@ class EmployeeServiceTest {
     
     private EmployeeService employeeService;
     
+    @TempDir
+    Path tempDir;
+    
     @BeforeEach
     void setUp() {
         employeeService = new EmployeeService();
@@ -507,4 +529,1223 @@ class EmployeeServiceTest {
         // Act & Assert
         assertThrows(NullPointerException.class, () -> employeeService.findByCompany(null));
     }
+
+    @Test
+    @DisplayName("Nie powinien gubić pracowników przy równoległym dodawaniu i listowaniu")
+    void shouldNotLoseEmployees_whenAddingConcurrently() throws Exception {
+        // Arrange
+        int threads = 8;
+        int perThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        
+        // Act
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    employeeService.addEmployee(new Employee(
+                        "Jan Kowalski", "jan" + thread + "_" + i + "@test.com", "TechCorp", Position.PROGRAMISTA, 9000.0
+                    ));
+                    employeeService.getAllEmployees();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        
+        // Assert
+        assertEquals(threads * perThread, employeeService.size());
+        assertEquals(threads * perThread, employeeService.getAllEmployees().size());
+    }
+    
+    @Test
+    @DisplayName("Powinien zgłosić duplikat tylko raz przy równoległym dodawaniu tego samego emaila")
+    void shouldAcceptOnlyOne_whenSameEmailAddedConcurrently() throws Exception {
+        // Arrange
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        
+        // Act
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                try {
+                    employeeService.addEmployee(new Employee(
+                        "Jan Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 9000.0
+                    ));
+                    return true;
+                } catch (DuplicateEmailException e) {
+                    return false;
+                }
+            }));
+        }
+        int accepted = 0;
+        for (Future<Boolean> future : futures) {
+            if (future.get()) {
+                accepted++;
+            }
+        }
+        executor.shutdown();
+        
+        // Assert
+        assertEquals(1, accepted);
+        assertEquals(1, employeeService.size());
+    }
+    
+    @Test
+    @DisplayName("Powinien zachować kolejność dodania po aktualizacji bez zmiany emaila")
+    void shouldKeepInsertionOrder_whenUpdatingWithSameEmail() {
+        // Arrange
+        employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 9000.0
+        ));
+        employeeService.addEmployee(new Employee(
+            "Anna Nowak", "anna@test.com", "TechCorp", Position.MANAGER, 12000.0
+        ));
+        
+        // Act
+        employeeService.updateEmployee("JAN@test.com", new Employee(
+            "Jan Kowalski", "jan@test.com", "TechCorp", Position.MANAGER, 13000.0
+        ));
+        
+        // Assert
+        List<Employee> employees = employeeService.getAllEmployees();
+        assertEquals("jan@test.com", employees.get(0).getEmail());
+        assertEquals(Position.MANAGER, employees.get(0).getPosition());
+    }
+    
+    @Test
+    @DisplayName("Powinien przenieść pracownika do nowej firmy po aktualizacji")
+    void shouldMoveEmployeeBetweenCompanies_whenUpdated() {
+        // Arrange
+        employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 9000.0
+        ));
+        
+        // Act
+        employeeService.updateEmployee("jan@test.com", new Employee(
+            "Jan Kowalski", "jan.kowalski@test.com", "DataSoft", Position.PROGRAMISTA, 9000.0
+        ));
+        
+        // Assert
+        assertTrue(employeeService.findByCompany("TechCorp").isEmpty());
+        assertEquals(1, employeeService.findByCompany("datasoft").size());
+    }
+    
+    @Test
+    @DisplayName("Nie powinien znaleźć usuniętego pracownika w firmie")
+    void shouldNotFindDeletedEmployee_whenSearchingByCompany() {
+        // Arrange
+        employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 9000.0
+        ));
+        employeeService.addEmployee(new Employee(
+            "Anna Nowak", "anna@test.com", "TechCorp", Position.MANAGER, 12000.0
+        ));
+        
+        // Act
+        employeeService.deleteEmployee("jan@test.com");
+        
+        // Assert
+        List<Employee> result = employeeService.findByCompany("TECHCORP");
+        assertEquals(1, result.size());
+        assertEquals("anna@test.com", result.get(0).getEmail());
+    }
+    
+    @Test
+    @DisplayName("Powinien przeliczyć statusy po zmianie statusu pracownika")
+    void shouldUpdateStatusCounts_whenStatusChanges() {
+        // Arrange
+        employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 9000.0
+        ));
+        employeeService.addEmployee(new Employee(
+            "Anna Nowak", "anna@test.com", "TechCorp", Position.MANAGER, 12000.0
+        ));
+        
+        // Act
+        employeeService.updateEmployeeStatus("jan@test.com", EmploymentStatus.ON_LEAVE);
+        
+        // Assert
+        Map<EmploymentStatus, Long> counts = employeeService.countByStatus();
+        assertEquals(1L, counts.get(EmploymentStatus.ACTIVE));
+        assertEquals(1L, counts.get(EmploymentStatus.ON_LEAVE));
+        assertFalse(counts.containsKey(EmploymentStatus.TERMINATED));
+        assertEquals("jan@test.com", employeeService.findByStatus(EmploymentStatus.ON_LEAVE).get(0).getEmail());
+    }
+    
+    @Test
+    @DisplayName("Powinien przeliczyć stanowiska po aktualizacji i usunięciu")
+    void shouldUpdatePositionCounts_whenUpdatedAndDeleted() {
+        // Arrange
+        employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 9000.0
+        ));
+        employeeService.addEmployee(new Employee(
+            "Anna Nowak", "anna@test.com", "TechCorp", Position.PROGRAMISTA, 9000.0
+        ));
+        
+        // Act
+        employeeService.updateEmployee("jan@test.com", new Employee(
+            "Jan Kowalski", "jan@test.com", "TechCorp", Position.MANAGER, 13000.0
+        ));
+        employeeService.deleteEmployee("anna@test.com");
+        
+        // Assert
+        assertEquals(Map.of(Position.MANAGER, 1L), employeeService.countByPosition());
+        assertEquals(1, employeeService.groupByPosition().get(Position.MANAGER).size());
+        assertFalse(employeeService.groupByPosition().containsKey(Position.PROGRAMISTA));
+    }
+    
+    @Test
+    @DisplayName("Powinien znaleźć kolejnego top earnera po usunięciu najlepiej opłacanego")
+    void shouldFindNextTopEarner_whenTopEarnerDeleted() {
+        // Arrange
+        employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 8000.0
+        ));
+        employeeService.addEmployee(new Employee(
+            "Anna Nowak", "anna@test.com", "TechCorp", Position.MANAGER, 12000.0
+        ));
+        employeeService.addEmployee(new Employee(
+            "Piotr Wiśniewski", "piotr@test.com", "DataSoft", Position.PREZES, 20000.0
+        ));
+        
+        // Act
+        employeeService.deleteEmployee("piotr@test.com");
+        
+        // Assert
+        assertEquals("anna@test.com", employeeService.getTopEarner().get().getEmail());
+        assertEquals(10000.0, employeeService.getAverageSalary().getAsDouble(), 0.001);
+    }
+    
+    @Test
+    @DisplayName("Powinien uwzględnić pensję zmienioną przez setSalary przed aktualizacją")
+    void shouldTrackSalary_whenSameInstanceMutatedAndUpdated() {
+        // Arrange
+        Employee jan = new Employee("Jan Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 8000.0);
+        employeeService.addEmployee(jan);
+        employeeService.addEmployee(new Employee(
+            "Anna Nowak", "anna@test.com", "TechCorp", Position.MANAGER, 12000.0
+        ));
+        
+        // Act
+        jan.setSalary(30000.0);
+        employeeService.updateEmployee("jan@test.com", jan);
+        
+        // Assert
+        assertEquals("jan@test.com", employeeService.getTopEarner().get().getEmail());
+        assertEquals(21000.0, employeeService.getAverageSalary().getAsDouble(), 0.001);
+        assertEquals(12000.0, employeeService.getSalaryStatistics().getMin(), 0.001);
+        assertEquals(30000.0, employeeService.getSalaryStatistics().getMax(), 0.001);
+    }
+    
+    @Test
+    @DisplayName("Powinien aktualizować statystyki firmy po usunięciu najlepiej opłacanego")
+    void shouldUpdateCompanyStatistics_whenTopEarnerDeleted() {
+        // Arrange
+        employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 8000.0
+        ));
+        employeeService.addEmployee(new Employee(
+            "Anna Nowak", "anna@test.com", "TechCorp", Position.MANAGER, 12000.0
+        ));
+        employeeService.addEmployee(new Employee(
+            "Piotr Wiśniewski", "piotr@test.com", "DataSoft", Position.PREZES, 20000.0
+        ));
+        
+        // Act
+        employeeService.deleteEmployee("anna@test.com");
+        CompanyStatistics stats = employeeService.getCompanyStatistics("techcorp").orElseThrow();
+        
+        // Assert
+        assertEquals(1, stats.getEmployeeCount());
+        assertEquals(8000.0, stats.getAverageSalary(), 0.001);
+        assertEquals(8000.0, stats.getHighestSalary(), 0.001);
+        assertEquals("Jan Kowalski", stats.getHighestPaidEmployee());
+        assertEquals(2, employeeService.getCompanyStatistics().size());
+    }
+    
+    @Test
+    @DisplayName("Powinien usunąć firmę ze statystyk gdy nie ma już pracowników")
+    void shouldDropCompanyStatistics_whenLastEmployeeDeleted() {
+        // Arrange
+        employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 8000.0
+        ));
+        
+        // Act
+        employeeService.deleteEmployee("jan@test.com");
+        
+        // Assert
+        assertTrue(employeeService.getCompanyStatistics("TechCorp").isEmpty());
+        assertTrue(employeeService.getCompanyStatistics().isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Powinien sortować po nazwisku bez względu na wielkość liter")
+    void shouldSortByLastName_caseInsensitive() {
+        // Arrange
+        employeeService.addEmployee(new Employee(
+            "Piotr wiśniewski", "piotr@test.com", "DataSoft", Position.PREZES, 20000.0
+        ));
+        employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 8000.0
+        ));
+        employeeService.addEmployee(new Employee(
+            "Anna Nowak", "anna@test.com", "TechCorp", Position.MANAGER, 12000.0
+        ));
+        
+        // Act
+        List<Employee> sorted = employeeService.getEmployeesSortedByLastName();
+        
+        // Assert
+        assertEquals(List.of("Kowalski", "Nowak", "wiśniewski"),
+            sorted.stream().map(Employee::getLastName).toList());
+    }
+    
+    @Test
+    @DisplayName("Powinien zwrócić stronę od podanego nazwiska i uwzględnić zmianę nazwiska")
+    void shouldReturnPageFromName_whenNameChanges() {
+        // Arrange
+        employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 8000.0
+        ));
+        employeeService.addEmployee(new Employee(
+            "Anna Nowak", "anna@test.com", "TechCorp", Position.MANAGER, 12000.0
+        ));
+        employeeService.addEmployee(new Employee(
+            "Ewa Zielińska", "ewa@test.com", "TechCorp", Position.MANAGER, 12000.0
+        ));
+        
+        // Act
+        employeeService.updateEmployee("jan@test.com", new Employee(
+            "Jan Adamski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 8000.0
+        ));
+        List<Employee> page = employeeService.getEmployeesSortedByLastName("n", 1).employees();
+        
+        // Assert
+        assertEquals(1, page.size());
+        assertEquals("Nowak", page.get(0).getLastName());
+        assertEquals("Adamski", employeeService.getEmployeesSortedByLastName().get(0).getLastName());
+    }
+    
+    @Test
+    @DisplayName("Powinien przejść stronami przez więcej Kowalskich niż limit bez powtórzeń")
+    void shouldPageThroughSameLastName_withoutRepeats() {
+        // Arrange
+        for (int i = 0; i < 25; i++) {
+            employeeService.addEmployee(new Employee(
+                "Jan Kowalski", "jan" + i + "@test.com", "TechCorp", Position.PROGRAMISTA, 8000.0
+            ));
+        }
+        employeeService.addEmployee(new Employee(
+            "Anna Nowak", "anna@test.com", "TechCorp", Position.MANAGER, 12000.0
+        ));
+        
+        // Act
+        List<String> emails = new ArrayList<>();
+        NamePage page = employeeService.getEmployeesSortedByLastName("kowalski", 10);
+        int pages = 1;
+        page.employees().forEach(employee -> emails.add(employee.getEmail()));
+        while (page.nextCursor() != null) {
+            page = employeeService.getEmployeesSortedByLastNameAfter(page.nextCursor(), 10);
+            page.employees().forEach(employee -> emails.add(employee.getEmail()));
+            pages++;
+        }
+        
+        // Assert
+        assertEquals(3, pages);
+        assertEquals(26, emails.size());
+        assertEquals(26, new HashSet<>(emails).size());
+        assertEquals("anna@test.com", emails.get(25));
+    }
+    
+    @Test
+    @DisplayName("Kursor powinien pozostać ważny po usunięciu pracownika, na którym się kończy")
+    void shouldResumeAfterCursor_whenLastEmployeeDeleted() {
+        // Arrange
+        employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 8000.0
+        ));
+        employeeService.addEmployee(new Employee(
+            "Piotr Kowalski", "piotr@test.com", "TechCorp", Position.PROGRAMISTA, 8000.0
+        ));
+        employeeService.addEmployee(new Employee(
+            "Anna Nowak", "anna@test.com", "TechCorp", Position.MANAGER, 12000.0
+        ));
+        String cursor = employeeService.getEmployeesSortedByLastName("", 1).nextCursor();
+        
+        // Act
+        employeeService.deleteEmployee("jan@test.com");
+        NamePage next = employeeService.getEmployeesSortedByLastNameAfter(cursor, 5);
+        
+        // Assert
+        assertEquals(List.of("piotr@test.com", "anna@test.com"),
+            next.employees().stream().map(Employee::getEmail).toList());
+        assertNull(next.nextCursor());
+    }
+    
+    @Test
+    @DisplayName("Powinien zwrócić top N i zakres pensji po zmianie wynagrodzenia")
+    void shouldReturnTopAndRange_whenSalaryUpdated() {
+        // Arrange
+        employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 8000.0
+        ));
+        employeeService.addEmployee(new Employee(
+            "Anna Nowak", "anna@test.com", "TechCorp", Position.MANAGER, 12000.0
+        ));
+        employeeService.addEmployee(new Employee(
+            "Piotr Wiśniewski", "piotr@test.com", "DataSoft", Position.PREZES, 20000.0
+        ));
+        
+        // Act
+        employeeService.updateEmployee("jan@test.com", new Employee(
+            "Jan Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 15000.0
+        ));
+        
+        // Assert
+        assertEquals(List.of("piotr@test.com", "jan@test.com"),
+            employeeService.getTopEarners(2, null).stream().map(Employee::getEmail).toList());
+        assertEquals(List.of("anna@test.com", "jan@test.com"),
+            employeeService.findBySalaryRange(12000.0, 15000.0, null).stream().map(Employee::getEmail).toList());
+        assertEquals(List.of("jan@test.com"),
+            employeeService.getBottomEarners(5, Position.PROGRAMISTA).stream().map(Employee::getEmail).toList());
+    }
+    
+    @Test
+    @DisplayName("Powinien rzucić wyjątek gdy minimum zakresu jest większe od maksimum")
+    void shouldThrowException_whenSalaryRangeInverted() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> employeeService.findBySalaryRange(2000.0, 1000.0, null));
+    }
+    
+    @Test
+    @DisplayName("Powinien przebudować migawkę kolumnową dopiero po zmianie danych")
+    void shouldRebuildColumns_onlyAfterMutation() {
+        // Arrange
+        employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 7000.0
+        ));
+        employeeService.addEmployee(new Employee(
+            "Anna Nowak", "anna@test.com", "TechCorp", Position.MANAGER, 12000.0
+        ));
+        EmployeeColumns first = employeeService.getColumns();
+        
+        // Act
+        EmployeeColumns cached = employeeService.getColumns();
+        employeeService.addEmployee(new Employee(
+            "Ewa Zielińska", "ewa@test.com", "DataSoft", Position.PROGRAMISTA, 9000.0
+        ));
+        EmployeeColumns rebuilt = employeeService.getColumns();
+        
+        // Assert
+        assertSame(first, cached);
+        assertNotSame(first, rebuilt);
+        assertEquals(3, rebuilt.size());
+        assertEquals(28000.0, rebuilt.sumSalary(), 0.001);
+        assertEquals(8000.0, rebuilt.averageSalaryByPosition().get(Position.PROGRAMISTA), 0.001);
+        assertEquals(16000.0, rebuilt.sumSalaryByPosition().get(Position.PROGRAMISTA), 0.001);
+        assertEquals(1, rebuilt.countUnderpaid());
+        assertEquals(9000.0, rebuilt.averageSalaryByCompany().get("DataSoft"), 0.001);
+    }
+    
+    @Test
+    @DisplayName("Powinien zmienić nazwę firmy dla wszystkich pracowników jednocześnie")
+    void shouldRenameCompanyForAllEmployees() {
+        // Arrange
+        employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "RenameMe Sp. z o.o.", Position.PROGRAMISTA, 9000.0
+        ));
+        employeeService.addEmployee(new Employee(
+            "Anna Nowak", "anna@test.com", "renameme sp. z o.o.", Position.MANAGER, 12000.0
+        ));
+        
+        // Act
+        employeeService.renameCompany("RENAMEME SP. Z O.O.", "Renamed S.A.");
+        
+        // Assert
+        assertEquals(2, employeeService.findByCompany("renamed s.a.").size());
+        assertTrue(employeeService.findByCompany("RenameMe Sp. z o.o.").isEmpty());
+        assertTrue(employeeService.getAllEmployees().stream().allMatch(e -> e.getCompanyName().equals("Renamed S.A.")));
+        assertEquals(2, employeeService.getCompanyStatistics().get("Renamed S.A.").getEmployeeCount());
+    }
+    
+    @Test
+    @DisplayName("Powinien odrzucić zmianę nazwy na istniejącą firmę")
+    void shouldRejectRename_whenTargetCompanyExists() {
+        // Arrange
+        employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 9000.0
+        ));
+        employeeService.addEmployee(new Employee(
+            "Anna Nowak", "anna@test.com", "DataSoft", Position.MANAGER, 12000.0
+        ));
+        
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> employeeService.renameCompany("TechCorp", "datasoft"));
+        assertThrows(IllegalArgumentException.class, () -> employeeService.renameCompany("techcorp", "TechCorp"));
+        assertEquals("TechCorp", employeeService.getByEmail("jan@test.com").getCompanyName());
+    }
+
+    @Test
+    @DisplayName("Powinien poprawić wielkość liter w nazwie firmy")
+    void shouldRenameCompany_whenOnlyCaseDiffers() {
+        // Arrange
+        employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "ACME", Position.PROGRAMISTA, 9000.0
+        ));
+        employeeService.addEmployee(new Employee(
+            "Anna Nowak", "anna@test.com", "acme", Position.MANAGER, 12000.0
+        ));
+        
+        // Act
+        employeeService.renameCompany("acme", "Acme");
+        
+        // Assert
+        assertEquals("Acme", employeeService.getByEmail("jan@test.com").getCompanyName());
+        assertEquals("Acme", employeeService.getByEmail("anna@test.com").getCompanyName());
+        assertEquals(2, employeeService.findByCompany("ACME").size());
+        assertEquals(Set.of("Acme"), employeeService.getCompanyStatistics().keySet());
+    }
+
+    @Test
+    @DisplayName("Odrzucone dodanie nie powinno ustalić pisowni nazwy firmy")
+    void shouldKeepClientSpelling_whenEarlierRequestRejected() {
+        // Arrange
+        employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 9000.0
+        ));
+        assertThrows(DuplicateEmailException.class, () -> employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "ACME", Position.PROGRAMISTA, 9000.0
+        )));
+        
+        // Act
+        employeeService.addEmployee(new Employee(
+            "Anna Nowak", "anna@test.com", "Acme", Position.MANAGER, 12000.0
+        ));
+        
+        // Assert
+        assertEquals("Acme", employeeService.getByEmail("anna@test.com").getCompanyName());
+    }
+
+    @Test
+    @DisplayName("Firma bez pracowników powinna przyjąć pisownię następnego pracownika")
+    void shouldTakeNewSpelling_whenCompanyHadNoEmployeesLeft() {
+        // Arrange
+        employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "ACME", Position.PROGRAMISTA, 9000.0
+        ));
+        employeeService.deleteEmployee("jan@test.com");
+        
+        // Act
+        employeeService.addEmployee(new Employee(
+            "Anna Nowak", "anna@test.com", "Acme", Position.MANAGER, 12000.0
+        ));
+        
+        // Assert
+        assertEquals("Acme", employeeService.getByEmail("anna@test.com").getCompanyName());
+        assertEquals(Map.of("Acme", 12000.0), employeeService.getColumns().averageSalaryByCompany());
+        assertEquals(Set.of("Acme"), employeeService.computeCompanyStatistics().keySet());
+    }
+
+    @Test
+    @DisplayName("Każdy serwis powinien mieć własny słownik firm")
+    void shouldKeepCompanySpellingPerService() {
+        // Arrange
+        EmployeeService other = new EmployeeService(StorageMode.OFF_HEAP);
+        employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "ACME", Position.PROGRAMISTA, 9000.0
+        ));
+        
+        // Act
+        other.addEmployee(new Employee(
+            "Anna Nowak", "anna@test.com", "Acme", Position.MANAGER, 12000.0
+        ));
+        
+        // Assert
+        assertEquals("Acme", other.getByEmail("anna@test.com").getCompanyName());
+        assertEquals(1, other.findByCompany("ACME").size());
+        assertEquals("ACME", employeeService.getByEmail("jan@test.com").getCompanyName());
+    }
+
+    @Test
+    @DisplayName("Powinien pozwolić na nazwę firmy, która nie ma już pracowników")
+    void shouldRenameCompany_toNameWithoutEmployees() {
+        // Arrange
+        employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "Old Name Sp. z o.o.", Position.PROGRAMISTA, 9000.0
+        ));
+        employeeService.addEmployee(new Employee(
+            "Anna Nowak", "anna@test.com", "Gone S.A.", Position.MANAGER, 12000.0
+        ));
+        employeeService.deleteEmployee("anna@test.com");
+
+        // Act
+        employeeService.renameCompany("Old Name Sp. z o.o.", "Gone S.A.");
+
+        // Assert
+        assertEquals(1, employeeService.findByCompany("gone s.a.").size());
+        assertEquals("Gone S.A.", employeeService.getByEmail("jan@test.com").getCompanyName());
+    }
+
+    @Test
+    @DisplayName("Migawka sprzed zmiany nazwy firmy powinna zachować starą nazwę")
+    void shouldKeepOldCompanyName_inEarlierSnapshot() {
+        // Arrange
+        employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "Before Rename S.A.", Position.PROGRAMISTA, 9000.0
+        ));
+        EmployeeSnapshot before = employeeService.getSnapshot();
+
+        // Act
+        employeeService.renameCompany("Before Rename S.A.", "After Rename S.A.");
+
+        // Assert
+        assertEquals("Before Rename S.A.", before.employees().get(0).getCompanyName());
+        assertEquals("After Rename S.A.", employeeService.getByEmail("jan@test.com").getCompanyName());
+        assertEquals(1, employeeService.search("after rename", 10).size());
+        assertTrue(employeeService.search("before rename", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Nieudany zapis do dziennika nie powinien zmienić nazwy firmy")
+    void shouldKeepCompanyName_whenLogAppendFails() throws IOException {
+        // Arrange
+        EmployeeService service = withLog(tempDir.resolve("rename.wal"), WriteAheadLog.Durability.OS);
+        service.addEmployee(new Employee("Jan Kowalski", "jan@failcorp.com", "FailCorp", Position.MANAGER, 12000));
+        service.getWriteAheadLog().orElseThrow().close();
+
+        // Act & Assert
+        assertThrows(java.io.UncheckedIOException.class, () -> service.renameCompany("FailCorp", "FailCorp Renamed"));
+        assertEquals("FailCorp", service.getByEmail("jan@failcorp.com").getCompanyName());
+        assertEquals(1, service.findByCompany("FailCorp").size());
+        assertTrue(service.findByCompany("FailCorp Renamed").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Powinien odtworzyć zmianę nazwy firmy z dziennika zmian")
+    void shouldRestoreCompanyRename_fromWriteAheadLog() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("renamed.wal");
+        EmployeeService first = withLog(file, WriteAheadLog.Durability.EVERY_WRITE);
+        first.addEmployee(new Employee("Jan Kowalski", "jan@walrename.com", "WalRename", Position.MANAGER, 12000));
+        first.renameCompany("WalRename", "WalRenamed");
+        first.addEmployee(new Employee("Anna Nowak", "anna@walrename.com", "WalRename", Position.PROGRAMISTA, 9000));
+        first.close();
+
+        // Act
+        EmployeeService restored = withLog(file, WriteAheadLog.Durability.EVERY_WRITE);
+
+        // Assert
+        assertEquals("WalRenamed", restored.getByEmail("jan@walrename.com").getCompanyName());
+        assertEquals("WalRename", restored.getByEmail("anna@walrename.com").getCompanyName());
+        assertEquals(1, restored.findByCompany("WalRenamed").size());
+        restored.close();
+    }
+    
+    @Test
+    @DisplayName("Powinien przechowywać pracowników poza stertą i zwracać niezależne kopie")
+    void shouldStoreEmployeesOffHeap_andReturnCopies() {
+        // Arrange
+        EmployeeService offHeap = new EmployeeService(StorageMode.OFF_HEAP);
+        offHeap.addEmployee(new Employee(
+            "Łukasz Żółkiewski", "lukasz@test.com", "TechCorp", Position.MANAGER, 12500.5
+        ));
+        offHeap.addEmployee(new Employee(
+            "Anna Nowak", "anna@test.com", "DataSoft", Position.PROGRAMISTA, 8000.0
+        ));
+        
+        // Act
+        Employee copy = offHeap.getByEmail("lukasz@test.com");
+        copy.setSalary(1.0);
+        offHeap.updatePhotoFileName("lukasz@test.com", "zdjęcie.jpg");
+        offHeap.updateEmployeeStatus("anna@test.com", EmploymentStatus.ON_LEAVE);
+        offHeap.deleteEmployee("anna@test.com");
+        
+        // Assert
+        Employee stored = offHeap.getByEmail("LUKASZ@test.com");
+        assertNotSame(copy, stored);
+        assertEquals("Łukasz Żółkiewski", stored.getFullName());
+        assertEquals("Żółkiewski", stored.getLastName());
+        assertEquals("TechCorp", stored.getCompanyName());
+        assertEquals(12500.5, stored.getSalary(), 0.001);
+        assertEquals("zdjęcie.jpg", stored.getPhotoFileName());
+        assertEquals(1, offHeap.size());
+        assertEquals(1, offHeap.getAllEmployees().size());
+        assertTrue(offHeap.findByStatus(EmploymentStatus.ON_LEAVE).isEmpty());
+        assertEquals(12500.5, offHeap.getColumns().sumSalary(), 0.001);
+    }
+    
+    @Test
+    @DisplayName("Powinien współdzielić niezmienną migawkę do następnego zapisu")
+    void shouldShareImmutableSnapshot_untilNextWrite() {
+        // Arrange
+        employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 9000.0
+        ));
+        EmployeeSnapshot before = employeeService.getSnapshot();
+        
+        // Act
+        List<Employee> again = employeeService.getAllEmployees();
+        employeeService.updateEmployeeStatus("jan@test.com", EmploymentStatus.ON_LEAVE);
+        EmployeeSnapshot after = employeeService.getSnapshot();
+        
+        // Assert
+        assertSame(before.employees(), again);
+        assertThrows(UnsupportedOperationException.class, () -> again.add(before.employees().get(0)));
+        assertTrue(after.version() > before.version());
+        assertEquals(EmploymentStatus.ACTIVE, before.employees().get(0).getStatus());
+        assertEquals(EmploymentStatus.ON_LEAVE, after.employees().get(0).getStatus());
+    }
+    
+    @Test
+    @DisplayName("Powinien wyznaczać percentyle wynagrodzeń z błędem względnym do 1%")
+    void shouldEstimateSalaryPercentiles_withinRelativeAccuracy() {
+        // Arrange
+        for (int i = 1; i <= 1000; i++) {
+            employeeService.addEmployee(new Employee(
+                "Pracownik " + i, "p" + i + "@test.com", i % 2 == 0 ? "TechCorp" : "DataSoft",
+                i % 2 == 0 ? Position.PROGRAMISTA : Position.MANAGER, i * 100.0
+            ));
+        }
+        
+        // Act
+        employeeService.deleteEmployee("p1000@test.com");
+        SalaryDistribution all = employeeService.getSalaryDistribution(null);
+        SalaryDistribution techCorp = employeeService.getCompanySalaryDistribution("techcorp").orElseThrow();
+        SalaryDistribution managers = employeeService.getSalaryDistribution(Position.MANAGER);
+        
+        // Assert
+        assertEquals(999, all.count());
+        assertEquals(50000.0, all.percentile(50).getAsDouble(), 50000.0 * SalaryDistribution.RELATIVE_ACCURACY);
+        assertEquals(98900.0, all.percentile(99).getAsDouble(), 98900.0 * SalaryDistribution.RELATIVE_ACCURACY);
+        assertEquals(99900.0, all.percentile(100).getAsDouble(), 0.001);
+        assertEquals(499, techCorp.count());
+        assertEquals(99800.0, techCorp.max(), 0.001);
+        assertEquals(500, managers.count());
+        assertEquals(all.count(), techCorp.merge(employeeService.getCompanySalaryDistribution("DataSoft").orElseThrow()).count());
+        assertTrue(employeeService.getCompanySalaryDistribution("Nieistniejąca").isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Powinien zliczać wynagrodzenia w przedziałach histogramu")
+    void shouldCountSalariesInHistogramBins() {
+        // Arrange
+        SalaryDistribution distribution = SalaryDistribution.of(4100, 4900, 5200, 7300);
+        
+        // Act
+        List<SalaryDistribution.Bucket> histogram = distribution.histogram(1000);
+        
+        // Assert
+        assertEquals(4, histogram.size());
+        assertEquals(4000.0, histogram.get(0).from(), 0.001);
+        assertEquals(2, histogram.get(0).count());
+        assertEquals(1, histogram.get(1).count());
+        assertEquals(0, histogram.get(2).count());
+        assertEquals(1, histogram.get(3).count());
+        assertThrows(IllegalArgumentException.class, () -> distribution.histogram(0.01));
+    }
+    
+    @Test
+    @DisplayName("Powinien aktualizować zbiór niedopłacanych przy zmianie pensji, stanowiska i usunięciu")
+    void shouldMaintainUnderpaidSet_acrossMutations() {
+        // Arrange
+        employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 7000.0
+        ));
+        employeeService.addEmployee(new Employee(
+            "Anna Nowak", "anna@test.com", "TechCorp", Position.PROGRAMISTA, 9000.0
+        ));
+        employeeService.addEmployee(new Employee(
+            "Ewa Zielińska", "ewa@test.com", "DataSoft", Position.STAZYSTA, 2000.0
+        ));
+        
+        // Act
+        Employee anna = new Employee(employeeService.getByEmail("anna@test.com"));
+        anna.setPosition(Position.MANAGER);
+        employeeService.updateEmployee("anna@test.com", anna);
+        Employee jan = new Employee(employeeService.getByEmail("jan@test.com"));
+        jan.setSalary(8500.0);
+        employeeService.updateEmployee("jan@test.com", jan);
+        
+        // Assert
+        assertEquals(2, employeeService.countUnderpaid());
+        assertEquals(List.of("anna@test.com", "ewa@test.com"),
+            employeeService.validateSalaryConsistency().stream().map(Employee::getEmail).toList());
+        assertEquals(List.of("ewa@test.com"),
+            employeeService.getUnderpaidEmployees(1, 1).stream().map(Employee::getEmail).toList());
+        employeeService.deleteEmployee("ewa@test.com");
+        assertEquals(1, employeeService.countUnderpaid());
+        assertTrue(employeeService.getUnderpaidEmployees(1, 1).isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Powinien pominąć duplikaty z partii i z magazynu w trybie SKIP_DUPLICATES")
+    void shouldSkipDuplicates_whenAddingBatch() {
+        // Arrange
+        employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 9000.0
+        ));
+        List<Employee> batch = List.of(
+            new Employee("Anna Nowak", "anna@test.com", "TechCorp", Position.MANAGER, 12000.0),
+            new Employee("Jan Kowalski", "JAN@test.com", "DataSoft", Position.MANAGER, 15000.0),
+            new Employee("Anna Nowak", "Anna@Test.com", "DataSoft", Position.PREZES, 30000.0)
+        );
+        
+        // Act
+        BatchResult result = employeeService.addAll(batch, BatchMode.SKIP_DUPLICATES);
+        
+        // Assert
+        assertEquals(List.of(BatchResult.Status.ADDED, BatchResult.Status.SKIPPED, BatchResult.Status.SKIPPED),
+            result.getItems().stream().map(BatchResult.Item::status).toList());
+        assertTrue(result.getItems().get(1).message().contains("istnieje"));
+        assertEquals(2, employeeService.size());
+        assertEquals(Position.MANAGER, employeeService.getByEmail("anna@test.com").getPosition());
+        assertEquals("TechCorp", employeeService.getByEmail("jan@test.com").getCompanyName());
+    }
+    
+    @Test
+    @DisplayName("Powinien nadpisać istniejących pracowników w trybie UPSERT")
+    void shouldReplaceExisting_whenUpsertingBatch() {
+        // Arrange
+        employeeService.addEmployee(new Employee(
+            "Jan Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 9000.0
+        ));
+        List<Employee> batch = List.of(
+            new Employee("Jan Kowalski", "jan@test.com", "DataSoft", Position.MANAGER, 15000.0),
+            new Employee("Anna Nowak", "anna@test.com", "TechCorp", Position.MANAGER, 12000.0)
+        );
+        
+        // Act
+        BatchResult result = employeeService.addAll(batch, BatchMode.UPSERT);
+        
+        // Assert
+        assertEquals(1, result.count(BatchResult.Status.UPDATED));
+        assertEquals(1, result.count(BatchResult.Status.ADDED));
+        assertEquals(15000.0, employeeService.getByEmail("jan@test.com").getSalary(), 0.001);
+        assertTrue(employeeService.findByCompany("TechCorp").stream().noneMatch(e -> e.getEmail().equals("jan@test.com")));
+        assertEquals(2, employeeService.size());
+    }
+    
+    @Test
+    @DisplayName("Powinien odrzucić całą partię przy duplikacie w trybie FAIL_FAST")
+    void shouldRejectWholeBatch_whenDuplicateInFailFastMode() {
+        // Arrange
+        List<Employee> batch = List.of(
+            new Employee("Anna Nowak", "anna@test.com", "TechCorp", Position.MANAGER, 12000.0),
+            new Employee("Jan Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 9000.0),
+            new Employee("Anna Nowak", "ANNA@test.com", "DataSoft", Position.MANAGER, 12000.0)
+        );
+        
+        // Act & Assert
+        assertThrows(DuplicateEmailException.class, () -> employeeService.addAll(batch, BatchMode.FAIL_FAST));
+        assertEquals(0, employeeService.size());
+        assertTrue(employeeService.getAllEmployees().isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Powinien przeliczyć statystyki firm równolegle zgodnie z utrzymywanym widokiem")
+    void shouldComputeCompanyStatisticsInParallel_matchingMaintainedView() {
+        // Arrange
+        EmployeeService parallel = new EmployeeService(StorageMode.HEAP, 1);
+        for (int i = 0; i < 2000; i++) {
+            parallel.addEmployee(new Employee(
+                "Pracownik " + i, "p" + i + "@test.com", "Firma" + (i % 7), Position.PROGRAMISTA, 5000.0 + (i % 100) * 10
+            ));
+        }
+        
+        // Act
+        Map<String, CompanyStatistics> computed = parallel.computeCompanyStatistics();
+        Map<String, CompanyStatistics> maintained = parallel.getCompanyStatistics();
+        
+        // Assert
+        assertEquals(maintained.keySet(), computed.keySet());
+        maintained.forEach((company, expected) -> {
+            CompanyStatistics actual = computed.get(company);
+            assertEquals(expected.getEmployeeCount(), actual.getEmployeeCount());
+            assertEquals(expected.getAverageSalary(), actual.getAverageSalary(), 0.001);
+            assertEquals(expected.getHighestSalary(), actual.getHighestSalary(), 0.001);
+            assertEquals(expected.getHighestPaidEmployee(), actual.getHighestPaidEmployee());
+        });
+    }
+    
+    @Test
+    @DisplayName("Powinien publikować zmiany pracowników z kolejnymi numerami")
+    void shouldPublishEmployeeChanges_inSequence() {
+        // Arrange
+        long start = employeeService.lastChangeSequence();
+        employeeService.addEmployee(new Employee("Jan Kowalski", "jan@test.com", "TechCorp", Position.PROGRAMISTA, 8000));
+        employeeService.updateEmployeeStatus("jan@test.com", EmploymentStatus.ON_LEAVE);
+        employeeService.updateEmployee("jan@test.com",
+            new Employee("Jan Kowalski", "jan.kowalski@test.com", "TechCorp", Position.PROGRAMISTA, 9000));
+        employeeService.deleteEmployee("jan.kowalski@test.com");
+        
+        // Act
+        List<EmployeeChange> changes = employeeService.getChangeFeed().after(start, 100).orElseThrow();
+        
+        // Assert
+        assertEquals(List.of(EmployeeChange.Type.ADDED, EmployeeChange.Type.STATUS_CHANGED,
+            EmployeeChange.Type.DELETED, EmployeeChange.Type.ADDED, EmployeeChange.Type.DELETED),
+            changes.stream().map(EmployeeChange::type).toList());
+        for (int i = 0; i < changes.size(); i++) {
+            assertEquals(start + i + 1, changes.get(i).sequence());
+        }
+        assertEquals(EmploymentStatus.ON_LEAVE, changes.get(1).employee().getStatus());
+        assertEquals("jan@test.com", changes.get(2).email());
+        assertEquals(9000, changes.get(4).employee().getSalary(), 0.001);
+        assertEquals(start + 5, employeeService.lastChangeSequence());
+    }
+    
+    @Test
+    @DisplayName("Powinien wymagać ponownej synchronizacji gdy zmiany wypadły z bufora")
+    void shouldRequireResync_whenChangesWereOverwritten() {
+        // Arrange
+        EmployeeService service = new EmployeeService(StorageMode.HEAP, EmployeeService.DEFAULT_PARALLEL_THRESHOLD, 4);
+        for (int i = 0; i < 6; i++) {
+            service.addEmployee(new Employee("Pracownik " + i, "p" + i + "@test.com", "TechCorp", Position.PROGRAMISTA, 8000));
+        }
+        
+        // Act & Assert
+        assertTrue(service.getChangeFeed().after(1, 10).isEmpty());
+        assertEquals(4, service.getChangeFeed().after(2, 10).orElseThrow().size());
+        assertTrue(service.getChangeFeed().after(6, 10).orElseThrow().isEmpty());
+        assertTrue(service.getChangeFeed().after(7, 10).isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Powinien wyszukiwać po prefiksie i fragmencie z rankingiem trafień")
+    void shouldSearchByPrefixAndSubstring_rankedByMatch() {
+        // Arrange
+        employeeService.addEmployee(new Employee("Łukasz Kowalski", "lukasz@techcorp.com", "TechCorp", Position.PROGRAMISTA, 8000));
+        employeeService.addEmployee(new Employee("Anna Kowalczyk", "anna@techcorp.com", "TechCorp", Position.MANAGER, 12000));
+        employeeService.addEmployee(new Employee("Piotr Nowak", "p.kowal@softhouse.com", "SoftHouse", Position.PROGRAMISTA, 8500));
+        employeeService.addEmployee(new Employee("Ewa Zielińska", "ewa@dkowal.pl", "DataCorp", Position.STAZYSTA, 3500));
+        
+        // Act
+        List<Employee> byPrefix = employeeService.search("kowal", 10);
+        List<Employee> bySubstring = employeeService.search("owal", 10);
+        List<Employee> twoWords = employeeService.search("lukasz tech", 10);
+        
+        // Assert
+        assertEquals(List.of("p.kowal@softhouse.com", "anna@techcorp.com", "lukasz@techcorp.com", "ewa@dkowal.pl"),
+            byPrefix.stream().map(Employee::getEmail).toList());
+        assertEquals(4, bySubstring.size());
+        assertEquals(1, twoWords.size());
+        assertEquals("Łukasz Kowalski", twoWords.get(0).getFullName());
+        assertEquals(2, employeeService.search("kowal", 2).size());
+        assertTrue(employeeService.search("   ", 10).isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Powinien aktualizować indeks wyszukiwania po zmianach pracowników")
+    void shouldKeepSearchIndexInSync_withMutations() {
+        // Arrange
+        employeeService.addEmployee(new Employee("Jan Kowalski", "jan@test.com", "SearchCorp", Position.PROGRAMISTA, 8000));
+        employeeService.addEmployee(new Employee("Anna Nowak", "anna@test.com", "SearchCorp", Position.MANAGER, 12000));
+        
+        // Act
+        employeeService.updateEmployee("jan@test.com",
+            new Employee("Jan Wiśniewski", "jan@test.com", "SearchCorp", Position.PROGRAMISTA, 8000));
+        employeeService.deleteEmployee("anna@test.com");
+        employeeService.renameCompany("SearchCorp", "FindCorp");
+        
+        // Assert
+        assertTrue(employeeService.search("kowalski", 10).isEmpty());
+        assertEquals(1, employeeService.search("wisniewski", 10).size());
+        assertTrue(employeeService.search("nowak", 10).isEmpty());
+        assertTrue(employeeService.search("searchcorp", 10).isEmpty());
+        assertEquals("jan@test.com", employeeService.search("findcorp", 10).get(0).getEmail());
+    }
+    
+    @Test
+    @DisplayName("Powinien filtrować pracowników po wielu kryteriach jednocześnie")
+    void shouldFilterByMultipleCriteria() {
+        // Arrange
+        employeeService.addEmployee(new Employee("Jan Kowalski", "jan@techcorp.com", "TechCorp", Position.MANAGER, 12000));
+        employeeService.addEmployee(new Employee("Anna Nowak", "anna@techcorp.com", "TechCorp", Position.PROGRAMISTA, 10000));
+        employeeService.addEmployee(new Employee("Piotr Wiśniewski", "piotr@techcorp.com", "TechCorp", Position.PROGRAMISTA, 10500));
+        employeeService.addEmployee(new Employee("Ewa Zielińska", "ewa@techcorp.com", "TechCorp", Position.STAZYSTA, 3500));
+        employeeService.addEmployee(new Employee("Marek Wójcik", "marek@softhouse.com", "SoftHouse", Position.MANAGER, 13000));
+        employeeService.updateEmployeeStatus("piotr@techcorp.com", EmploymentStatus.ON_LEAVE);
+        EmployeeFilter filter = new EmployeeFilter(Set.of("techcorp"), Set.of(Position.MANAGER, Position.PROGRAMISTA),
+            Set.of(EmploymentStatus.ACTIVE), 10000.0, null);
+        
+        // Act
+        List<Employee> found = employeeService.filter(filter);
+        int count = employeeService.count(filter);
+        
+        // Assert
+        assertEquals(List.of("jan@techcorp.com", "anna@techcorp.com"), found.stream().map(Employee::getEmail).toList());
+        assertEquals(2, count);
+        assertEquals(1, employeeService.count(new EmployeeFilter(null, null, null, 10001.0, 11000.0)));
+        assertEquals(3, employeeService.count(new EmployeeFilter(null, Set.of(Position.MANAGER, Position.STAZYSTA), null, null, null)));
+        assertEquals(5, employeeService.count(EmployeeFilter.ALL));
+    }
+    
+    @Test
+    @DisplayName("Powinien uwzględniać zmiany wynagrodzeń i usunięcia w filtrach")
+    void shouldReflectSalaryChangesAndDeletes_inFilters() {
+        // Arrange
+        employeeService.addEmployee(new Employee("Jan Kowalski", "jan@techcorp.com", "TechCorp", Position.PROGRAMISTA, 8000));
+        employeeService.addEmployee(new Employee("Anna Nowak", "anna@techcorp.com", "TechCorp", Position.PROGRAMISTA, 9000));
+        EmployeeFilter wellPaid = new EmployeeFilter(null, null, null, 8500.0, null);
+        
+        // Act
+        employeeService.updateEmployee("jan@techcorp.com",
+            new Employee("Jan Kowalski", "jan@techcorp.com", "TechCorp", Position.PROGRAMISTA, 8600));
+        employeeService.deleteEmployee("anna@techcorp.com");
+        
+        // Assert
+        assertEquals(List.of("jan@techcorp.com"), employeeService.filter(wellPaid).stream().map(Employee::getEmail).toList());
+        assertThrows(IllegalArgumentException.class, () -> new EmployeeFilter(null, null, null, 10.0, 5.0));
+    }
+    
+    @Test
+    @DisplayName("Powinien wykonywać wyrażenia filtrujące z użyciem indeksów")
+    void shouldExecuteFilterExpressions_usingIndexes() {
+        // Arrange
+        employeeService.addEmployee(new Employee("Jan Kowalski", "jan@techcorp.com", "TechCorp", Position.MANAGER, 12500));
+        employeeService.addEmployee(new Employee("Anna Nowak", "anna@techcorp.com", "TechCorp", Position.PROGRAMISTA, 10000));
+        employeeService.addEmployee(new Employee("Piotr Wiśniewski", "piotr@techcorp.com", "TechCorp", Position.MANAGER, 11000));
+        employeeService.addEmployee(new Employee("Ewa Zielińska", "ewa@techcorp.com", "TechCorp", Position.STAZYSTA, 3500));
+        employeeService.addEmployee(new Employee("Marek Wójcik", "marek@softhouse.com", "SoftHouse", Position.MANAGER, 13000));
+        String filter = "position==MANAGER;salary=gt=12000;company==TechCorp";
+        
+        // Act
+        QueryResult first = employeeService.query(filter);
+        QueryResult second = employeeService.query(filter);
+        QueryResult either = employeeService.query("company==softhouse,(position=in=(STAZYSTA,PROGRAMISTA);salary=lt=5000)");
+        QueryResult byName = employeeService.query("name=='*kowal*'");
+        
+        // Assert
+        assertEquals(List.of("jan@techcorp.com"), first.employees().stream().map(Employee::getEmail).toList());
+        assertFalse(first.explain().cachedPlan());
+        assertTrue(second.explain().cachedPlan());
+        assertNotEquals("SCAN", first.explain().accessPath());
+        assertTrue(first.explain().examinedRows() < 5);
+        assertEquals(List.of("ewa@techcorp.com", "marek@softhouse.com"),
+            either.employees().stream().map(Employee::getEmail).toList());
+        assertEquals("SCAN", byName.explain().accessPath());
+        assertEquals(List.of("jan@techcorp.com"), byName.employees().stream().map(Employee::getEmail).toList());
+    }
+    
+    @Test
+    @DisplayName("Powinien odrzucać niepoprawne wyrażenia filtrujące")
+    void shouldRejectInvalidFilterExpressions() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> employeeService.query("position==MANAGER;"));
+        assertThrows(IllegalArgumentException.class, () -> employeeService.query("age=gt=30"));
+        assertThrows(IllegalArgumentException.class, () -> employeeService.query("position==DYREKTOR"));
+        assertThrows(IllegalArgumentException.class, () -> employeeService.query("company=gt=A"));
+        assertThrows(IllegalArgumentException.class, () -> employeeService.query("(salary==1"));
+    }
+
+    @Test
+    @DisplayName("Powinien odrzucać zbyt głęboko zagnieżdżone wyrażenia filtrujące")
+    void shouldRejectDeeplyNestedFilterExpression() {
+        // Arrange
+        String shallow = "(".repeat(32) + "salary==1" + ")".repeat(32);
+        String deep = "(".repeat(100_000) + "salary==1" + ")".repeat(100_000);
+
+        // Act
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> employeeService.query(deep));
+
+        // Assert
+        assertTrue(error.getMessage().startsWith("Invalid filter at position 33"));
+        assertTrue(employeeService.query(shallow).employees().isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Powinien odtworzyć stan z dziennika zmian po restarcie")
+    void shouldRestoreState_fromWriteAheadLog() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("employees.wal");
+        EmployeeService first = withLog(file, WriteAheadLog.Durability.EVERY_WRITE);
+        first.addEmployee(new Employee("Jan Kowalski", "jan@walcorp.com", "WalCorp", Position.MANAGER, 12000));
+        first.addAll(List.of(
+            new Employee("Anna Nowak", "anna@walcorp.com", "WalCorp", Position.PROGRAMISTA, 9000),
+            new Employee("Piotr Wiśniewski", "piotr@walcorp.com", "WalCorp", Position.STAZYSTA, 3500)), BatchMode.FAIL_FAST);
+        first.updateEmployeeStatus("anna@walcorp.com", EmploymentStatus.ON_LEAVE);
+        first.updatePhotoFileName("jan@walcorp.com", "jan.png");
+        first.updateEmployee("piotr@walcorp.com",
+            new Employee("Piotr Wiśniewski", "piotr.w@walcorp.com", "WalCorp", Position.PROGRAMISTA, 8000));
+        first.addEmployee(new Employee("Ewa Zielińska", "ewa@walcorp.com", "WalCorp", Position.PROGRAMISTA, 8500));
+        first.deleteEmployee("ewa@walcorp.com");
+        first.close();
+        
+        // Act
+        EmployeeService restored = withLog(file, WriteAheadLog.Durability.EVERY_WRITE);
+        
+        // Assert
+        assertEquals(List.of("jan@walcorp.com", "anna@walcorp.com", "piotr.w@walcorp.com"),
+            restored.getAllEmployees().stream().map(Employee::getEmail).toList());
+        assertEquals(EmploymentStatus.ON_LEAVE, restored.getByEmail("anna@walcorp.com").getStatus());
+        assertEquals("jan.png", restored.getByEmail("jan@walcorp.com").getPhotoFileName());
+        assertEquals(8000, restored.getByEmail("piotr.w@walcorp.com").getSalary());
+        assertEquals(3, restored.findByCompany("WalCorp").size());
+        assertTrue(restored.findByEmail("ewa@walcorp.com").isEmpty());
+        restored.close();
+    }
+
+    @Test
+    @DisplayName("Zmiana e-maila powinna trafić do dziennika jako jeden wpis")
+    void shouldLogEmailChange_asSingleEntry() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("moved.wal");
+        EmployeeService service = withLog(file, WriteAheadLog.Durability.EVERY_WRITE);
+        service.addEmployee(new Employee("Jan Kowalski", "jan@movecorp.com", "MoveCorp", Position.MANAGER, 12000));
+
+        // Act
+        service.updateEmployee("jan@movecorp.com",
+            new Employee("Jan Kowalski", "jan.k@movecorp.com", "MoveCorp", Position.MANAGER, 13000));
+        service.close();
+
+        // Assert
+        List<WriteAheadLog.Entry> entries = new ArrayList<>();
+        try (WriteAheadLog log = WriteAheadLog.open(file, WriteAheadLog.Durability.OS, 5)) {
+            log.replay(entries::add);
+        }
+        assertEquals(2, entries.size());
+        WriteAheadLog.Move move = assertInstanceOf(WriteAheadLog.Move.class, entries.get(1));
+        assertEquals("jan@movecorp.com", move.oldEmail());
+        assertEquals("jan.k@movecorp.com", move.employee().getEmail());
+        assertEquals(13000, move.employee().getSalary());
+    }
+    
+    @Test
+    @DisplayName("Powinien pominąć urwany ostatni wpis dziennika i dopisywać dalej")
+    void shouldDropTornTail_andKeepAppending() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("torn.wal");
+        EmployeeService first = withLog(file, WriteAheadLog.Durability.OS);
+        first.addEmployee(new Employee("Jan Kowalski", "jan@torn.com", "TornCorp", Position.MANAGER, 12000));
+        first.addEmployee(new Employee("Anna Nowak", "anna@torn.com", "TornCorp", Position.PROGRAMISTA, 9000));
+        first.close();
+        long intact = Files.size(file);
+        Files.write(file, new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+        
+        // Act
+        EmployeeService second = withLog(file, WriteAheadLog.Durability.INTERVAL);
+        long afterReplay = Files.size(file);
+        second.addEmployee(new Employee("Piotr Wiśniewski", "piotr@torn.com", "TornCorp", Position.STAZYSTA, 3500));
+        second.close();
+        EmployeeService third = withLog(file, WriteAheadLog.Durability.EVERY_WRITE);
+        
+        // Assert
+        assertEquals(intact, afterReplay);
+        assertEquals(List.of("jan@torn.com", "anna@torn.com", "piotr@torn.com"),
+            third.getAllEmployees().stream().map(Employee::getEmail).toList());
+        third.close();
+    }
+    
+    @Test
+    @DisplayName("Powinien zapisać w dzienniku wszystkie współbieżne zapisy")
+    void shouldLogAllConcurrentWrites_withGroupCommit() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("group.wal");
+        EmployeeService service = withLog(file, WriteAheadLog.Durability.EVERY_WRITE);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        
+        // Act
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 25; i++) {
+                    service.addEmployee(new Employee("Pracownik " + thread + " " + i, "p" + thread + "." + i + "@group.com",
+                        "GroupCorp", Position.PROGRAMISTA, 8000 + i));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        service.close();
+        EmployeeService restored = withLog(file, WriteAheadLog.Durability.EVERY_WRITE);
+        
+        // Assert
+        assertEquals(200, restored.size());
+        assertEquals(service.getAllEmployees().stream().map(Employee::getEmail).toList(),
+            restored.getAllEmployees().stream().map(Employee::getEmail).toList());
+        restored.close();
+    }
+    
+    @Test
+    @DisplayName("Powinien odtworzyć stan z migawki i dziennika zapisanego po niej")
+    void shouldRestoreState_fromSnapshotAndNewerLog() throws IOException {
+        // Arrange
+        EmployeeService first = withSnapshot(tempDir);
+        first.addEmployee(new Employee("Jan Kowalski", "jan@snapcorp.com", "SnapCorp", Position.MANAGER, 12000));
+        first.addEmployee(new Employee("Anna Nowak", "anna@snapcorp.com", "SnapCorp", Position.PROGRAMISTA, 9000));
+        first.updatePhotoFileName("anna@snapcorp.com", "anna.png");
+        first.updateEmployeeStatus("jan@snapcorp.com", EmploymentStatus.ON_LEAVE);
+        
+        // Act
+        int written = first.checkpoint();
+        long logAfterCheckpoint = Files.size(tempDir.resolve("employees.wal"));
+        first.addEmployee(new Employee("Żaneta Łęcka", "zaneta@snapcorp.com", "SnapCorp", Position.STAZYSTA, 3500));
+        first.deleteEmployee("jan@snapcorp.com");
+        first.close();
+        EmployeeService restored = withSnapshot(tempDir);
+        
+        // Assert
+        assertEquals(2, written);
+        assertTrue(logAfterCheckpoint < 64);
+        assertEquals(List.of("anna@snapcorp.com", "zaneta@snapcorp.com"),
+            restored.getAllEmployees().stream().map(Employee::getEmail).toList());
+        assertEquals("anna.png", restored.getByEmail("anna@snapcorp.com").getPhotoFileName());
+        assertEquals("Żaneta Łęcka", restored.getByEmail("zaneta@snapcorp.com").getFullName());
+        assertEquals("SnapCorp", restored.getByEmail("zaneta@snapcorp.com").getCompanyName());
+        assertEquals(2, restored.findByCompany("snapcorp").size());
+        restored.close();
+    }
+    
+    @Test
+    @DisplayName("Powinien odtworzyć stan, gdy migawka nie zdążyła się zapisać po rotacji dziennika")
+    void shouldReplayRotatedLog_whenSnapshotWasNotWritten() throws IOException {
+        // Arrange
+        EmployeeService first = withSnapshot(tempDir);
+        first.addEmployee(new Employee("Jan Kowalski", "jan@rotcorp.com", "RotCorp", Position.MANAGER, 12000));
+        first.checkpoint();
+        first.addEmployee(new Employee("Anna Nowak", "anna@rotcorp.com", "RotCorp", Position.PROGRAMISTA, 9000));
+        // a checkpoint that crashed between the rotation and the snapshot
+        first.getWriteAheadLog().orElseThrow().rotate();
+        first.addEmployee(new Employee("Piotr Wiśniewski", "piotr@rotcorp.com", "RotCorp", Position.STAZYSTA, 3500));
+        first.close();
+        
+        // Act
+        EmployeeService restored = withSnapshot(tempDir);
+        List<String> afterCrash = restored.getAllEmployees().stream().map(Employee::getEmail).toList();
+        restored.checkpoint();
+        restored.close();
+        
+        // Assert
+        assertEquals(List.of("jan@rotcorp.com", "anna@rotcorp.com", "piotr@rotcorp.com"), afterCrash);
+        try (var files = Files.list(tempDir)) {
+            assertEquals(List.of("employees.snapshot", "employees.wal"),
+                files.map(path -> path.getFileName().toString()).sorted().toList());
+        }
+        EmployeeService again = withSnapshot(tempDir);
+        assertEquals(afterCrash, again.getAllEmployees().stream().map(Employee::getEmail).toList());
+        again.close();
+    }
+    
+    private static EmployeeService withSnapshot(Path dir) throws IOException {
+        return new EmployeeService(StorageMode.fromSystemProperty(), EmployeeService.DEFAULT_PARALLEL_THRESHOLD,
+            EmployeeService.DEFAULT_CHANGE_CAPACITY,
+            WriteAheadLog.open(dir.resolve("employees.wal"), WriteAheadLog.Durability.OS, 5),
+            new SnapshotFile(dir.resolve("employees.snapshot")));
+    }
+    
+    private static EmployeeService withLog(Path file, WriteAheadLog.Durability durability) throws IOException {
+        return new EmployeeService(StorageMode.fromSystemProperty(), EmployeeService.DEFAULT_PARALLEL_THRESHOLD,
+            EmployeeService.DEFAULT_CHANGE_CAPACITY, WriteAheadLog.open(file, durability, 5));
+    }
 }
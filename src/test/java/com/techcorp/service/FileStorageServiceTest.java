@@ -0,0 +1,90 @@
+package com.techcorp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.techcorp.exception.FileMissingException;
+import com.techcorp.model.DocumentType;
+import com.techcorp.model.EmployeeDocument;
+
+public class FileStorageServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void documents_surviveRestart() throws Exception {
+        Path metadata = tempDir.resolve("data/documents.log");
+        FileStorageService first = open(metadata);
+        EmployeeDocument contract = upload(first, "jan@techcorp.com", "umowa.pdf", DocumentType.CONTRACT);
+        EmployeeDocument certificate = upload(first, "jan@techcorp.com", "certyfikat.pdf", DocumentType.CERTIFICATE);
+        EmployeeDocument other = upload(first, "anna@techcorp.com", "notatka.txt", DocumentType.OTHER);
+        first.deleteDocument("anna@techcorp.com", other.getId());
+        first.close();
+
+        FileStorageService restored = open(metadata);
+
+        assertThat(restored.listDocuments("JAN@techcorp.com")).extracting(EmployeeDocument::getId)
+                .containsExactly(contract.getId(), certificate.getId());
+        EmployeeDocument loaded = restored.getDocument("jan@techcorp.com", certificate.getId());
+        assertThat(loaded.getOriginalFileName()).isEqualTo("certyfikat.pdf");
+        assertThat(loaded.getFileType()).isEqualTo(DocumentType.CERTIFICATE);
+        assertThat(loaded.getUploadDate()).isEqualTo(certificate.getUploadDate());
+        assertThat(Files.exists(Path.of(loaded.getFilePath()))).isTrue();
+        assertThat(restored.listDocuments("anna@techcorp.com")).isEmpty();
+        assertThat(Files.exists(Path.of(other.getFilePath()))).isFalse();
+        restored.close();
+    }
+
+    @Test
+    public void getDocument_rejectsDocumentOfAnotherEmployee() throws Exception {
+        FileStorageService service = open(tempDir.resolve("documents.log"));
+        EmployeeDocument contract = upload(service, "jan@techcorp.com", "umowa.pdf", DocumentType.CONTRACT);
+
+        assertThatThrownBy(() -> service.getDocument("anna@techcorp.com", contract.getId()))
+                .isInstanceOf(FileMissingException.class);
+        assertThatThrownBy(() -> service.deleteDocument("anna@techcorp.com", contract.getId()))
+                .isInstanceOf(FileMissingException.class);
+        assertThat(service.getDocument("jan@techcorp.com", contract.getId()).getId()).isEqualTo(contract.getId());
+        service.close();
+    }
+
+    @Test
+    public void tornLastRecord_isDroppedOnRestart() throws Exception {
+        Path metadata = tempDir.resolve("documents.log");
+        FileStorageService first = open(metadata);
+        EmployeeDocument contract = upload(first, "jan@techcorp.com", "umowa.pdf", DocumentType.CONTRACT);
+        first.close();
+        long intact = Files.size(metadata);
+        Files.write(metadata, new byte[] {0, 0, 0, 50, 7, 7}, StandardOpenOption.APPEND);
+
+        FileStorageService second = open(metadata);
+        EmployeeDocument id = upload(second, "jan@techcorp.com", "dowod.pdf", DocumentType.ID_CARD);
+        second.close();
+        FileStorageService third = open(metadata);
+
+        assertThat(third.listDocuments("jan@techcorp.com")).extracting(EmployeeDocument::getId)
+                .containsExactly(contract.getId(), id.getId());
+        assertThat(Files.size(metadata)).isGreaterThan(intact);
+        third.close();
+    }
+
+    private FileStorageService open(Path metadata) {
+        return new FileStorageService(tempDir.resolve("uploads").toString(), tempDir.resolve("reports").toString(),
+                metadata.toString());
+    }
+
+    private static EmployeeDocument upload(FileStorageService service, String email, String name, DocumentType type) {
+        MockMultipartFile file = new MockMultipartFile("file", name, "application/pdf", "tresc".getBytes());
+        String stored = service.storeFile(file, "documents/" + email);
+        return service.registerDocument(email, stored, name, type);
+    }
+}
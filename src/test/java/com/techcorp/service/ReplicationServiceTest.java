@@ -0,0 +1,313 @@
+package com.techcorp.service;
+
+import com.techcorp.exception.NotLeaderException;
+import com.techcorp.model.Employee;
+import com.techcorp.model.EmployeeFilter;
+import com.techcorp.model.EmploymentStatus;
+import com.techcorp.model.Position;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicationServiceTest {
+
+    private static final String SECRET = "test-secret";
+
+    private final List<ReplicationService> nodes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (ReplicationService node : nodes) {
+            node.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Powinien przesłać stan lidera i jego kolejne zmiany do dwóch replik")
+    void shouldReplicateSnapshotAndChanges_toTwoFollowers() throws Exception {
+        // Arrange
+        EmployeeService leaderStore = new EmployeeService();
+        leaderStore.addEmployee(new Employee("Jan Kowalski", "jan@replcorp.com", "ReplCorp", Position.MANAGER, 12000));
+        ReplicationService leader = leader(leaderStore);
+        EmployeeService first = new EmployeeService();
+        EmployeeService second = new EmployeeService();
+        ReplicationService firstNode = follower(first, leader, 2000, event -> { });
+        ReplicationService secondNode = follower(second, leader, 2000, event -> { });
+
+        // Act
+        leaderStore.addEmployee(new Employee("Anna Nowak", "anna@replcorp.com", "ReplCorp", Position.PROGRAMISTA, 9000));
+        leaderStore.addEmployee(new Employee("Piotr Wiśniewski", "piotr@replcorp.com", "ReplCorp", Position.STAZYSTA, 3500));
+        leaderStore.updateEmployeeStatus("anna@replcorp.com", EmploymentStatus.ON_LEAVE);
+        leaderStore.deleteEmployee("piotr@replcorp.com");
+        long sequence = leader.getLeader().lastSequence();
+        boolean firstCaughtUp = firstNode.getFollower().awaitSequence(sequence, 10_000);
+        boolean secondCaughtUp = secondNode.getFollower().awaitSequence(sequence, 10_000);
+
+        // Assert
+        assertTrue(firstCaughtUp);
+        assertTrue(secondCaughtUp);
+        for (EmployeeService follower : List.of(first, second)) {
+            assertEquals(List.of("jan@replcorp.com", "anna@replcorp.com"),
+                follower.getAllEmployees().stream().map(Employee::getEmail).toList());
+            assertEquals(EmploymentStatus.ON_LEAVE, follower.getByEmail("anna@replcorp.com").getStatus());
+            assertEquals(2, follower.findByCompany("replcorp").size());
+            assertEquals(1, follower.search("anna replcorp", 10).size());
+        }
+        assertEquals(1, firstNode.status().snapshotsLoaded());
+        assertEquals(2, leader.status().followers());
+    }
+
+    @Test
+    @DisplayName("Powinien przesłać replice zmianę nazwy firmy i zmianę e-maila")
+    void shouldReplicateCompanyRenameAndEmailChange() throws Exception {
+        // Arrange
+        EmployeeService leaderStore = new EmployeeService();
+        leaderStore.addEmployee(new Employee("Jan Kowalski", "jan@oldrepl.com", "OldRepl", Position.MANAGER, 12000));
+        leaderStore.addEmployee(new Employee("Anna Nowak", "anna@oldrepl.com", "OldRepl", Position.PROGRAMISTA, 9000));
+        ReplicationService leader = leader(leaderStore);
+        EmployeeService replica = new EmployeeService();
+        ReplicationService node = follower(replica, leader, 2000, event -> { });
+        assertTrue(node.getFollower().awaitSequence(leader.getLeader().lastSequence(), 10_000));
+        EmployeeSnapshot before = replica.getSnapshot();
+
+        // Act
+        leaderStore.renameCompany("OldRepl", "NewRepl");
+        leaderStore.updateEmployee("anna@oldrepl.com",
+            new Employee("Anna Nowak", "anna@newrepl.com", "NewRepl", Position.PROGRAMISTA, 9500));
+        boolean caughtUp = node.getFollower().awaitSequence(leader.getLeader().lastSequence(), 10_000);
+
+        // Assert
+        assertTrue(caughtUp);
+        assertEquals("NewRepl", replica.getByEmail("jan@oldrepl.com").getCompanyName());
+        assertEquals(2, replica.findByCompany("newrepl").size());
+        assertTrue(replica.findByCompany("oldrepl").isEmpty());
+        assertTrue(replica.findByEmail("anna@oldrepl.com").isEmpty());
+        assertEquals(9500, replica.getByEmail("anna@newrepl.com").getSalary());
+        assertEquals(1, replica.search("jan newrepl", 10).size());
+        assertEquals("OldRepl", before.employees().get(0).getCompanyName());
+    }
+
+    @Test
+    @DisplayName("Powinien wysyłać replikom tylko wpisy utrwalone w dzienniku lidera")
+    void shouldShipOnlyDurableEntries() throws Exception {
+        // Arrange
+        ReplicationLog log = new ReplicationLog(16);
+        log.append(new WriteAheadLog.Delete("a@techcorp.com"), 100);
+        log.append(new WriteAheadLog.Delete("b@techcorp.com"), 200);
+        log.append(new WriteAheadLog.Delete("c@techcorp.com"), 300);
+
+        // Act
+        List<byte[]> none = log.read(0, 100, 0).orElseThrow();
+        log.durable(200);
+        List<byte[]> two = log.read(0, 100, 0).orElseThrow();
+        long shippable = log.lastSequence();
+        log.durable(300);
+
+        // Assert
+        assertEquals(List.of(), none);
+        assertEquals(2, two.size());
+        assertEquals(2, shippable);
+        assertEquals(3, log.lastSequence());
+        assertEquals(1, log.read(2, 100, 0).orElseThrow().size());
+    }
+
+    @Test
+    @DisplayName("Replika powinna odrzucać zapisy")
+    void shouldRefuseWrites_onFollower() throws Exception {
+        // Arrange
+        ReplicationService leader = leader(new EmployeeService());
+        EmployeeService replica = new EmployeeService();
+        follower(replica, leader, 2000, event -> { });
+        Employee employee = new Employee("Ewa Zielińska", "ewa@ro-corp.com", "RoCorp", Position.MANAGER, 12000);
+
+        // Act & Assert
+        assertThrows(NotLeaderException.class, () -> replica.addEmployee(employee));
+        assertThrows(NotLeaderException.class, () -> replica.deleteEmployee("ewa@ro-corp.com"));
+        assertThrows(NotLeaderException.class, () -> replica.renameCompany("RoCorp", "RoCorp2"));
+        assertTrue(replica.isReplica());
+        assertEquals(0, replica.size());
+    }
+
+    @Test
+    @DisplayName("Powinien odtworzyć replikę z migawki, gdy lider wystartował ponownie")
+    void shouldResyncFromSnapshot_whenLeaderRestarts() throws Exception {
+        // Arrange
+        EmployeeService before = new EmployeeService();
+        before.addEmployee(new Employee("Jan Kowalski", "jan@restartcorp.com", "RestartCorp", Position.MANAGER, 12000));
+        before.addEmployee(new Employee("Anna Nowak", "anna@restartcorp.com", "RestartCorp", Position.PROGRAMISTA, 9000));
+        ReplicationService leader = leader(before);
+        EmployeeService replica = new EmployeeService();
+        ReplicationService node = follower(replica, leader, 2000, event -> { });
+        assertTrue(node.getFollower().awaitSequence(leader.getLeader().lastSequence(), 10_000));
+        int port = leader.getLeader().port();
+        List<Long> changes = Collections.synchronizedList(new ArrayList<>());
+        replica.getChangeFeed().subscribe(() -> changes.add(replica.lastChangeSequence()));
+
+        // Act: a new leader process on the same address, with a different state
+        nodes.remove(leader);
+        leader.close();
+        EmployeeService after = new EmployeeService();
+        after.addEmployee(new Employee("Anna Nowak", "anna@restartcorp.com", "RestartCorp", Position.MANAGER, 15000));
+        after.addEmployee(new Employee("Ola Lis", "ola@restartcorp.com", "RestartCorp", Position.STAZYSTA, 3500));
+        ReplicationService restarted = node(after, ReplicationRole.LEADER, "127.0.0.1:" + port, "", 65536, 2000, event -> { });
+        await(() -> node.status().snapshotsLoaded() == 2 && node.status().generation() == restarted.status().generation());
+
+        // Assert
+        assertEquals(List.of("anna@restartcorp.com", "ola@restartcorp.com"),
+            replica.getAllEmployees().stream().map(Employee::getEmail).toList());
+        assertEquals(15000, replica.getByEmail("anna@restartcorp.com").getSalary());
+        assertTrue(replica.findByEmail("jan@restartcorp.com").isEmpty());
+        assertFalse(changes.isEmpty(), "czytelnicy kanału zmian dostają RESET");
+    }
+
+    @Test
+    @DisplayName("Ponowne wczytanie migawki nie powinno zwiększać numeracji wierszy")
+    void shouldRenumberRowsFromZero_whenReplicaResets() {
+        // Arrange
+        EmployeeService replica = new EmployeeService();
+        replica.becomeReplica();
+        List<Employee> image = List.of(
+            new Employee("Jan Kowalski", "jan@resetcorp.com", "ResetCorp", Position.MANAGER, 12000),
+            new Employee("Anna Nowak", "anna@resetcorp.com", "ResetCorp", Position.PROGRAMISTA, 9000),
+            new Employee("Ola Lis", "ola@resetcorp.com", "ResetCorp", Position.STAZYSTA, 3500));
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            replica.resetReplica(image.stream().map(Employee::new).toList());
+        }
+
+        // Assert
+        assertEquals(3, replica.rowLimit());
+        assertEquals(3, replica.size());
+        assertEquals(3, replica.findByCompany("resetcorp").size());
+        assertEquals(1, replica.search("anna resetcorp", 10).size());
+        assertEquals(1, replica.count(new EmployeeFilter(Set.of("ResetCorp"), Set.of(Position.MANAGER), Set.of(), null, null)));
+    }
+
+    @Test
+    @DisplayName("Powinien wymagać migawki od repliki, która została za buforem zmian")
+    void shouldRequireSnapshot_whenFollowerIsBehindBacklog() throws Exception {
+        // Arrange
+        ReplicationLog log = new ReplicationLog(4);
+        for (int i = 0; i < 10; i++) {
+            log.append(new WriteAheadLog.Delete("nikt" + i + "@techcorp.com"), 0);
+        }
+
+        // Act
+        Optional<List<byte[]>> tooOld = log.read(5, 100, 0);
+        Optional<List<byte[]>> kept = log.read(6, 100, 0);
+        Optional<List<byte[]>> ahead = log.read(11, 100, 0);
+        Optional<List<byte[]>> idle = log.read(10, 100, 10);
+
+        // Assert
+        assertTrue(tooOld.isEmpty());
+        assertEquals(4, kept.orElseThrow().size());
+        assertTrue(ahead.isEmpty());
+        assertEquals(List.of(), idle.orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Replika powinna zgłaszać brak gotowości, gdy opóźnienie przekroczy limit")
+    void shouldRefuseTraffic_whenLagExceedsBound() throws Exception {
+        // Arrange
+        EmployeeService leaderStore = new EmployeeService();
+        leaderStore.addEmployee(new Employee("Jan Kowalski", "jan@lagcorp.com", "LagCorp", Position.MANAGER, 12000));
+        ReplicationService leader = leader(leaderStore);
+        List<ReadinessState> readiness = Collections.synchronizedList(new ArrayList<>());
+
+        // Act
+        ReplicationService node = follower(new EmployeeService(), leader, 300, event -> readiness.add(readinessOf(event)));
+        await(() -> node.status().snapshotsLoaded() == 1);
+        // Spring Boot announces readiness once startup is done
+        node.onReadinessChange(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+        boolean readyWhileConnected = node.status().ready();
+        nodes.remove(leader);
+        leader.close();
+        await(() -> !node.status().ready());
+
+        // Assert
+        assertTrue(readyWhileConnected);
+        assertTrue(node.status().lagMillis() > 300);
+        assertEquals(ReadinessState.REFUSING_TRAFFIC, readiness.get(readiness.size() - 1));
+    }
+
+    @Test
+    @DisplayName("Lider powinien odrzucić replikę, która nie zna wspólnego sekretu")
+    void shouldRejectFollower_withWrongSecret() throws Exception {
+        // Arrange
+        EmployeeService leaderStore = new EmployeeService();
+        leaderStore.addEmployee(new Employee("Jan Kowalski", "jan@secretcorp.com", "SecretCorp", Position.MANAGER, 12000));
+        ReplicationService leader = leader(leaderStore);
+        EmployeeService intruder = new EmployeeService();
+
+        // Act
+        ReplicationService node = node(intruder, ReplicationRole.FOLLOWER, "", "127.0.0.1:" + leader.getLeader().port(),
+            "wrong-secret", 65536, 2000, event -> { });
+        boolean caughtUp = node.getFollower().awaitSequence(0, 500);
+
+        // Assert
+        assertFalse(caughtUp);
+        assertEquals(0, node.status().snapshotsLoaded());
+        assertEquals(0, intruder.size());
+    }
+
+    @Test
+    @DisplayName("Lider powinien wymagać jawnie podanego adresu nasłuchu i sekretu")
+    void shouldRequireListenAddressAndSecret_forLeader() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> node(new EmployeeService(), ReplicationRole.LEADER,
+            "", "", SECRET, 65536, 2000, event -> { }));
+        assertThrows(IllegalArgumentException.class, () -> node(new EmployeeService(), ReplicationRole.LEADER,
+            "127.0.0.1:0", "", " ", 65536, 2000, event -> { }));
+    }
+
+    private ReplicationService leader(EmployeeService store) {
+        return node(store, ReplicationRole.LEADER, "127.0.0.1:0", "", 65536, 2000, event -> { });
+    }
+
+    private ReplicationService follower(EmployeeService store, ReplicationService leader, long maxLagMillis,
+                                        ApplicationEventPublisher events) {
+        return node(store, ReplicationRole.FOLLOWER, "", "127.0.0.1:" + leader.getLeader().port(), 65536, maxLagMillis, events);
+    }
+
+    private ReplicationService node(EmployeeService store, ReplicationRole role, String listen, String leaderAddress,
+                                    int backlog, long maxLagMillis,
+                                    ApplicationEventPublisher events) {
+        return node(store, role, listen, leaderAddress, SECRET, backlog, maxLagMillis, events);
+    }
+
+    private ReplicationService node(EmployeeService store, ReplicationRole role, String listen, String leaderAddress,
+                                    String secret, int backlog, long maxLagMillis,
+                                    ApplicationEventPublisher events) {
+        ReplicationService node = new ReplicationService(store, role, listen, leaderAddress, secret,
+            backlog, 50, maxLagMillis, events);
+        nodes.add(node);
+        return node;
+    }
+
+    private static ReadinessState readinessOf(Object event) {
+        return (ReadinessState) ((AvailabilityChangeEvent<?>) event).getState();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "warunek niespełniony w 10 s");
+            Thread.sleep(10);
+        }
+    }
+}
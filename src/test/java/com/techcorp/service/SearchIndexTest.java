@@ -0,0 +1,70 @@
+package com.techcorp.service;
+
+import com.techcorp.model.Employee;
+import com.techcorp.model.Position;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchIndexTest {
+
+    @Test
+    @DisplayName("Krótki prefiks w dużym zbiorze powinien odczytać tylko około k pracowników")
+    void shouldTouchAboutLimitRows_forShortPrefixOverLargeStore() {
+        // Arrange
+        AtomicInteger fetched = new AtomicInteger();
+        HeapEmployeeStorage storage = new HeapEmployeeStorage() {
+            @Override
+            public Employee get(int row) {
+                fetched.incrementAndGet();
+                return super.get(row);
+            }
+        };
+        SearchIndex index = new SearchIndex(storage);
+        for (int row = 0; row < 100_000; row++) {
+            Employee employee = new Employee("Jan Kowalski", "e" + row + "@bigcorp.com", "BigCorp",
+                Position.PROGRAMISTA, 8000);
+            employee.assignCompany(0, "BigCorp");
+            storage.put(row, employee);
+            index.add(row, employee);
+        }
+
+        // Act
+        List<Employee> byName = index.search("k", 10);
+        int fetchedByName = fetched.getAndSet(0);
+        List<Employee> byCompany = index.search("bigc", 10);
+        int fetchedByCompany = fetched.get();
+
+        // Assert
+        assertEquals(10, byName.size());
+        assertEquals(10, byCompany.size());
+        assertTrue(fetchedByName <= 20, "odczytano " + fetchedByName);
+        assertTrue(fetchedByCompany <= 20, "odczytano " + fetchedByCompany);
+    }
+
+    @Test
+    @DisplayName("Powinien znaleźć dopasowania rozrzucone po wielu porcjach kandydatów")
+    void shouldFindSparseMatches_acrossChunks() {
+        // Arrange
+        HeapEmployeeStorage storage = new HeapEmployeeStorage();
+        SearchIndex index = new SearchIndex(storage);
+        for (int row = 0; row < 500; row++) {
+            Employee employee = new Employee("Anna Nowakowska", "anna" + row + "@chunk.com", "Chunk",
+                Position.PROGRAMISTA, 8000);
+            employee.assignCompany(0, "Chunk");
+            storage.put(row, employee);
+            index.add(row, employee);
+        }
+
+        // Act: "nowakowska" drives 500 candidates in chunks of 40, "anna49" keeps 11 of them
+        List<Employee> found = index.search("nowakowska anna49", 20);
+
+        // Assert
+        assertEquals(11, found.size());
+        assertEquals("anna49@chunk.com", found.get(0).getEmail());
+    }
+}
@@ -0,0 +1,150 @@
+package com.techcorp.service;
+
+import com.techcorp.exception.ApiException;
+import com.techcorp.model.Employee;
+import com.techcorp.model.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupDataLoaderTest {
+
+    private EmployeeService employeeService;
+    private ImportService importService;
+    private ApiService apiService;
+    private List<ReadinessState> readiness;
+    private Path csvFile;
+    private StartupDataLoader loader;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        employeeService = new EmployeeService();
+        importService = new ImportService(employeeService);
+        apiService = Mockito.mock(ApiService.class);
+        readiness = Collections.synchronizedList(new ArrayList<>());
+        csvFile = tempDir.resolve("employees.csv");
+        Files.writeString(csvFile, """
+                firstName,lastName,email,company,position,salary
+                Jan,Kowalski,jan@techcorp.com,StartCorp,PROGRAMISTA,9000
+                zla,linia
+                """);
+        List<Employee> xml = List.of(
+            new Employee("Jan Xml", "jan@techcorp.com", "XmlCorp", Position.MANAGER, 12000),
+            new Employee("Ewa Xml", "ewa@techcorp.com", "XmlCorp", Position.MANAGER, 12000));
+        ApplicationEventPublisher events = event -> {
+            AvailabilityChangeEvent<ReadinessState> change = readinessEvent(event);
+            readiness.add(change.getState());
+            loader.onReadinessChange(change);
+        };
+        loader = new StartupDataLoader(employeeService, importService, apiService, xml, csvFile.toString(), events);
+    }
+
+    @Test
+    @DisplayName("Powinien dodać CSV i XML, zanim odpowie wolne API")
+    void shouldServeCsvAndXml_whileApiIsSlow() throws Exception {
+        // Arrange
+        CountDownLatch apiReleased = new CountDownLatch(1);
+        Mockito.when(apiService.fetchEmployeesFromApi()).thenAnswer(invocation -> {
+            apiReleased.await(10, TimeUnit.SECONDS);
+            return List.of(new Employee("Ola Api", "ola@techcorp.com", "ApiCorp", Position.STAZYSTA, 3500));
+        });
+
+        // Act
+        var load = loader.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (employeeService.size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        int beforeApi = employeeService.size();
+        StartupDataLoader.State stateBeforeApi = loader.getState();
+        // Spring Boot announces readiness once the runners return, while the load still runs
+        AvailabilityChangeEvent.publish(event -> loader.onReadinessChange(readinessEvent(event)), this,
+            ReadinessState.ACCEPTING_TRAFFIC);
+        apiReleased.countDown();
+        StartupDataLoader.Report report = load.get(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(2, beforeApi);
+        assertEquals(StartupDataLoader.State.LOADING, stateBeforeApi);
+        assertEquals(StartupDataLoader.State.READY, loader.getState());
+        assertEquals(3, employeeService.size());
+        assertEquals(List.of("CSV", "XML", "API"), report.sources().stream().map(StartupDataLoader.SourceReport::source).toList());
+        assertEquals(List.of(1, 1, 1), report.sources().stream().map(StartupDataLoader.SourceReport::added).toList());
+        assertEquals(List.of(ReadinessState.REFUSING_TRAFFIC, ReadinessState.REFUSING_TRAFFIC,
+            ReadinessState.ACCEPTING_TRAFFIC), readiness);
+    }
+
+    @Test
+    @DisplayName("Powinien rozstrzygać duplikaty według kolejności źródeł, a nie czasu odpowiedzi")
+    void shouldResolveDuplicates_bySourceOrder() throws Exception {
+        // Arrange
+        Mockito.when(apiService.fetchEmployeesFromApi())
+            .thenReturn(List.of(new Employee("Jan Api", "JAN@techcorp.com", "ApiCorp", Position.STAZYSTA, 3500)));
+
+        // Act
+        StartupDataLoader.Report report = loader.start().get(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals("StartCorp", employeeService.getByEmail("jan@techcorp.com").getCompanyName());
+        assertEquals(2, employeeService.size());
+        assertEquals(1, report.sources().get(0).errors().size(), "tylko zła linia z CSV");
+        assertTrue(report.sources().get(1).errors().get(0).startsWith("XML 1: "));
+        assertTrue(report.sources().get(2).errors().get(0).startsWith("API 1: "));
+    }
+
+    @Test
+    @DisplayName("Powinien zgłosić gotowość mimo niedostępnego API")
+    void shouldBecomeReady_whenApiFails() throws Exception {
+        // Arrange
+        Mockito.when(apiService.fetchEmployeesFromApi()).thenThrow(new ApiException("Błąd HTTP: 503"));
+
+        // Act
+        StartupDataLoader.Report report = loader.start().get(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(StartupDataLoader.State.READY, loader.getState());
+        assertEquals(List.of("Błąd HTTP: 503"), report.sources().get(2).errors());
+        assertEquals(2, employeeService.size());
+        assertEquals(List.of(ReadinessState.REFUSING_TRAFFIC, ReadinessState.ACCEPTING_TRAFFIC), readiness);
+    }
+
+    @Test
+    @DisplayName("Nie powinien importować, gdy magazyn został odtworzony")
+    void shouldSkipLoad_whenStoreWasRestored() throws Exception {
+        // Arrange
+        employeeService.addEmployee(new Employee("Anna Nowak", "anna@techcorp.com", "TechCorp", Position.MANAGER, 12000));
+
+        // Act
+        StartupDataLoader.Report report = loader.start().get(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(report.restored());
+        assertEquals(1, employeeService.size());
+        assertTrue(readiness.isEmpty());
+        Mockito.verifyNoInteractions(apiService);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AvailabilityChangeEvent<ReadinessState> readinessEvent(Object event) {
+        return (AvailabilityChangeEvent<ReadinessState>) event;
+    }
+}